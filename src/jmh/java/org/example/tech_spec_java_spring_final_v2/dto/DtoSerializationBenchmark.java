@@ -0,0 +1,98 @@
+package org.example.tech_spec_java_spring_final_v2.dto;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of the response bodies in both negotiated formats, with the mappers configured
+ * the way Spring Boot configures the ones used by the controllers (see {@code CborConfig}).
+ * The encoded sizes are printed once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DtoSerializationBenchmark {
+
+    private static final TypeReference<List<UserDto>> USER_LIST = new TypeReference<>() {
+    };
+
+    @Param({"1", "50", "500", "10000"})
+    private int size;
+
+    @Param({"json", "cbor"})
+    private String format;
+
+    private ObjectMapper objectMapper;
+    private List<UserDto> users;
+    private List<SubscriptionDto> subscriptions;
+    private SubscriptionPageDto page;
+    private byte[] encodedUsers;
+    private byte[] encodedPage;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = switch (format) {
+            case "json" -> Jackson2ObjectMapperBuilder.json().build();
+            case "cbor" -> Jackson2ObjectMapperBuilder.cbor().build();
+            default -> throw new IllegalArgumentException("Unknown format: " + format);
+        };
+        users = new ArrayList<>(size);
+        subscriptions = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            users.add(new UserDto((long) i, "User " + i, "user" + i + "@example.com"));
+            subscriptions.add(new SubscriptionDto((long) i, (long) i / 5, "Service " + i % 20,
+                    LocalDate.of(2024, 1, 1).plusDays(i % 365)));
+        }
+        page = new SubscriptionPageDto(subscriptions, "MjAyNC0wMS0wMToxMA");
+        encodedUsers = objectMapper.writeValueAsBytes(users);
+        encodedPage = objectMapper.writeValueAsBytes(page);
+        System.out.printf("%n%s, %d elements: users %d bytes, subscription page %d bytes%n",
+                format, size, encodedUsers.length, encodedPage.length);
+    }
+
+    @Benchmark
+    public byte[] users() throws IOException {
+        return objectMapper.writeValueAsBytes(users);
+    }
+
+    @Benchmark
+    public byte[] subscriptions() throws IOException {
+        return objectMapper.writeValueAsBytes(subscriptions);
+    }
+
+    @Benchmark
+    public byte[] subscriptionPage() throws IOException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public List<UserDto> decodeUsers() throws IOException {
+        return objectMapper.readValue(encodedUsers, USER_LIST);
+    }
+
+    @Benchmark
+    public SubscriptionPageDto decodeSubscriptionPage() throws IOException {
+        return objectMapper.readValue(encodedPage, SubscriptionPageDto.class);
+    }
+}
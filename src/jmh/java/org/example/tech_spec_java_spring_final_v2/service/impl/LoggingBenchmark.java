@@ -0,0 +1,91 @@
+package org.example.tech_spec_java_spring_final_v2.service.impl;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.OutputStreamAppender;
+import org.example.tech_spec_java_spring_final_v2.dto.SubscriptionDto;
+import org.example.tech_spec_java_spring_final_v2.entity.SubscriptionEntity;
+import org.example.tech_spec_java_spring_final_v2.entity.UserEntity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the log statements on the mapping and top-subscriptions paths at different levels.
+ * Events are fully formatted with the Spring Boot console pattern and written to a discarding stream,
+ * so the numbers exclude the console itself.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoggingBenchmark {
+
+    private static final String PATTERN =
+            "%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p %pid --- [%15.15t] %-40.40logger{39} : %m%n";
+
+    @Param({"OFF", "INFO", "TRACE"})
+    private String level;
+
+    private SubscriptionServiceImpl subscriptionService;
+    private SubscriptionEntity subscription;
+
+    @Setup
+    public void setUp() {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        context.reset();
+
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern(PATTERN);
+        encoder.start();
+
+        OutputStreamAppender<ILoggingEvent> appender = new OutputStreamAppender<>();
+        appender.setContext(context);
+        appender.setEncoder(encoder);
+        appender.setOutputStream(OutputStream.nullOutputStream());
+        appender.start();
+
+        Logger root = context.getLogger(Logger.ROOT_LOGGER_NAME);
+        root.addAppender(appender);
+        root.setLevel(Level.toLevel(level));
+
+        SubscriptionPopularityIndex index = new SubscriptionPopularityIndex(null, 3) {
+            @Override
+            public void reconcile() {
+            }
+        };
+        subscriptionService = new SubscriptionServiceImpl(null, null, null, index, null, null, null, null, null, null);
+        UserEntity user = UserEntity.builder().id(1L).name("John Doe").email("john.doe@example.com").build();
+        subscription = SubscriptionEntity.builder()
+                .id(10L).userId(user.getId()).serviceName("Netflix").startDate(LocalDate.of(2024, 1, 1)).build();
+    }
+
+    @Benchmark
+    public SubscriptionDto subscriptionToDto() {
+        return subscriptionService.toDto(subscription);
+    }
+
+    @Benchmark
+    public Object topSubscriptions() {
+        return subscriptionService.getTopSubscriptions(null, null, null);
+    }
+}
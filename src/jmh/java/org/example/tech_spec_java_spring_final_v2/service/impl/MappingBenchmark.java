@@ -0,0 +1,63 @@
+package org.example.tech_spec_java_spring_final_v2.service.impl;
+
+import org.example.tech_spec_java_spring_final_v2.dto.SubscriptionDto;
+import org.example.tech_spec_java_spring_final_v2.dto.UserDto;
+import org.example.tech_spec_java_spring_final_v2.entity.SubscriptionEntity;
+import org.example.tech_spec_java_spring_final_v2.entity.UserEntity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to DTO mapping of both service implementations, with logging at the default level.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MappingBenchmark {
+
+    private UserServiceImpl userService;
+    private SubscriptionServiceImpl subscriptionService;
+    private UserEntity user;
+    private SubscriptionEntity subscription;
+
+    @Setup
+    public void setUp() {
+        userService = new UserServiceImpl(null, null, null, null, null, null, null, null, null, null);
+        subscriptionService = new SubscriptionServiceImpl(null, null, null, null, null, null, null, null, null, null);
+        user = UserEntity.builder().id(1L).name("John Doe").email("john.doe@example.com").build();
+        subscription = SubscriptionEntity.builder()
+                .id(10L).userId(user.getId()).serviceName("Netflix").startDate(LocalDate.of(2024, 1, 1)).build();
+    }
+
+    @Benchmark
+    public UserDto userToDto() {
+        return userService.toDto(user);
+    }
+
+    @Benchmark
+    public SubscriptionDto subscriptionToDto() {
+        return subscriptionService.toDto(subscription);
+    }
+
+    @Benchmark
+    public void subscriptionPageToDto(Blackhole blackhole) {
+        for (int i = 0; i < SubscriptionServiceImpl.DEFAULT_PAGE_SIZE; i++) {
+            blackhole.consume(subscriptionService.toDto(subscription));
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package org.example.tech_spec_java_spring_final_v2.service.impl;
+
+import org.example.tech_spec_java_spring_final_v2.dto.TopSubscriptionDto;
+import org.example.tech_spec_java_spring_final_v2.repository.JdbcReadRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building the top-N result from the in-memory counts, both when it is cached and when
+ * a write has marked it dirty.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TopSubscriptionsBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    private int services;
+
+    private SubscriptionPopularityIndex index;
+
+    @Setup
+    public void setUp() {
+        List<TopSubscriptionDto> counts = new ArrayList<>(services);
+        for (int i = 0; i < services; i++) {
+            counts.add(new TopSubscriptionDto("Service " + i, (long) (i % 977)));
+        }
+        JdbcReadRepository repository = new JdbcReadRepository(null) {
+            @Override
+            public List<TopSubscriptionDto> countSubscriptionsByServiceName() {
+                return counts;
+            }
+        };
+        index = new SubscriptionPopularityIndex(repository, 3);
+        index.reconcile();
+    }
+
+    @Benchmark
+    public List<TopSubscriptionDto> cachedTop() {
+        return index.getTop();
+    }
+
+    @Benchmark
+    public List<TopSubscriptionDto> topAfterWrite() {
+        index.increment("Service 0");
+        index.decrement("Service 0");
+        return index.getTop();
+    }
+}
@@ -0,0 +1,47 @@
+package org.example.tech_spec_java_spring_final_v2.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * The REST endpoints driven by the load test, with their default share of the request mix.
+ */
+enum Endpoint {
+
+    CREATE_USER("create-user", "POST /users", 5),
+    GET_USER("get-user", "GET /users/{id}", 30),
+    UPDATE_USER("update-user", "PUT /users/{id}", 5),
+    DELETE_USER("delete-user", "DELETE /users/{id}", 4),
+    ADD_SUBSCRIPTION("add-subscription", "POST /users/{id}/subscriptions", 7),
+    GET_SUBSCRIPTIONS("get-subscriptions", "GET /users/{id}/subscriptions", 30),
+    DELETE_SUBSCRIPTION("delete-subscription", "DELETE /users/{id}/subscriptions/{sub_id}", 4),
+    TOP_SUBSCRIPTIONS("top-subscriptions", "GET /subscriptions/top", 15);
+
+    private final String key;
+    private final String description;
+    private final int defaultWeight;
+
+    Endpoint(String key, String description, int defaultWeight) {
+        this.key = key;
+        this.description = description;
+        this.defaultWeight = defaultWeight;
+    }
+
+    String getKey() {
+        return key;
+    }
+
+    String getDescription() {
+        return description;
+    }
+
+    int getDefaultWeight() {
+        return defaultWeight;
+    }
+
+    static Endpoint fromKey(String key) {
+        return Arrays.stream(values())
+                .filter(endpoint -> endpoint.key.equals(key))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown endpoint " + key));
+    }
+}
@@ -0,0 +1,220 @@
+package org.example.tech_spec_java_spring_final_v2.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load: requests are started on a fixed schedule regardless of how many are still
+ * in flight, and latency is measured from the scheduled start, so a slow application shows up
+ * in the percentiles instead of silently lowering the request rate (coordinated omission).
+ */
+class LoadGenerator {
+
+    private static final Duration DRAIN_TIMEOUT = Duration.ofMinutes(1);
+
+    private final LoadTestConfig config;
+    private final SeedData seed;
+    private final URI baseUri;
+    private final ObjectMapper objectMapper;
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    private final Endpoint[] endpoints;
+    private final int[] cumulativeWeights;
+    private final Map<Endpoint, Histogram> histograms = new EnumMap<>(Endpoint.class);
+    private final Map<Endpoint, LongAdder> errors = new EnumMap<>(Endpoint.class);
+    private final Map<Endpoint, LongAdder> skipped = new EnumMap<>(Endpoint.class);
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong sequence = new AtomicLong();
+
+    LoadGenerator(LoadTestConfig config, SeedData seed, URI baseUri, ObjectMapper objectMapper) {
+        this.config = config;
+        this.seed = seed;
+        this.baseUri = baseUri;
+        this.objectMapper = objectMapper;
+
+        this.endpoints = config.mix().entrySet().stream()
+                .filter(entry -> entry.getValue() > 0)
+                .map(Map.Entry::getKey)
+                .toArray(Endpoint[]::new);
+        this.cumulativeWeights = new int[endpoints.length];
+        int total = 0;
+        for (int i = 0; i < endpoints.length; i++) {
+            total += config.mix().get(endpoints[i]);
+            cumulativeWeights[i] = total;
+        }
+        for (Endpoint endpoint : Endpoint.values()) {
+            histograms.put(endpoint, new ConcurrentHistogram(3));
+            errors.put(endpoint, new LongAdder());
+            skipped.put(endpoint, new LongAdder());
+        }
+    }
+
+    LoadResult run() throws InterruptedException {
+        long interval = TimeUnit.SECONDS.toNanos(1) / config.rate();
+        long started = System.nanoTime();
+        long measuredFrom = started + config.warmup().toNanos();
+        long end = measuredFrom + config.duration().toNanos();
+
+        for (long i = 0; ; i++) {
+            long scheduled = started + i * interval;
+            if (scheduled >= end) {
+                break;
+            }
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            send(pick(), scheduled, scheduled >= measuredFrom);
+        }
+
+        long drainDeadline = System.nanoTime() + DRAIN_TIMEOUT.toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < drainDeadline) {
+            Thread.sleep(10);
+        }
+        return new LoadResult(config.duration(), histograms, errors, skipped);
+    }
+
+    private Endpoint pick() {
+        int value = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (value < cumulativeWeights[i]) {
+                return endpoints[i];
+            }
+        }
+        throw new IllegalStateException("Unreachable");
+    }
+
+    private void send(Endpoint endpoint, long scheduled, boolean measured) {
+        HttpRequest request = buildRequest(endpoint);
+        if (request == null) {
+            if (measured) {
+                skipped.get(endpoint).increment();
+            }
+            return;
+        }
+
+        inFlight.incrementAndGet();
+        client.sendAsync(request, HttpResponse.BodyHandlers.ofString()).whenComplete((response, failure) -> {
+            try {
+                long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - scheduled);
+                boolean success = failure == null && response.statusCode() / 100 == 2;
+                if (measured) {
+                    histograms.get(endpoint).recordValue(micros);
+                    if (!success) {
+                        errors.get(endpoint).increment();
+                    }
+                }
+                if (success) {
+                    onSuccess(endpoint, request, response.body());
+                }
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        });
+    }
+
+    private HttpRequest buildRequest(Endpoint endpoint) {
+        int user = ThreadLocalRandom.current().nextInt(seed.userIds().length);
+        long userId = seed.userIds()[user];
+        return switch (endpoint) {
+            case CREATE_USER -> {
+                long n = sequence.incrementAndGet();
+                yield post("/users", Map.of("name", "Load " + n, "email", seed.runId() + "-load-" + n + "@example.com"));
+            }
+            case GET_USER -> get("/users/" + userId);
+            case UPDATE_USER -> json("PUT", "/users/" + userId,
+                    Map.of("name", "Updated " + user, "email", seed.emails()[user]));
+            case DELETE_USER -> {
+                Long id = seed.disposableUsers().poll();
+                yield id != null ? HttpRequest.newBuilder(uri("/users/" + id)).DELETE().build() : null;
+            }
+            case ADD_SUBSCRIPTION -> post("/users/" + userId + "/subscriptions", Map.of(
+                    "serviceName", "Service " + ThreadLocalRandom.current().nextInt(SeedData.SERVICES),
+                    "startDate", LocalDate.of(2024, 1, 1).plusDays(ThreadLocalRandom.current().nextInt(365)).toString()));
+            case GET_SUBSCRIPTIONS -> get("/users/" + userId + "/subscriptions");
+            case DELETE_SUBSCRIPTION -> {
+                long[] subscription = seed.disposableSubscriptions().poll();
+                yield subscription != null
+                        ? HttpRequest.newBuilder(uri("/users/" + subscription[1] + "/subscriptions/" + subscription[0]))
+                        .DELETE().build()
+                        : null;
+            }
+            case TOP_SUBSCRIPTIONS -> get("/subscriptions/top");
+        };
+    }
+
+    private void onSuccess(Endpoint endpoint, HttpRequest request, String body) {
+        if (endpoint != Endpoint.CREATE_USER && endpoint != Endpoint.ADD_SUBSCRIPTION) {
+            return;
+        }
+        try {
+            JsonNode created = objectMapper.readTree(body);
+            if (endpoint == Endpoint.CREATE_USER) {
+                seed.disposableUsers().add(created.get("id").asLong());
+            } else {
+                seed.disposableSubscriptions().add(new long[]{created.get("id").asLong(), created.get("userId").asLong()});
+            }
+        } catch (Exception e) {
+            throw new IllegalStateException("Unexpected response from " + request.uri() + ": " + body, e);
+        }
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(uri(path)).GET().build();
+    }
+
+    private HttpRequest post(String path, Map<String, String> body) {
+        return json("POST", path, body);
+    }
+
+    private HttpRequest json(String method, String path, Map<String, String> body) {
+        try {
+            return HttpRequest.newBuilder(uri(path))
+                    .header("Content-Type", "application/json")
+                    .method(method, HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+                    .build();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private URI uri(String path) {
+        return baseUri.resolve(path);
+    }
+
+    /**
+     * Seeded ids the generated requests refer to. Deletes consume the disposable queues,
+     * creates refill them.
+     */
+    record SeedData(String runId,
+                    long[] userIds,
+                    String[] emails,
+                    Queue<Long> disposableUsers,
+                    Queue<long[]> disposableSubscriptions) {
+
+        static final int SERVICES = 50;
+
+        SeedData(String runId, long[] userIds, String[] emails) {
+            this(runId, userIds, emails, new ConcurrentLinkedQueue<>(), new ConcurrentLinkedQueue<>());
+        }
+    }
+}
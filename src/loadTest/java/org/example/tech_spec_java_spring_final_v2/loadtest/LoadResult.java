@@ -0,0 +1,127 @@
+package org.example.tech_spec_java_spring_final_v2.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-endpoint latency histograms (in microseconds) and error counts of a measured run.
+ */
+class LoadResult {
+
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    private final Duration duration;
+    private final Map<Endpoint, Histogram> histograms;
+    private final Map<Endpoint, LongAdder> errors;
+    private final Map<Endpoint, LongAdder> skipped;
+
+    LoadResult(Duration duration, Map<Endpoint, Histogram> histograms,
+               Map<Endpoint, LongAdder> errors, Map<Endpoint, LongAdder> skipped) {
+        this.duration = duration;
+        this.histograms = histograms;
+        this.errors = errors;
+        this.skipped = skipped;
+    }
+
+    /**
+     * Writes an HdrHistogram percentile distribution ({@code <endpoint>.hgrm}, in milliseconds) per
+     * endpoint and a {@code summary.json}, and prints a summary table.
+     */
+    void writeReports(Path directory, ObjectMapper objectMapper) throws IOException {
+        Files.createDirectories(directory);
+        Map<String, Map<String, Object>> summary = new LinkedHashMap<>();
+
+        System.out.printf("%-20s %8s %8s %8s %10s %10s %10s %10s%n",
+                "endpoint", "requests", "errors", "skipped", "req/s", "p50 ms", "p99 ms", "p999 ms");
+        for (Endpoint endpoint : Endpoint.values()) {
+            Histogram histogram = histograms.get(endpoint);
+            if (histogram.getTotalCount() == 0 && skipped.get(endpoint).sum() == 0) {
+                continue;
+            }
+            try (PrintStream out = new PrintStream(Files.newOutputStream(directory.resolve(endpoint.getKey() + ".hgrm")))) {
+                histogram.outputPercentileDistribution(out, MICROS_PER_MILLI);
+            }
+
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("endpoint", endpoint.getDescription());
+            stats.put("requests", histogram.getTotalCount());
+            stats.put("errors", errors.get(endpoint).sum());
+            stats.put("skipped", skipped.get(endpoint).sum());
+            stats.put("throughput", histogram.getTotalCount() / (double) duration.toSeconds());
+            stats.put("p50", millis(histogram, 50));
+            stats.put("p99", millis(histogram, 99));
+            stats.put("p999", millis(histogram, 99.9));
+            stats.put("max", histogram.getMaxValue() / MICROS_PER_MILLI);
+            summary.put(endpoint.getKey(), stats);
+
+            System.out.printf("%-20s %8d %8d %8d %10.1f %10.2f %10.2f %10.2f%n", endpoint.getKey(),
+                    histogram.getTotalCount(), errors.get(endpoint).sum(), skipped.get(endpoint).sum(),
+                    stats.get("throughput"), stats.get("p50"), stats.get("p99"), stats.get("p999"));
+        }
+
+        objectMapper.copy().enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(directory.resolve("summary.json").toFile(), summary);
+    }
+
+    /**
+     * Compares the results with the thresholds and returns a description of every violation.
+     * Keys are {@code <endpoint>.<metric>} with {@code default.<metric>} as fallback; metrics are
+     * {@code p50}, {@code p99}, {@code p999} (milliseconds) and {@code error-rate} (0..1). An endpoint
+     * weighted in the mix without a single measured request is a violation as well.
+     */
+    List<String> checkThresholds(Path file, Map<Endpoint, Integer> mix) throws IOException {
+        Properties thresholds = new Properties();
+        try (InputStream in = file != null
+                ? Files.newInputStream(file)
+                : LoadResult.class.getResourceAsStream("/loadtest-thresholds.properties")) {
+            if (in != null) {
+                thresholds.load(in);
+            }
+        }
+
+        List<String> violations = new ArrayList<>();
+        for (Endpoint endpoint : Endpoint.values()) {
+            Histogram histogram = histograms.get(endpoint);
+            if (histogram.getTotalCount() == 0) {
+                // An endpoint of the mix that was never measured cannot show a regression either
+                if (mix.getOrDefault(endpoint, 0) > 0) {
+                    violations.add(endpoint.getKey() + " is in the mix but no request was measured");
+                }
+                continue;
+            }
+            check(violations, thresholds, endpoint, "p50", millis(histogram, 50));
+            check(violations, thresholds, endpoint, "p99", millis(histogram, 99));
+            check(violations, thresholds, endpoint, "p999", millis(histogram, 99.9));
+            check(violations, thresholds, endpoint, "error-rate",
+                    errors.get(endpoint).sum() / (double) histogram.getTotalCount());
+        }
+        return violations;
+    }
+
+    private static void check(List<String> violations, Properties thresholds, Endpoint endpoint,
+                              String metric, double actual) {
+        String limit = thresholds.getProperty(endpoint.getKey() + "." + metric,
+                thresholds.getProperty("default." + metric));
+        if (limit != null && actual > Double.parseDouble(limit)) {
+            violations.add(String.format("%s %s is %.3f, threshold %s", endpoint.getKey(), metric, actual, limit));
+        }
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / MICROS_PER_MILLI;
+    }
+}
@@ -0,0 +1,83 @@
+package org.example.tech_spec_java_spring_final_v2.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Load test options, read from {@code loadTest.*} system properties (passed through from
+ * {@code -PloadTest.*} by the Gradle task).
+ *
+ * @param rate       requests per second, independent of how fast the application responds
+ * @param warmup     time the load runs before latencies are recorded
+ * @param duration   measured time
+ * @param users      seeded users that the read and update paths pick from
+ * @param mix        relative weight of each endpoint
+ * @param reactive   whether the application runs with the {@code reactive} profile (WebFlux, R2DBC)
+ *                   instead of the servlet stack
+ * @param jdbcUrl    database to run against; an in-memory H2 in PostgreSQL mode when not set
+ * @param thresholds properties file with the latency and error rate limits, classpath default when not set
+ * @param reports    directory for the histogram and summary reports; a {@code reactive} subdirectory of it
+ *                   for the reactive stack, so the two runs can be compared side by side
+ */
+record LoadTestConfig(int rate,
+                      Duration warmup,
+                      Duration duration,
+                      int users,
+                      Map<Endpoint, Integer> mix,
+                      boolean reactive,
+                      String jdbcUrl,
+                      String username,
+                      String password,
+                      Path thresholds,
+                      Path reports) {
+
+    static LoadTestConfig fromSystemProperties() {
+        Map<Endpoint, Integer> mix = new EnumMap<>(Endpoint.class);
+        for (Endpoint endpoint : Endpoint.values()) {
+            mix.put(endpoint, endpoint.getDefaultWeight());
+        }
+        String mixOverride = System.getProperty("loadTest.mix");
+        if (mixOverride != null && !mixOverride.isBlank()) {
+            mix.replaceAll((endpoint, weight) -> 0);
+            for (String entry : mixOverride.split(",")) {
+                String[] parts = entry.split("=");
+                mix.put(Endpoint.fromKey(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+            }
+        }
+
+        String stack = System.getProperty("loadTest.stack", "servlet");
+        if (!stack.equals("servlet") && !stack.equals("reactive")) {
+            throw new IllegalArgumentException("loadTest.stack must be servlet or reactive, was " + stack);
+        }
+        boolean reactive = stack.equals("reactive");
+        Path reports = Path.of(System.getProperty("loadTest.reports", "build/reports/loadtest"));
+
+        String thresholds = System.getProperty("loadTest.thresholds");
+        return new LoadTestConfig(
+                Integer.getInteger("loadTest.rate", 200),
+                Duration.parse(System.getProperty("loadTest.warmup", "PT10S")),
+                Duration.parse(System.getProperty("loadTest.duration", "PT30S")),
+                Integer.getInteger("loadTest.users", 10_000),
+                mix,
+                reactive,
+                System.getProperty("loadTest.jdbcUrl"),
+                System.getProperty("loadTest.username"),
+                System.getProperty("loadTest.password"),
+                thresholds != null ? Path.of(thresholds) : null,
+                reactive ? reports.resolve("reactive") : reports);
+    }
+
+    boolean isInMemoryDatabase() {
+        return jdbcUrl == null || jdbcUrl.startsWith("jdbc:h2:");
+    }
+
+    /**
+     * R2DBC URL of the same database as {@link #jdbcUrl()}, without the JDBC driver's query parameters.
+     */
+    String r2dbcUrl() {
+        int query = jdbcUrl.indexOf('?');
+        return "r2dbc:" + jdbcUrl.substring("jdbc:".length(), query >= 0 ? query : jdbcUrl.length());
+    }
+}
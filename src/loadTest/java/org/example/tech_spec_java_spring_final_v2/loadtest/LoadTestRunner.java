@@ -0,0 +1,140 @@
+package org.example.tech_spec_java_spring_final_v2.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.tech_spec_java_spring_final_v2.TechSpecJavaSpringFinalV2Application;
+import org.example.tech_spec_java_spring_final_v2.service.BulkImportService;
+import org.example.tech_spec_java_spring_final_v2.service.DataFormat;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Entry point of the {@code loadTest} Gradle task: starts the application, seeds users and
+ * subscriptions through the bulk import, runs the load and fails on threshold violations.
+ */
+public class LoadTestRunner {
+
+    private static final int SUBSCRIPTIONS_PER_USER = 5;
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+
+        List<String> violations;
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(TechSpecJavaSpringFinalV2Application.class)
+                .profiles(config.reactive() ? new String[]{"loadtest", "reactive"} : new String[]{"loadtest"})
+                .run(applicationArguments(config))) {
+            ObjectMapper objectMapper = context.getBean(ObjectMapper.class);
+            LoadGenerator.SeedData seed = seed(context, config);
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+
+            System.out.printf("Running %d req/s for %s after %s warmup against the %s stack on %s%n", config.rate(),
+                    config.duration(), config.warmup(), config.reactive() ? "reactive" : "servlet",
+                    config.isInMemoryDatabase() ? "H2" : config.jdbcUrl());
+            LoadResult result = new LoadGenerator(config, seed, URI.create("http://localhost:" + port), objectMapper).run();
+            result.writeReports(config.reports(), objectMapper);
+            violations = result.checkThresholds(config.thresholds(), config.mix());
+        }
+
+        if (!violations.isEmpty()) {
+            violations.forEach(violation -> System.out.println("Threshold exceeded: " + violation));
+            System.exit(1);
+        }
+        System.out.println("All thresholds met, reports in " + config.reports().toAbsolutePath());
+    }
+
+    private static String[] applicationArguments(LoadTestConfig config) {
+        List<String> arguments = new ArrayList<>();
+        arguments.add("--loadTest.reports=" + config.reports());
+        if (!config.isInMemoryDatabase()) {
+            arguments.add("--spring.datasource.url=" + config.jdbcUrl());
+            arguments.add("--spring.datasource.driver-class-name=org.postgresql.Driver");
+            arguments.add("--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQLDialect");
+            arguments.add("--spring.flyway.locations=classpath:db/migration/common,classpath:db/migration/postgresql");
+            if (config.username() != null) {
+                arguments.add("--spring.datasource.username=" + config.username());
+            }
+            if (config.password() != null) {
+                arguments.add("--spring.datasource.password=" + config.password());
+            }
+        }
+        if (config.reactive()) {
+            // R2DBC must open the same database; its credentials default to the JDBC ones
+            arguments.add("--spring.r2dbc.url=" + (config.isInMemoryDatabase()
+                    ? "r2dbc:h2:mem:///loadtest?options=MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH"
+                    : config.r2dbcUrl()));
+        }
+        return arguments.toArray(String[]::new);
+    }
+
+    /**
+     * Seeds the users the read paths pick from plus enough disposable users and subscriptions
+     * for the deletes of the whole run. Emails are prefixed with a run id so repeated runs against
+     * the same database do not collide.
+     */
+    private static LoadGenerator.SeedData seed(ConfigurableApplicationContext context, LoadTestConfig config) {
+        String runId = Long.toString(System.currentTimeMillis(), 36);
+        int disposableUsers = expectedRequests(config, Endpoint.DELETE_USER);
+        int disposableSubscriptions = expectedRequests(config, Endpoint.DELETE_SUBSCRIPTION);
+
+        StringBuilder users = new StringBuilder("name,email\n");
+        StringBuilder subscriptions = new StringBuilder("userEmail,serviceName,startDate\n");
+        for (int i = 0; i < config.users(); i++) {
+            String email = runId + "-seed-" + i + "@example.com";
+            users.append("Seed ").append(i).append(',').append(email).append('\n');
+            for (int j = 0; j < SUBSCRIPTIONS_PER_USER; j++) {
+                subscriptions.append(email).append(",Service ").append((i * 7 + j) % LoadGenerator.SeedData.SERVICES)
+                        .append(',').append(LocalDate.of(2024, 1, 1).plusDays((i + j) % 365)).append('\n');
+            }
+            if (i < disposableSubscriptions) {
+                subscriptions.append(email).append(",Disposable,2024-01-01\n");
+            }
+        }
+        for (int i = 0; i < disposableUsers; i++) {
+            users.append("Disposable ").append(i).append(',').append(runId).append("-disposable-").append(i)
+                    .append("@example.com\n");
+        }
+
+        BulkImportService bulkImportService = context.getBean(BulkImportService.class);
+        bulkImportService.importUsers(stream(users), DataFormat.CSV);
+        bulkImportService.importSubscriptions(stream(subscriptions), DataFormat.CSV);
+
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        List<Map<String, Object>> seeded = jdbcTemplate.queryForList(
+                "SELECT id, email FROM users WHERE email LIKE ? ORDER BY id", runId + "-seed-%");
+        long[] userIds = seeded.stream().mapToLong(row -> ((Number) row.get("id")).longValue()).toArray();
+        String[] emails = seeded.stream().map(row -> (String) row.get("email")).toArray(String[]::new);
+
+        LoadGenerator.SeedData seed = new LoadGenerator.SeedData(runId, userIds, emails);
+        seed.disposableUsers().addAll(jdbcTemplate.queryForList(
+                "SELECT id FROM users WHERE email LIKE ?", Long.class, runId + "-disposable-%"));
+        jdbcTemplate.query("SELECT s.id, s.user_id FROM subscriptions s JOIN users u ON u.id = s.user_id " +
+                        "WHERE s.service_name = 'Disposable' AND u.email LIKE ?",
+                row -> {
+                    seed.disposableSubscriptions().add(new long[]{row.getLong(1), row.getLong(2)});
+                }, runId + "-seed-%");
+
+        System.out.printf("Seeded %d users, %d disposable users, %d disposable subscriptions%n",
+                userIds.length, seed.disposableUsers().size(), seed.disposableSubscriptions().size());
+        return seed;
+    }
+
+    private static int expectedRequests(LoadTestConfig config, Endpoint endpoint) {
+        int total = config.mix().values().stream().mapToInt(Integer::intValue).sum();
+        long seconds = config.warmup().plus(config.duration()).toSeconds();
+        // Headroom for the random mix drawing more deletes than its average
+        return (int) (config.rate() * seconds * config.mix().get(endpoint) * 1.5 / total) + 10;
+    }
+
+    private static ByteArrayInputStream stream(StringBuilder content) {
+        return new ByteArrayInputStream(content.toString().getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,278 @@
+package org.example.tech_spec_java_spring_final_v2.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.flywaydb.core.Flyway;
+
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entry point of the {@code partitionBenchmark} Gradle task: measures the subscription queries of the
+ * application at growing table sizes, once on the schema before partitioning (migrations up to V4) and
+ * once on the hash-partitioned one, each in its own schema of the given PostgreSQL database.
+ * <p>
+ * Every volume starts from a clean schema, loads {@value #SUBSCRIPTIONS_PER_USER} subscriptions per user
+ * server-side and runs {@code VACUUM ANALYZE} before measuring, so that both layouts are compared
+ * with fresh statistics. The statements are prepared once and reused, as the application's are, so
+ * after a few executions the driver switches to server-side prepared statements.
+ */
+public class PartitioningBenchmark {
+
+    private static final int SUBSCRIPTIONS_PER_USER = 10;
+    private static final String[] LOCATIONS = {"classpath:db/migration/common", "classpath:db/migration/postgresql"};
+
+    private enum Layout {
+        HEAP("heap", "4"),
+        PARTITIONED("partitioned", "latest");
+
+        private final String key;
+        private final String target;
+
+        Layout(String key, String target) {
+            this.key = key;
+            this.target = target;
+        }
+
+        String schema() {
+            return "partition_benchmark_" + key;
+        }
+    }
+
+    /**
+     * The per-user queries prune to one partition; the aggregation and the export over all users read
+     * every partition.
+     */
+    private enum Query {
+        SUBSCRIPTION_PAGE("subscription-page", false,
+                "SELECT id, user_id, service_name, start_date FROM subscriptions " +
+                        "WHERE user_id = ? ORDER BY start_date, id LIMIT 21"),
+        DAILY_COUNTS("daily-counts", false,
+                "SELECT start_date, service_name, COUNT(*) FROM subscriptions " +
+                        "WHERE user_id = ? GROUP BY start_date, service_name"),
+        DELETE_SUBSCRIPTION("delete-subscription", false,
+                "DELETE FROM subscriptions WHERE id = ? AND user_id = ?"),
+        COUNT_BY_SERVICE("count-by-service", true,
+                "SELECT service_name, COUNT(*) AS count FROM subscriptions GROUP BY service_name"),
+        EXPORT("export", true,
+                "SELECT id, user_id, service_name, start_date FROM subscriptions ORDER BY user_id, id");
+
+        private final String key;
+        private final boolean fullScan;
+        private final String sql;
+
+        Query(String key, boolean fullScan, String sql) {
+            this.key = key;
+            this.fullScan = fullScan;
+            this.sql = sql;
+        }
+    }
+
+    private record Result(Layout layout, long rows, Query query, Histogram histogram, long tableBytes) {
+    }
+
+    private final String jdbcUrl;
+    private final String username;
+    private final String password;
+    private final int iterations;
+    private final int fullScanIterations;
+
+    private PartitioningBenchmark(String jdbcUrl, String username, String password,
+                                  int iterations, int fullScanIterations) {
+        this.jdbcUrl = jdbcUrl;
+        this.username = username;
+        this.password = password;
+        this.iterations = iterations;
+        this.fullScanIterations = fullScanIterations;
+    }
+
+    public static void main(String[] args) throws Exception {
+        String jdbcUrl = System.getProperty("partitionBenchmark.jdbcUrl");
+        if (jdbcUrl == null || !jdbcUrl.startsWith("jdbc:postgresql:")) {
+            throw new IllegalArgumentException("partitionBenchmark.jdbcUrl must point to a PostgreSQL database, " +
+                    "H2 does not support partitioning");
+        }
+        long[] volumes = Arrays.stream(System.getProperty("partitionBenchmark.volumes", "100000,1000000,5000000")
+                .split(",")).mapToLong(volume -> Long.parseLong(volume.trim())).toArray();
+        Path reports = Path.of(System.getProperty("partitionBenchmark.reports", "build/reports/partitioning"));
+        PartitioningBenchmark benchmark = new PartitioningBenchmark(jdbcUrl,
+                System.getProperty("partitionBenchmark.username", "user"),
+                System.getProperty("partitionBenchmark.password", "pass"),
+                Integer.getInteger("partitionBenchmark.iterations", 2_000),
+                Integer.getInteger("partitionBenchmark.fullScanIterations", 5));
+
+        List<Result> results = new ArrayList<>();
+        try {
+            for (long rows : volumes) {
+                for (Layout layout : Layout.values()) {
+                    results.addAll(benchmark.run(layout, rows));
+                }
+            }
+        } finally {
+            for (Layout layout : Layout.values()) {
+                benchmark.flyway(layout).clean();
+            }
+        }
+        writeReports(reports, results);
+    }
+
+    private List<Result> run(Layout layout, long rows) throws SQLException {
+        System.out.printf("Loading %d subscriptions into the %s schema%n", rows, layout.key);
+        Flyway flyway = flyway(layout);
+        flyway.clean();
+        flyway.migrate();
+
+        long users = Math.max(1, rows / SUBSCRIPTIONS_PER_USER);
+        try (Connection connection = connect(layout)) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("INSERT INTO users (name, email) " +
+                        "SELECT 'User ' || g, 'user-' || g || '@example.com' FROM generate_series(1, " + users + ") g");
+                statement.execute("INSERT INTO subscriptions (user_id, service_name, start_date) " +
+                        "SELECT u.id, 'Service ' || (u.id * 7 + s) % 50, DATE '2020-01-01' + ((u.id * 13 + s) % 1500)::int " +
+                        "FROM users u CROSS JOIN generate_series(1, " + SUBSCRIPTIONS_PER_USER + ") s");
+                statement.execute("VACUUM ANALYZE users");
+                statement.execute("VACUUM ANALYZE subscriptions");
+            }
+            long tableBytes = tableBytes(connection);
+            long[][] samples = sample(connection, iterations);
+
+            List<Result> results = new ArrayList<>();
+            for (Query query : Query.values()) {
+                Histogram histogram = measure(connection, query, samples);
+                results.add(new Result(layout, rows, query, histogram, tableBytes));
+                System.out.printf("%-12s %10d %-20s p50 %8.1f us  p99 %8.1f us%n", layout.key, rows, query.key,
+                        micros(histogram, 50), micros(histogram, 99));
+            }
+            return results;
+        }
+    }
+
+    /**
+     * Existing {@code (id, user_id)} pairs, so that every per-user query and delete hits a row.
+     */
+    private static long[][] sample(Connection connection, int count) throws SQLException {
+        List<long[]> pairs = new ArrayList<>(count);
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT id, user_id FROM subscriptions " +
+                     "TABLESAMPLE BERNOULLI (10) LIMIT " + count)) {
+            while (rs.next()) {
+                pairs.add(new long[]{rs.getLong(1), rs.getLong(2)});
+            }
+        }
+        long[][] samples = pairs.toArray(long[][]::new);
+        for (int i = samples.length - 1; i > 0; i--) {
+            int j = ThreadLocalRandom.current().nextInt(i + 1);
+            long[] swap = samples[i];
+            samples[i] = samples[j];
+            samples[j] = swap;
+        }
+        return samples;
+    }
+
+    /**
+     * Runs the query once per sample after a warmup of the same length; the deletes are rolled back
+     * so that every layout and query sees the same data.
+     */
+    private Histogram measure(Connection connection, Query query, long[][] samples) throws SQLException {
+        Histogram histogram = new Histogram(TimeUnit.MINUTES.toNanos(1), 3);
+        int runs = query.fullScan ? fullScanIterations : samples.length;
+        connection.setAutoCommit(false);
+        try (PreparedStatement statement = connection.prepareStatement(query.sql)) {
+            // Same fetch size as the export, so its rows are read through a cursor
+            statement.setFetchSize(1000);
+            for (int pass = 0; pass < 2; pass++) {
+                for (int i = 0; i < runs; i++) {
+                    long[] sample = samples[i % samples.length];
+                    if (query == Query.DELETE_SUBSCRIPTION) {
+                        statement.setLong(1, sample[0]);
+                        statement.setLong(2, sample[1]);
+                    } else if (!query.fullScan) {
+                        statement.setLong(1, sample[1]);
+                    }
+                    long started = System.nanoTime();
+                    if (query == Query.DELETE_SUBSCRIPTION) {
+                        statement.executeUpdate();
+                    } else {
+                        try (ResultSet rs = statement.executeQuery()) {
+                            while (rs.next()) {
+                                // read the whole result like the application does
+                            }
+                        }
+                    }
+                    long elapsed = System.nanoTime() - started;
+                    if (pass == 1) {
+                        histogram.recordValue(elapsed);
+                    }
+                    if (query == Query.DELETE_SUBSCRIPTION) {
+                        connection.rollback();
+                    }
+                }
+            }
+        } finally {
+            connection.rollback();
+            connection.setAutoCommit(true);
+        }
+        return histogram;
+    }
+
+    private static long tableBytes(Connection connection) throws SQLException {
+        // pg_total_relation_size does not include the partitions of a partitioned table, and
+        // pg_partition_tree lists nothing for a plain one
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT COALESCE(NULLIF((SELECT SUM(pg_total_relation_size(relid)) " +
+                     "FROM pg_partition_tree('subscriptions')), 0), pg_total_relation_size('subscriptions'))")) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private Flyway flyway(Layout layout) {
+        return Flyway.configure()
+                .dataSource(jdbcUrl, username, password)
+                .schemas(layout.schema())
+                .locations(LOCATIONS)
+                .target(layout.target)
+                .cleanDisabled(false)
+                .load();
+    }
+
+    private Connection connect(Layout layout) throws SQLException {
+        Connection connection = DriverManager.getConnection(jdbcUrl, username, password);
+        connection.setSchema(layout.schema());
+        return connection;
+    }
+
+    private static void writeReports(Path directory, List<Result> results) throws Exception {
+        Files.createDirectories(directory);
+        System.out.printf("%n%-12s %10s %-20s %10s %10s %10s %10s%n",
+                "layout", "rows", "query", "p50 us", "p99 us", "max us", "table MB");
+        try (PrintStream csv = new PrintStream(Files.newOutputStream(directory.resolve("partitioning.csv")))) {
+            csv.println("layout,rows,query,p50_us,p99_us,max_us,table_bytes");
+            for (Result result : results) {
+                Histogram histogram = result.histogram();
+                System.out.printf("%-12s %10d %-20s %10.1f %10.1f %10.1f %10.1f%n", result.layout().key,
+                        result.rows(), result.query().key, micros(histogram, 50), micros(histogram, 99),
+                        histogram.getMaxValue() / 1000.0, result.tableBytes() / 1024.0 / 1024.0);
+                csv.printf("%s,%d,%s,%.1f,%.1f,%.1f,%d%n", result.layout().key, result.rows(), result.query().key,
+                        micros(histogram, 50), micros(histogram, 99), histogram.getMaxValue() / 1000.0,
+                        result.tableBytes());
+            }
+        }
+        System.out.println("Reports in " + directory.toAbsolutePath());
+    }
+
+    private static double micros(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+}
@@ -0,0 +1,241 @@
+package org.example.tech_spec_java_spring_final_v2.loadtest;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpConnectTimeoutException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entry point of the {@code startupBenchmark} Gradle task: extracts the boot jar like the fast-startup
+ * Docker target does, then starts it repeatedly in fresh JVMs and measures the time from launching
+ * the process to the first successful {@code GET /subscriptions/top}, which needs the web server,
+ * the JPA repositories and the database.
+ * <p>
+ * The variants add one optimization at a time: the {@code fast-startup} profile, the AOT-processed
+ * bean definitions and the CDS archive, trained like in the Dockerfile. All of them run against the
+ * same file-based H2 database, migrated once before the measured runs, so that every start finds an
+ * up-to-date schema as a deployment would.
+ */
+public class StartupBenchmark {
+
+    private static final String MAIN_CLASS = "org.example.tech_spec_java_spring_final_v2.TechSpecJavaSpringFinalV2Application";
+    private static final Duration TIMEOUT = Duration.ofMinutes(2);
+
+    private enum Variant {
+        JVM("jvm", false, false, false),
+        FAST_STARTUP("fast-startup", true, false, false),
+        AOT("aot", true, true, false),
+        AOT_CDS("aot-cds", true, true, true);
+
+        private final String key;
+        private final boolean profile;
+        private final boolean aot;
+        private final boolean cds;
+
+        Variant(String key, boolean profile, boolean aot, boolean cds) {
+            this.key = key;
+            this.profile = profile;
+            this.aot = aot;
+            this.cds = cds;
+        }
+    }
+
+    private final Path java;
+    private final Path work;
+    private final String classpath;
+    private final String jdbcUrl;
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+
+    private StartupBenchmark(Path java, Path work, String classpath) {
+        this.java = java;
+        this.work = work;
+        this.classpath = classpath;
+        this.jdbcUrl = "jdbc:h2:file:" + work.resolve("db").toAbsolutePath()
+                + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH";
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path java = Path.of(System.getProperty("startupBenchmark.java", "java"));
+        Path jar = Path.of(System.getProperty("startupBenchmark.jar"));
+        Path h2 = Path.of(System.getProperty("startupBenchmark.h2"));
+        Path work = Path.of(System.getProperty("startupBenchmark.work", "build/startup-benchmark"));
+        Path reports = Path.of(System.getProperty("startupBenchmark.reports", "build/reports/startup"));
+        int runs = Integer.getInteger("startupBenchmark.runs", 5);
+        List<Variant> variants = variants(System.getProperty("startupBenchmark.variants"));
+
+        deleteRecursively(work);
+        Files.createDirectories(work.resolve("logs"));
+        Path application = work.resolve("application");
+        exec(work.resolve("logs/extract.log"), java.toString(), "-Djarmode=tools", "-jar", jar.toString(),
+                "extract", "--destination", application.toString());
+        Path extractedJar = application.resolve(jar.getFileName());
+        StartupBenchmark benchmark = new StartupBenchmark(java, work, extractedJar + File.pathSeparator + h2);
+
+        System.out.println("Migrating the benchmark database");
+        benchmark.timeToFirstRequest(Variant.JVM, "migrate");
+        if (variants.contains(Variant.AOT_CDS)) {
+            System.out.println("Training the CDS archive");
+            benchmark.train();
+        }
+
+        Map<Variant, long[]> results = new LinkedHashMap<>();
+        for (Variant variant : variants) {
+            long[] millis = new long[runs];
+            for (int run = 0; run < runs; run++) {
+                millis[run] = benchmark.timeToFirstRequest(variant, variant.key + "-" + run);
+                System.out.printf("%-14s run %d: %d ms%n", variant.key, run + 1, millis[run]);
+            }
+            results.put(variant, millis);
+        }
+        writeReports(reports, results);
+    }
+
+    private long timeToFirstRequest(Variant variant, String name) throws Exception {
+        int port = freePort();
+        List<String> command = new ArrayList<>(List.of(java.toString()));
+        command.addAll(jvmArguments(variant));
+        command.addAll(List.of("-cp", classpath, MAIN_CLASS));
+        command.addAll(applicationArguments(variant, port));
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/subscriptions/top")).build();
+        long started = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(work.resolve("logs/" + name + ".log").toFile())
+                .start();
+        try {
+            while (System.nanoTime() - started < TIMEOUT.toNanos()) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("Application exited with " + process.exitValue()
+                            + ", see " + work.resolve("logs/" + name + ".log"));
+                }
+                try {
+                    HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                    if (response.statusCode() == 200) {
+                        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+                    }
+                } catch (ConnectException | HttpConnectTimeoutException e) {
+                    // Not listening yet
+                }
+                Thread.sleep(5);
+            }
+            throw new IllegalStateException("No response within " + TIMEOUT + ", see " + work.resolve("logs/" + name + ".log"));
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    /**
+     * The training run of the Dockerfile: refreshes the context and dumps the loaded classes on exit.
+     */
+    private void train() throws Exception {
+        List<String> command = new ArrayList<>(List.of(java.toString(),
+                "-XX:ArchiveClassesAtExit=" + work.resolve("application.jsa"),
+                "-Dspring.context.exit=onRefresh",
+                "-Dspring.aot.enabled=true",
+                "-cp", classpath, MAIN_CLASS));
+        command.addAll(applicationArguments(Variant.AOT, 0));
+        exec(work.resolve("logs/train.log"), command.toArray(String[]::new));
+    }
+
+    private List<String> jvmArguments(Variant variant) {
+        List<String> arguments = new ArrayList<>();
+        if (variant.cds) {
+            arguments.add("-XX:SharedArchiveFile=" + work.resolve("application.jsa"));
+        }
+        if (variant.aot) {
+            arguments.add("-Dspring.aot.enabled=true");
+        }
+        return arguments;
+    }
+
+    private List<String> applicationArguments(Variant variant, int port) {
+        return List.of(
+                "--spring.profiles.active=" + (variant.profile ? "prod,fast-startup" : "prod"),
+                "--server.port=" + port,
+                "--spring.datasource.url=" + jdbcUrl,
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.flyway.locations=classpath:db/migration/common,classpath:db/migration/h2",
+                "--logging.level.root=WARN");
+    }
+
+    private static void writeReports(Path directory, Map<Variant, long[]> results) throws IOException {
+        Files.createDirectories(directory);
+        System.out.printf("%n%-14s %8s %8s %8s%n", "variant", "min ms", "p50 ms", "max ms");
+        try (PrintStream csv = new PrintStream(Files.newOutputStream(directory.resolve("startup.csv")))) {
+            csv.println("variant,run,time_to_first_request_ms");
+            results.forEach((variant, millis) -> {
+                for (int run = 0; run < millis.length; run++) {
+                    csv.printf("%s,%d,%d%n", variant.key, run + 1, millis[run]);
+                }
+                long[] sorted = millis.clone();
+                Arrays.sort(sorted);
+                System.out.printf("%-14s %8d %8d %8d%n", variant.key, sorted[0], sorted[sorted.length / 2],
+                        sorted[sorted.length - 1]);
+            });
+        }
+        System.out.println("Reports in " + directory.toAbsolutePath());
+    }
+
+    private static List<Variant> variants(String selection) {
+        if (selection == null || selection.isBlank()) {
+            return List.of(Variant.values());
+        }
+        List<Variant> variants = new ArrayList<>();
+        for (String key : selection.split(",")) {
+            variants.add(Arrays.stream(Variant.values())
+                    .filter(variant -> variant.key.equals(key.trim()))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown startupBenchmark variant: " + key)));
+        }
+        return variants;
+    }
+
+    private static void exec(Path log, String... command) throws Exception {
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        if (process.waitFor() != 0) {
+            throw new IllegalStateException(String.join(" ", command) + " failed, see " + log);
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static void deleteRecursively(Path directory) throws IOException {
+        if (!Files.exists(directory)) {
+            return;
+        }
+        try (var paths = Files.walk(directory)) {
+            for (Path path : paths.sorted((a, b) -> b.compareTo(a)).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package org.example.tech_spec_java_spring_final_v2.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.tech_spec_java_spring_final_v2.repository.ReplicaRouting;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps the per-node {@link UserCache} and {@link UserVersionCache} of several application nodes
+ * consistent. Writers publish the ids of the users they changed, after invalidating their own
+ * entries; every other node drops its entries for those users and reads them from the primary for
+ * the read-your-writes window (see {@link ReplicaRouting}).
+ * <p>
+ * Ids are collected for {@code app.cache.invalidation.batch-interval} and sent as few messages as
+ * possible, each {@code <node id>:<id>,<id>,...}; the token {@code ?} stands for "users were created"
+ * and drops all "not found" entries. When the transport reports that messages may have been lost,
+ * both caches are cleared. Without an {@link InvalidationTransport} bean (a single node) publishing
+ * does nothing.
+ */
+@Component
+public class CacheInvalidationBus implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheInvalidationBus.class);
+
+    /**
+     * Stops after the writers that publish on their way out (see {@code SubscriptionWriteBehind}).
+     */
+    static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 8192;
+    static final String USERS_CREATED = "?";
+
+    private final InvalidationTransport transport;
+    private final UserCache userCache;
+    private final UserVersionCache versionCache;
+    private final ReplicaRouting replicaRouting;
+    private final Duration batchInterval;
+    private final String nodeId = UUID.randomUUID().toString().substring(0, 8);
+    private final Set<Long> pendingUsers = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean pendingUsersCreated = new AtomicBoolean();
+    private final Counter published;
+    private final Counter received;
+    private final Counter resets;
+
+    private volatile boolean running;
+    private ScheduledExecutorService flusher;
+
+    public CacheInvalidationBus(ObjectProvider<InvalidationTransport> transport,
+                                UserCache userCache,
+                                UserVersionCache versionCache,
+                                ReplicaRouting replicaRouting,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.cache.invalidation.batch-interval:20ms}") Duration batchInterval) {
+        this.transport = transport.getIfAvailable();
+        this.userCache = userCache;
+        this.versionCache = versionCache;
+        this.replicaRouting = replicaRouting;
+        this.batchInterval = batchInterval;
+        this.published = Counter.builder("app.cache.invalidation.messages")
+                .tag("direction", "published")
+                .description("Cache invalidation messages")
+                .register(meterRegistry);
+        this.received = Counter.builder("app.cache.invalidation.messages")
+                .tag("direction", "received")
+                .description("Cache invalidation messages")
+                .register(meterRegistry);
+        this.resets = Counter.builder("app.cache.invalidation.resets")
+                .description("Full cache flushes after possibly lost invalidation messages")
+                .register(meterRegistry);
+    }
+
+    public void publish(Long userId) {
+        if (transport != null) {
+            pendingUsers.add(userId);
+        }
+    }
+
+    public void publishAll(Collection<Long> userIds) {
+        if (transport != null) {
+            pendingUsers.addAll(userIds);
+        }
+    }
+
+    /**
+     * For writes that create users without knowing their ids, see {@link UserCache#invalidateMissing()}.
+     */
+    public void publishUsersCreated() {
+        if (transport != null) {
+            pendingUsersCreated.set(true);
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        if (transport == null) {
+            return;
+        }
+        transport.subscribe(this::receive, this::reset);
+        flusher = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("cache-invalidation").daemon().factory());
+        flusher.scheduleWithFixedDelay(this::flush, batchInterval.toNanos(), batchInterval.toNanos(),
+                TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (transport == null) {
+            return;
+        }
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(batchInterval.toMillis() + 1000, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+        transport.close();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    /**
+     * Sends everything published since the last flush. Ids whose message fails are kept for the next one.
+     */
+    void flush() {
+        List<Long> userIds = new ArrayList<>();
+        for (Iterator<Long> pending = pendingUsers.iterator(); pending.hasNext(); ) {
+            userIds.add(pending.next());
+            pending.remove();
+        }
+        boolean usersCreated = pendingUsersCreated.getAndSet(false);
+        if (userIds.isEmpty() && !usersCreated) {
+            return;
+        }
+        try {
+            for (String payload : encode(nodeId, userIds, usersCreated, transport.maxPayloadBytes())) {
+                transport.publish(payload);
+                published.increment();
+            }
+            logger.debug("Published invalidation of {} users", userIds.size());
+        } catch (RuntimeException e) {
+            logger.warn("Failed to publish invalidation of {} users, retrying: {}", userIds.size(), e.getMessage());
+            pendingUsers.addAll(userIds);
+            if (usersCreated) {
+                pendingUsersCreated.set(true);
+            }
+        }
+    }
+
+    void receive(String payload) {
+        int separator = payload.indexOf(':');
+        if (separator < 0) {
+            logger.warn("Malformed invalidation message '{}'", payload);
+            reset();
+            return;
+        }
+        if (separator == nodeId.length() && payload.startsWith(nodeId)) {
+            // Our own message, the entries are already invalidated
+            return;
+        }
+        received.increment();
+        List<Long> userIds = new ArrayList<>();
+        boolean usersCreated = false;
+        try {
+            for (String token : payload.substring(separator + 1).split(",")) {
+                if (token.equals(USERS_CREATED)) {
+                    usersCreated = true;
+                } else if (!token.isEmpty()) {
+                    userIds.add(Long.parseLong(token));
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Malformed invalidation message '{}'", payload);
+            reset();
+            return;
+        }
+        replicaRouting.writtenAll(userIds);
+        userCache.invalidateAll(userIds);
+        versionCache.invalidateAll(userIds);
+        if (usersCreated) {
+            userCache.invalidateMissing();
+        }
+        logger.debug("Invalidated {} users on behalf of node {}", userIds.size(), payload.substring(0, separator));
+    }
+
+    void reset() {
+        logger.info("Invalidation messages may have been lost, clearing the user caches");
+        userCache.invalidateAll();
+        versionCache.invalidateAll();
+        resets.increment();
+    }
+
+    /**
+     * Splits the ids over as few payloads of at most {@code maxPayloadBytes} as possible.
+     */
+    static List<String> encode(String nodeId, Collection<Long> userIds, boolean usersCreated, int maxPayloadBytes) {
+        List<String> payloads = new ArrayList<>();
+        String prefix = nodeId + ":";
+        StringBuilder payload = new StringBuilder(prefix);
+        if (usersCreated) {
+            payload.append(USERS_CREATED);
+        }
+        for (Long userId : userIds) {
+            String token = userId.toString();
+            boolean first = payload.length() == prefix.length();
+            if (payload.length() + token.length() + (first ? 0 : 1) > maxPayloadBytes) {
+                payloads.add(payload.toString());
+                payload.setLength(prefix.length());
+                first = true;
+            }
+            if (!first) {
+                payload.append(',');
+            }
+            payload.append(token);
+        }
+        if (payload.length() > prefix.length()) {
+            payloads.add(payload.toString());
+        }
+        return payloads;
+    }
+}
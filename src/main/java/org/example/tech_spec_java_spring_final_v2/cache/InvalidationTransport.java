@@ -0,0 +1,31 @@
+package org.example.tech_spec_java_spring_final_v2.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * Carries {@link CacheInvalidationBus} messages between the application nodes. Delivery is at most
+ * once: a node that may have missed messages must be told through {@code onReset}.
+ */
+public interface InvalidationTransport {
+
+    /**
+     * Largest payload {@link #publish} accepts, in bytes of UTF-8.
+     */
+    int maxPayloadBytes();
+
+    /**
+     * Sends the payload to every subscribed node, the sender included.
+     */
+    void publish(String payload);
+
+    /**
+     * Starts delivering the payloads published by any node to {@code onMessage}. {@code onReset} is
+     * called whenever messages may have been lost, for example after the connection was broken.
+     */
+    void subscribe(Consumer<String> onMessage, Runnable onReset);
+
+    /**
+     * Stops the delivery started by {@link #subscribe}.
+     */
+    void close();
+}
@@ -0,0 +1,137 @@
+package org.example.tech_spec_java_spring_final_v2.cache;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * {@link InvalidationTransport} over PostgreSQL {@code NOTIFY}/{@code LISTEN}
+ * ({@code app.cache.invalidation.transport=postgres}). Messages are sent through the primary's
+ * pool; they are received on a dedicated connection outside of the pool, held by a listener
+ * thread. The listener checks the connection with a query whenever no notification arrives
+ * within the poll interval, and reconnects with exponential backoff once it breaks.
+ */
+@Component
+@ConditionalOnProperty(name = "app.cache.invalidation.transport", havingValue = "postgres")
+public class PostgresInvalidationTransport implements InvalidationTransport {
+
+    private static final Logger logger = LoggerFactory.getLogger(PostgresInvalidationTransport.class);
+
+    // NOTIFY payloads must be shorter than 8000 bytes
+    private static final int MAX_PAYLOAD_BYTES = 7999;
+    private static final Pattern CHANNEL = Pattern.compile("[a-z_][a-z0-9_]*");
+    private static final long INITIAL_BACKOFF_MS = 500;
+    private static final long MAX_BACKOFF_MS = 30_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSourceProperties dataSourceProperties;
+    private final String channel;
+    private final Duration pollInterval;
+
+    private volatile boolean running;
+    private Thread listener;
+
+    public PostgresInvalidationTransport(JdbcTemplate jdbcTemplate,
+                                         DataSourceProperties dataSourceProperties,
+                                         @Value("${app.cache.invalidation.channel:cache_invalidation}") String channel,
+                                         @Value("${app.cache.invalidation.poll-interval:1s}") Duration pollInterval) {
+        if (!CHANNEL.matcher(channel).matches()) {
+            throw new IllegalArgumentException("Invalid notification channel name: " + channel);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSourceProperties = dataSourceProperties;
+        this.channel = channel;
+        this.pollInterval = pollInterval;
+    }
+
+    @Override
+    public int maxPayloadBytes() {
+        return MAX_PAYLOAD_BYTES;
+    }
+
+    @Override
+    public void publish(String payload) {
+        jdbcTemplate.query("SELECT pg_notify(?, ?)", rs -> null, channel, payload);
+    }
+
+    @Override
+    public void subscribe(Consumer<String> onMessage, Runnable onReset) {
+        running = true;
+        listener = Thread.ofPlatform()
+                .name("cache-invalidation-listener")
+                .daemon()
+                .start(() -> listen(onMessage, onReset));
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        if (listener == null) {
+            return;
+        }
+        listener.interrupt();
+        try {
+            listener.join(pollInterval.plusSeconds(1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void listen(Consumer<String> onMessage, Runnable onReset) {
+        long backoffMs = INITIAL_BACKOFF_MS;
+        while (running) {
+            try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+                statement.execute("LISTEN " + channel);
+                // Anything published before LISTEN took effect, at startup or while disconnected, is lost
+                onReset.run();
+                backoffMs = INITIAL_BACKOFF_MS;
+                logger.info("Listening for cache invalidations on channel {}", channel);
+
+                PGConnection notifications = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] received = notifications.getNotifications((int) pollInterval.toMillis());
+                    if (received == null || received.length == 0) {
+                        // A broken connection is only noticed by a statement
+                        statement.execute("SELECT 1");
+                        continue;
+                    }
+                    for (PGNotification notification : received) {
+                        onMessage.accept(notification.getParameter());
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    break;
+                }
+                logger.warn("Cache invalidation connection lost, reconnecting in {} ms: {}", backoffMs, e.getMessage());
+                onReset.run();
+                try {
+                    Thread.sleep(backoffMs);
+                } catch (InterruptedException interrupted) {
+                    break;
+                }
+                backoffMs = Math.min(backoffMs * 2, MAX_BACKOFF_MS);
+            }
+        }
+        logger.debug("Cache invalidation listener stopped");
+    }
+
+    private Connection connect() throws SQLException {
+        return DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword());
+    }
+}
@@ -0,0 +1,161 @@
+package org.example.tech_spec_java_spring_final_v2.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.example.tech_spec_java_spring_final_v2.dto.CacheStatsDto;
+import org.example.tech_spec_java_spring_final_v2.dto.UserDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Bounded read-through cache of users by id. Missing users are cached as well (as an empty
+ * {@link Optional}, with a shorter TTL), so repeated lookups of unknown ids do not reach the
+ * database. Writers must invalidate or replace the entry of every user they change.
+ */
+@Component
+public class UserCache implements MeterBinder {
+
+    private final AsyncCache<Long, Optional<UserDto>> cache;
+
+    public UserCache(@Value("${app.cache.users.max-size:10000}") long maxSize,
+                     @Value("${app.cache.users.ttl:10m}") Duration ttl,
+                     @Value("${app.cache.users.negative-ttl:30s}") Duration negativeTtl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<Long, Optional<UserDto>>() {
+                    @Override
+                    public long expireAfterCreate(Long id, Optional<UserDto> user, long currentTime) {
+                        return (user.isPresent() ? ttl : negativeTtl).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Long id, Optional<UserDto> user, long currentTime,
+                                                  long currentDuration) {
+                        return expireAfterCreate(id, user, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(Long id, Optional<UserDto> user, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .buildAsync();
+    }
+
+    /**
+     * Returns the cached user, loading it on a miss. Concurrent misses for the same id share one load.
+     * <p>
+     * Only an empty future is installed inside the cache's map; the loader then runs on the calling
+     * thread outside of any lock, so a virtual thread blocked on the database does not pin its carrier.
+     */
+    public Optional<UserDto> get(Long id, Function<Long, Optional<UserDto>> loader) {
+        CompletableFuture<Optional<UserDto>> promise = new CompletableFuture<>();
+        CompletableFuture<Optional<UserDto>> future = cache.get(id, (key, executor) -> promise);
+        if (future == promise) {
+            try {
+                promise.complete(loader.apply(id));
+            } catch (RuntimeException e) {
+                // Failed futures are removed from the cache automatically
+                promise.completeExceptionally(e);
+                throw e;
+            }
+        }
+        return join(future);
+    }
+
+    /**
+     * Bulk variant of {@link #get}: the ids not in the cache are passed to the loader in one call,
+     * which must return an entry (empty if the user does not exist) for each of them.
+     */
+    public Map<Long, Optional<UserDto>> getAll(Collection<Long> ids,
+                                               Function<Set<Long>, Map<Long, Optional<UserDto>>> loader) {
+        CompletableFuture<Map<Long, Optional<UserDto>>> promise = new CompletableFuture<>();
+        AtomicReference<Set<Long>> missing = new AtomicReference<>();
+        CompletableFuture<Map<Long, Optional<UserDto>>> future = cache.getAll(ids, (keys, executor) -> {
+            missing.set(Set.copyOf(keys));
+            return promise;
+        });
+        if (missing.get() != null) {
+            try {
+                promise.complete(loader.apply(missing.get()));
+            } catch (RuntimeException e) {
+                promise.completeExceptionally(e);
+                throw e;
+            }
+        }
+        return join(future);
+    }
+
+    /**
+     * Returns {@code true} only if the user is cached as not existing; never loads.
+     */
+    public boolean isKnownMissing(Long id) {
+        CompletableFuture<Optional<UserDto>> user = cache.getIfPresent(id);
+        return user != null && user.isDone() && !user.isCompletedExceptionally() && user.join().isEmpty();
+    }
+
+    public void put(UserDto user) {
+        cache.put(user.id(), CompletableFuture.completedFuture(Optional.of(user)));
+    }
+
+    public void invalidate(Long id) {
+        cache.synchronous().invalidate(id);
+    }
+
+    public void invalidateAll(Collection<Long> ids) {
+        cache.synchronous().invalidateAll(ids);
+    }
+
+    public void invalidateAll() {
+        cache.synchronous().invalidateAll();
+    }
+
+    /**
+     * Drops all "not found" entries, for writes that create users without knowing their ids.
+     */
+    public void invalidateMissing() {
+        cache.synchronous().asMap().values().removeIf(Optional::isEmpty);
+    }
+
+    public CacheStatsDto stats() {
+        CacheStats stats = cache.synchronous().stats();
+        return new CacheStatsDto(cache.synchronous().estimatedSize(), stats.hitCount(), stats.missCount(),
+                stats.hitRate(), stats.evictionCount());
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Publishes the same statistics as {@link #stats()} as {@code cache.*} meters tagged {@code cache=users}.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "users");
+    }
+}
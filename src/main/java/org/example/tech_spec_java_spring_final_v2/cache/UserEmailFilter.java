@@ -0,0 +1,255 @@
+package org.example.tech_spec_java_spring_final_v2.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.example.tech_spec_java_spring_final_v2.dto.EmailFilterStatsDto;
+import org.example.tech_spec_java_spring_final_v2.repository.JdbcReadRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bloom filter of the emails in the users table. A negative answer is definite, so callers can skip
+ * the database lookup for such emails; a positive one only means the email may exist.
+ * <p>
+ * Built in the background once the application is ready, so readiness does not wait for the table
+ * scan, and extended by every write that stores an email. Bits cannot be cleared, so emails that
+ * were changed or deleted keep answering "maybe" until the periodic rebuild. Until the first build
+ * completes every email is reported as possibly present.
+ */
+@Component
+public class UserEmailFilter implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserEmailFilter.class);
+
+    private final JdbcReadRepository readRepository;
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+
+    private volatile Bits current;
+    // Set while a rebuild scans the table, so concurrent writes end up in the new filter as well
+    private volatile Bits building;
+    // Not synchronized: a virtual thread blocked on the scan inside a monitor would pin its carrier
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    private final LongAdder definitelyAbsent = new LongAdder();
+    private final LongAdder maybePresent = new LongAdder();
+    private final LongAdder notLoaded = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+
+    public UserEmailFilter(JdbcReadRepository readRepository,
+                           @Value("${app.users.email-filter.expected-insertions:1000000}") long expectedInsertions,
+                           @Value("${app.users.email-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.readRepository = readRepository;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    public boolean mightContain(String email) {
+        Bits bits = current;
+        if (bits == null) {
+            notLoaded.increment();
+            return true;
+        }
+        if (!bits.mightContain(email)) {
+            definitelyAbsent.increment();
+            return false;
+        }
+        maybePresent.increment();
+        return true;
+    }
+
+    /**
+     * Returns the emails that may already exist; only these need to be checked against the database.
+     */
+    public List<String> filterMaybePresent(Collection<String> emails) {
+        List<String> result = new ArrayList<>();
+        for (String email : emails) {
+            if (mightContain(email)) {
+                result.add(email);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Records how many "maybe" answers the database showed to be absent. Answers given before the
+     * first build are not the filter's and are left out.
+     */
+    public void recordFalsePositives(long count) {
+        if (current != null) {
+            falsePositives.add(count);
+        }
+    }
+
+    /**
+     * Must be called after the write storing the email has committed.
+     */
+    public void add(String email) {
+        // Read before current: a rebuild publishes current before clearing building, so one of the
+        // two is always the filter whose table scan may have missed this email
+        Bits next = building;
+        Bits bits = current;
+        if (next != null) {
+            next.add(email);
+        }
+        if (bits != null && bits != next) {
+            bits.add(email);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildInBackground() {
+        Thread.ofPlatform().name("user-email-filter-build").daemon().start(() -> {
+            try {
+                rebuild();
+            } catch (RuntimeException e) {
+                // Every email stays "maybe" until the scheduled rebuild
+                logger.error("Failed to build user email filter", e);
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${app.users.email-filter.rebuild-interval-ms:3600000}",
+            initialDelayString = "${app.users.email-filter.rebuild-interval-ms:3600000}")
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            logger.debug("Rebuilding user email filter");
+
+            Bits next = new Bits(expectedInsertions, falsePositiveRate);
+            building = next;
+            long[] count = new long[1];
+            readRepository.forEachUserEmail(email -> {
+                next.add(email);
+                count[0]++;
+            });
+            current = next;
+            building = null;
+
+            logger.debug("User email filter rebuilt: {} emails, expected false positive rate {}",
+                    count[0], next.expectedFalsePositiveRate());
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * The observed false positive rate is the share of absent emails the filter answered "maybe" for:
+     * false positives over false positives plus true negatives, where every "absent" answer is a true
+     * negative, as the filter has no false negatives.
+     */
+    public EmailFilterStatsDto stats() {
+        Bits bits = current;
+        long absent = definitelyAbsent.sum();
+        long falsePositive = falsePositives.sum();
+        long negatives = falsePositive + absent;
+        return new EmailFilterStatsDto(bits != null, bits != null ? bits.expectedFalsePositiveRate() : 1.0,
+                absent, maybePresent.sum(), falsePositive, negatives == 0 ? 0.0 : (double) falsePositive / negatives);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("app.users.email.filter.checks", definitelyAbsent, LongAdder::doubleValue)
+                .tag("result", "absent")
+                .register(registry);
+        FunctionCounter.builder("app.users.email.filter.checks", maybePresent, LongAdder::doubleValue)
+                .tag("result", "maybe")
+                .register(registry);
+        FunctionCounter.builder("app.users.email.filter.checks", notLoaded, LongAdder::doubleValue)
+                .tag("result", "not-loaded")
+                .register(registry);
+        FunctionCounter.builder("app.users.email.filter.false.positives", falsePositives, LongAdder::doubleValue)
+                .description("Emails reported as possibly present that the database did not contain")
+                .register(registry);
+        Gauge.builder("app.users.email.filter.expected.false.positive.rate", this,
+                        filter -> filter.stats().expectedFalsePositiveRate())
+                .description("False positive rate estimated from the share of set bits")
+                .register(registry);
+    }
+
+    /**
+     * Fixed-size bit array probed at {@code hashes} positions derived from one 64-bit hash
+     * (Kirsch–Mitzenmacher double hashing).
+     */
+    private static final class Bits {
+
+        private final AtomicLongArray words;
+        private final long size;
+        private final int hashes;
+
+        Bits(long expectedInsertions, double falsePositiveRate) {
+            long n = Math.max(expectedInsertions, 1);
+            long bits = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            this.words = new AtomicLongArray((int) ((bits + 63) >>> 6));
+            this.size = (long) words.length() << 6;
+            this.hashes = Math.max(1, (int) Math.round((double) size / n * Math.log(2)));
+        }
+
+        void add(String email) {
+            long hash = hash(email);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= hashes; i++) {
+                long bit = index(h1 + i * h2);
+                long mask = 1L << bit;
+                int word = (int) (bit >>> 6);
+                if ((words.get(word) & mask) == 0) {
+                    words.getAndAccumulate(word, mask, (value, m) -> value | m);
+                }
+            }
+        }
+
+        boolean mightContain(String email) {
+            long hash = hash(email);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= hashes; i++) {
+                long bit = index(h1 + i * h2);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        double expectedFalsePositiveRate() {
+            long set = 0;
+            for (int i = 0; i < words.length(); i++) {
+                set += Long.bitCount(words.get(i));
+            }
+            return Math.pow((double) set / size, hashes);
+        }
+
+        private long index(int combined) {
+            return (combined < 0 ? ~combined : combined) % size;
+        }
+
+        // FNV-1a over the UTF-16 chars, finished with the murmur3 64-bit mixer
+        private static long hash(String value) {
+            long h = 0xcbf29ce484222325L;
+            for (int i = 0; i < value.length(); i++) {
+                h = (h ^ value.charAt(i)) * 0x100000001b3L;
+            }
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            h *= 0xc4ceb9fe1a85ec53L;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package org.example.tech_spec_java_spring_final_v2.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Read-through cache of {@code users.version} by user id, so a conditional GET whose ETag still
+ * matches is answered without a query. Writers must invalidate the entry after the statement that
+ * incremented the version; an entry loaded concurrently with the write is discarded with it.
+ * Missing users are not cached.
+ */
+@Component
+public class UserVersionCache implements MeterBinder {
+
+    private final AsyncCache<Long, Long> cache;
+
+    public UserVersionCache(@Value("${app.cache.user-versions.max-size:100000}") long maxSize,
+                            @Value("${app.cache.user-versions.ttl:10m}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+    }
+
+    /**
+     * Same loading scheme as {@link UserCache#get}: the loader runs on the calling thread, outside
+     * of the cache's locks.
+     */
+    public Optional<Long> get(Long userId, Function<Long, Optional<Long>> loader) {
+        CompletableFuture<Long> promise = new CompletableFuture<>();
+        CompletableFuture<Long> future = cache.get(userId, (key, executor) -> promise);
+        if (future == promise) {
+            try {
+                // A future completed with null is removed from the cache
+                promise.complete(loader.apply(userId).orElse(null));
+            } catch (RuntimeException e) {
+                promise.completeExceptionally(e);
+                throw e;
+            }
+        }
+        try {
+            return Optional.ofNullable(future.join());
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    public void invalidate(Long userId) {
+        cache.synchronous().invalidate(userId);
+    }
+
+    public void invalidateAll(Collection<Long> userIds) {
+        cache.synchronous().invalidateAll(userIds);
+    }
+
+    public void invalidateAll() {
+        cache.synchronous().invalidateAll();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "user-versions");
+    }
+}
@@ -0,0 +1,28 @@
+package org.example.tech_spec_java_spring_final_v2.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class AccessLogConfig {
+
+    /**
+     * Registered first, so the logged duration covers all other filters.
+     */
+    @Bean
+    FilterRegistrationBean<AccessLogFilter> accessLogFilter(
+            @Value("${app.access-log.sample-rate:1.0}") double sampleRate,
+            @Value("${app.access-log.slow-threshold:1s}") Duration slowThreshold) {
+        FilterRegistrationBean<AccessLogFilter> registration =
+                new FilterRegistrationBean<>(new AccessLogFilter(sampleRate, slowThreshold));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
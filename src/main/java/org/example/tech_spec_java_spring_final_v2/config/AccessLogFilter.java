@@ -0,0 +1,83 @@
+package org.example.tech_spec_java_spring_final_v2.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.spi.LoggingEventBuilder;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Writes one record per request to the {@code access} logger, replacing the per-call INFO lines of
+ * the controllers and services. Successful requests are sampled; client and server errors and
+ * requests slower than the threshold are always logged. The fields are attached as key-value pairs,
+ * so structured console formats emit them as separate attributes.
+ */
+public class AccessLogFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger("access");
+
+    private final double sampleRate;
+    private final long slowThresholdNanos;
+
+    public AccessLogFilter(double sampleRate, Duration slowThreshold) {
+        this.sampleRate = sampleRate;
+        this.slowThresholdNanos = slowThreshold.toNanos();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long started = System.nanoTime();
+        Throwable failure = null;
+        try {
+            filterChain.doFilter(request, response);
+        } catch (ServletException | IOException | RuntimeException e) {
+            failure = e;
+            throw e;
+        } finally {
+            long elapsed = System.nanoTime() - started;
+            int status = failure != null ? HttpServletResponse.SC_INTERNAL_SERVER_ERROR : response.getStatus();
+            if (shouldLog(status, elapsed)) {
+                log(request, status, elapsed, failure);
+            }
+        }
+    }
+
+    private boolean shouldLog(int status, long elapsed) {
+        if (!logger.isInfoEnabled()) {
+            return false;
+        }
+        return status >= 400
+                || elapsed >= slowThresholdNanos
+                || sampleRate >= 1.0
+                || ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+
+    private void log(HttpServletRequest request, int status, long elapsed, Throwable failure) {
+        Object uri = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        Object counts = request.getAttribute(HibernateRequestStatisticsFilter.COUNTS_ATTRIBUTE);
+        long statements = counts instanceof HibernateRequestStatistics.Counts c ? c.statements() : 0;
+        double millis = elapsed / 1_000_000.0;
+
+        LoggingEventBuilder event = status >= 500 ? logger.atWarn() : logger.atInfo();
+        event.addKeyValue("method", request.getMethod())
+                .addKeyValue("uri", uri != null ? uri : "UNKNOWN")
+                .addKeyValue("path", request.getRequestURI())
+                .addKeyValue("status", status)
+                .addKeyValue("duration_ms", millis)
+                .addKeyValue("statements", statements);
+        if (failure != null) {
+            event.addKeyValue("error", failure.getClass().getSimpleName());
+        }
+        event.log("{} {} {} {}ms statements={}", request.getMethod(), request.getRequestURI(), status,
+                String.format("%.1f", millis), statements);
+    }
+}
@@ -0,0 +1,152 @@
+package org.example.tech_spec_java_spring_final_v2.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounds the number of requests of one kind in flight at once, rejecting the rest immediately. The
+ * limit follows the latency of the requests it admits, which for this application is mostly time
+ * spent waiting for and in the database: two moving averages are kept, a slow baseline and a fast
+ * recent one. While the recent latency stays within {@code tolerance} times the baseline and the
+ * limit is actually used, the limit grows by about its square root; as the recent latency rises
+ * above that, the limit shrinks in proportion, down to half per step.
+ * <p>
+ * The baseline averages over time rather than samples, so that under load it does not catch up
+ * with the elevated latency within a fraction of a second; it still follows improvements at once.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double RECENT_SMOOTHING = 0.1;
+    private static final double LIMIT_SMOOTHING = 0.2;
+    private static final double MIN_GRADIENT = 0.5;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double baselineWindowNanos;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile double limit;
+    private volatile double gradient = 1.0;
+    private double recentNanos;
+    private double baselineNanos;
+    private long lastSampleNanos;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double tolerance,
+                                      Duration baselineWindow) {
+        if (minLimit < 1 || minLimit > initialLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Expected 1 <= min-limit <= initial-limit <= max-limit, got "
+                    + minLimit + ", " + initialLimit + ", " + maxLimit);
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.baselineWindowNanos = baselineWindow.toNanos();
+        this.limit = initialLimit;
+    }
+
+    /**
+     * Registers {@code app.admission.limit}, {@code app.admission.in-flight} and the latency averages
+     * {@code app.admission.latency.recent} and {@code app.admission.latency.baseline}, tagged with the name.
+     */
+    public AdaptiveConcurrencyLimiter bindTo(MeterRegistry meterRegistry, String name) {
+        Gauge.builder("app.admission.limit", this, AdaptiveConcurrencyLimiter::getLimit)
+                .tag("class", name)
+                .description("Current concurrency limit")
+                .register(meterRegistry);
+        Gauge.builder("app.admission.in-flight", this, AdaptiveConcurrencyLimiter::getInFlight)
+                .tag("class", name)
+                .description("Admitted requests in flight")
+                .register(meterRegistry);
+        Gauge.builder("app.admission.latency.recent", this, limiter -> limiter.getRecentNanos() / 1e9)
+                .tag("class", name)
+                .baseUnit("seconds")
+                .description("Fast moving average of the latency of admitted requests")
+                .register(meterRegistry);
+        Gauge.builder("app.admission.latency.baseline", this, limiter -> limiter.getBaselineNanos() / 1e9)
+                .tag("class", name)
+                .baseUnit("seconds")
+                .description("Slow moving average of the latency of admitted requests")
+                .register(meterRegistry);
+        return this;
+    }
+
+    /**
+     * Takes a permit unless the limit is reached; a taken permit must be given back with {@link #release}.
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Gives a permit back and, for a non-negative latency, adjusts the limit to it.
+     */
+    public void release(long latencyNanos) {
+        int inFlightBefore = inFlight.getAndDecrement();
+        if (latencyNanos >= 0) {
+            update(latencyNanos, inFlightBefore);
+        }
+    }
+
+    /**
+     * Whether the recent latency exceeds the tolerated multiple of the baseline, i.e. rejections are
+     * caused by a slow backend rather than by more requests than the limit allows.
+     */
+    public boolean isLatencyElevated() {
+        return gradient < 1.0;
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    synchronized double getRecentNanos() {
+        return recentNanos;
+    }
+
+    synchronized double getBaselineNanos() {
+        return baselineNanos;
+    }
+
+    private synchronized void update(long latencyNanos, int inFlightBefore) {
+        long now = System.nanoTime();
+        long elapsed = now - lastSampleNanos;
+        lastSampleNanos = now;
+        if (recentNanos == 0) {
+            recentNanos = latencyNanos;
+            baselineNanos = latencyNanos;
+            return;
+        }
+        recentNanos += (latencyNanos - recentNanos) * RECENT_SMOOTHING;
+        double baselineSmoothing = recentNanos < baselineNanos
+                ? RECENT_SMOOTHING
+                : 1 - Math.exp(-elapsed / baselineWindowNanos);
+        baselineNanos += (recentNanos - baselineNanos) * baselineSmoothing;
+        gradient = Math.max(MIN_GRADIENT, Math.min(1.0, tolerance * baselineNanos / recentNanos));
+
+        double current = limit;
+        if (gradient == 1.0 && inFlightBefore < current / 2) {
+            // Latency tells nothing about a limit that is not reached
+            return;
+        }
+        // Headroom only while healthy, otherwise it would hold small limits up against any gradient
+        double target = gradient == 1.0 ? current + Math.sqrt(current) : current * gradient;
+        double next = current * (1 - LIMIT_SMOOTHING) + target * LIMIT_SMOOTHING;
+        limit = Math.max(minLimit, Math.min(maxLimit, next));
+    }
+}
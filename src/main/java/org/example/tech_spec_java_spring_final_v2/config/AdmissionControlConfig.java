@@ -0,0 +1,61 @@
+package org.example.tech_spec_java_spring_final_v2.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.tech_spec_java_spring_final_v2.config.AdmissionControlInterceptor.EndpointClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "app.admission.enabled", havingValue = "true", matchIfMissing = true)
+public class AdmissionControlConfig {
+
+    /**
+     * One bulkhead per {@link EndpointClass}, configured by {@code app.admission.<class>.initial-limit},
+     * {@code min-limit} and {@code max-limit}. Only the API is limited, not the actuator or admin endpoints.
+     */
+    @Bean
+    AdmissionControlInterceptor admissionControlInterceptor(Environment environment, MeterRegistry meterRegistry) {
+        double tolerance = environment.getProperty("app.admission.latency-tolerance", Double.class, 2.0);
+        Duration baselineWindow = environment.getProperty("app.admission.baseline-window", Duration.class,
+                Duration.ofMinutes(1));
+        Duration retryAfter = environment.getProperty("app.admission.retry-after", Duration.class, Duration.ofSeconds(1));
+        Map<EndpointClass, AdaptiveConcurrencyLimiter> limiters = new EnumMap<>(EndpointClass.class);
+        limiters.put(EndpointClass.READ, limiter(environment, EndpointClass.READ, 20, 200, tolerance, baselineWindow));
+        limiters.put(EndpointClass.WRITE, limiter(environment, EndpointClass.WRITE, 10, 50, tolerance, baselineWindow));
+        limiters.put(EndpointClass.ANALYTICS, limiter(environment, EndpointClass.ANALYTICS, 2, 4, tolerance, baselineWindow));
+        limiters.forEach((endpointClass, limiter) -> limiter.bindTo(meterRegistry, endpointClass.name().toLowerCase()));
+        return new AdmissionControlInterceptor(limiters, retryAfter, meterRegistry);
+    }
+
+    @Bean
+    WebMvcConfigurer admissionControlConfigurer(AdmissionControlInterceptor admissionControlInterceptor) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(admissionControlInterceptor).addPathPatterns("/users/**", "/subscriptions/**");
+            }
+        };
+    }
+
+    private static AdaptiveConcurrencyLimiter limiter(Environment environment, EndpointClass endpointClass,
+                                                      int initialLimit, int maxLimit,
+                                                      double tolerance, Duration baselineWindow) {
+        String prefix = "app.admission." + endpointClass.name().toLowerCase() + ".";
+        return new AdaptiveConcurrencyLimiter(
+                environment.getProperty(prefix + "initial-limit", Integer.class, initialLimit),
+                environment.getProperty(prefix + "min-limit", Integer.class, 1),
+                environment.getProperty(prefix + "max-limit", Integer.class, maxLimit),
+                tolerance,
+                baselineWindow);
+    }
+}
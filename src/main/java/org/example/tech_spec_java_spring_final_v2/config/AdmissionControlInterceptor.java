@@ -0,0 +1,113 @@
+package org.example.tech_spec_java_spring_final_v2.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.example.tech_spec_java_spring_final_v2.exception.ServiceUnavailableException;
+import org.example.tech_spec_java_spring_final_v2.exception.TooManyRequestsException;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Admits each request through the {@link AdaptiveConcurrencyLimiter} of its {@link EndpointClass}, so a
+ * burst of one kind (say, ranged top queries) cannot take the connection pool and the request threads
+ * from the others. A request over the limit is rejected before its handler runs: with 503 while the
+ * class's latency is elevated, otherwise with 429, both carrying {@code Retry-After}.
+ * <p>
+ * The permit of a streaming response is held until the stream completes; only the latency of
+ * requests completed on their first dispatch feeds the limit.
+ */
+public class AdmissionControlInterceptor implements AsyncHandlerInterceptor {
+
+    /**
+     * Request attribute holding the {@link Admission} of a request until its permit is released.
+     */
+    private static final String ADMISSION_ATTRIBUTE = AdmissionControlInterceptor.class.getName() + ".admission";
+    private static final String ASYNC_ATTRIBUTE = AdmissionControlInterceptor.class.getName() + ".async";
+
+    private static final Set<String> ANALYTICS_PATTERNS = Set.of("/subscriptions/top", "/subscriptions/export");
+    private static final Set<String> READ_METHODS = Set.of("GET", "HEAD");
+
+    public enum EndpointClass {
+        READ, WRITE, ANALYTICS
+    }
+
+    private final Map<EndpointClass, AdaptiveConcurrencyLimiter> limiters;
+    private final Map<EndpointClass, Counter> rejectedBusy = new EnumMap<>(EndpointClass.class);
+    private final Map<EndpointClass, Counter> rejectedOverloaded = new EnumMap<>(EndpointClass.class);
+    private final Duration retryAfter;
+
+    public AdmissionControlInterceptor(Map<EndpointClass, AdaptiveConcurrencyLimiter> limiters,
+                                       Duration retryAfter,
+                                       MeterRegistry meterRegistry) {
+        this.limiters = new EnumMap<>(limiters);
+        this.retryAfter = retryAfter;
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            rejectedBusy.put(endpointClass, rejectedCounter(meterRegistry, endpointClass, "429"));
+            rejectedOverloaded.put(endpointClass, rejectedCounter(meterRegistry, endpointClass, "503"));
+        }
+    }
+
+    static EndpointClass classify(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (pattern != null && ANALYTICS_PATTERNS.contains(pattern.toString())) {
+            return EndpointClass.ANALYTICS;
+        }
+        return READ_METHODS.contains(request.getMethod()) ? EndpointClass.READ : EndpointClass.WRITE;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            // Admitted on the initial dispatch
+            return true;
+        }
+        EndpointClass endpointClass = classify(request);
+        AdaptiveConcurrencyLimiter limiter = limiters.get(endpointClass);
+        if (limiter.tryAcquire()) {
+            request.setAttribute(ADMISSION_ATTRIBUTE, new Admission(endpointClass, System.nanoTime()));
+            return true;
+        }
+        String name = endpointClass.name().toLowerCase();
+        if (limiter.isLatencyElevated()) {
+            rejectedOverloaded.get(endpointClass).increment();
+            throw new ServiceUnavailableException("Server is overloaded, " + name + " requests are being shed",
+                    retryAfter);
+        }
+        rejectedBusy.get(endpointClass).increment();
+        throw new TooManyRequestsException("Too many concurrent " + name + " requests", retryAfter);
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        request.setAttribute(ASYNC_ATTRIBUTE, Boolean.TRUE);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (!(request.getAttribute(ADMISSION_ATTRIBUTE) instanceof Admission admission)) {
+            return;
+        }
+        request.removeAttribute(ADMISSION_ATTRIBUTE);
+        boolean async = request.getAttribute(ASYNC_ATTRIBUTE) != null;
+        limiters.get(admission.endpointClass()).release(async ? -1 : System.nanoTime() - admission.startedNanos());
+    }
+
+    private record Admission(EndpointClass endpointClass, long startedNanos) {
+    }
+
+    private static Counter rejectedCounter(MeterRegistry meterRegistry, EndpointClass endpointClass, String status) {
+        return Counter.builder("app.admission.rejected")
+                .tag("class", endpointClass.name().toLowerCase())
+                .tag("status", status)
+                .description("Requests rejected by admission control")
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,94 @@
+package org.example.tech_spec_java_spring_final_v2.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.reactivestreams.Publisher;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.MimeType;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@code application/cbor} request and response bodies next to JSON, selected through the
+ * {@code Accept} and {@code Content-Type} headers; JSON stays the default. The DTO records are
+ * mapped by Jackson in both formats, so CBOR has the same field names and no schema of its own.
+ * <p>
+ * The mapper is built from Spring Boot's {@link Jackson2ObjectMapperBuilder}, so {@code spring.jackson.*}
+ * settings (dates as ISO strings in particular) apply to CBOR as well.
+ */
+@Configuration(proxyBeanMethods = false)
+public class CborConfig {
+
+    /**
+     * Takes the place of the converter Spring MVC registers by default, after the JSON one.
+     */
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(cborMapper(builder));
+    }
+
+    /**
+     * WebFlux, unlike Spring MVC, registers no CBOR codecs. Custom codecs are consulted before the
+     * default JSON ones, so a JSON encoder with the application's mapper is registered ahead of CBOR
+     * to keep JSON first for {@code Accept: *}{@code /*}. Server side only: the WebClient keeps
+     * sending JSON.
+     */
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    WebFluxConfigurer cborCodecsConfigurer(ObjectMapper objectMapper, Jackson2ObjectMapperBuilder builder) {
+        ObjectMapper cborMapper = cborMapper(builder);
+        return new WebFluxConfigurer() {
+            @Override
+            public void configureHttpMessageCodecs(ServerCodecConfigurer configurer) {
+                configurer.customCodecs().register(new Jackson2JsonEncoder(objectMapper));
+                configurer.customCodecs().register(new CborEncoder(cborMapper));
+                configurer.customCodecs().register(new Jackson2CborDecoder(cborMapper, MediaType.APPLICATION_CBOR));
+            }
+        };
+    }
+
+    private static ObjectMapper cborMapper(Jackson2ObjectMapperBuilder builder) {
+        return builder.factory(new CBORFactory()).build();
+    }
+
+    /**
+     * {@link Jackson2CborEncoder} rejects every publisher, including the single value a handler
+     * returns. Values are encoded one at a time; a multi-value stream becomes one CBOR array.
+     */
+    static class CborEncoder extends Jackson2CborEncoder {
+
+        CborEncoder(ObjectMapper mapper) {
+            // Without explicit MIME types the Jackson codecs claim the JSON ones
+            super(mapper, MediaType.APPLICATION_CBOR);
+        }
+
+        @Override
+        public Flux<DataBuffer> encode(Publisher<?> inputStream, DataBufferFactory bufferFactory,
+                                       ResolvableType elementType, MimeType mimeType, Map<String, Object> hints) {
+            if (inputStream instanceof Mono<?> mono) {
+                return mono.map(value -> encodeValue(value, bufferFactory, elementType, mimeType, hints)).flux();
+            }
+            ResolvableType listType = ResolvableType.forClassWithGenerics(List.class, elementType);
+            return Flux.from(inputStream).collectList()
+                    .map(list -> encodeValue(list, bufferFactory, listType, mimeType, hints))
+                    .flux();
+        }
+    }
+}
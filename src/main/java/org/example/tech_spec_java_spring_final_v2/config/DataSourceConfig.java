@@ -0,0 +1,37 @@
+package org.example.tech_spec_java_spring_final_v2.config;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+@Configuration(proxyBeanMethods = false)
+public class DataSourceConfig {
+
+    /**
+     * Wraps the pooled data source in a {@link ConnectionLimitingDataSource} when
+     * {@code app.datasource.max-concurrent-connections} is set (the virtual-threads profile does).
+     * With a read replica the primary and replica pools are limited separately, not the router in front.
+     */
+    @Bean
+    @ConditionalOnProperty("app.datasource.max-concurrent-connections")
+    static BeanPostProcessor connectionLimitingDataSourcePostProcessor(Environment environment) {
+        int maxConnections = environment.getRequiredProperty("app.datasource.max-concurrent-connections", Integer.class);
+        Duration timeout = environment.getProperty("app.datasource.acquire-timeout", Duration.class, Duration.ofSeconds(30));
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ConnectionLimitingDataSource)
+                        && !(bean instanceof AbstractRoutingDataSource)) {
+                    return new ConnectionLimitingDataSource(dataSource, maxConnections, timeout);
+                }
+                return bean;
+            }
+        };
+    }
+}
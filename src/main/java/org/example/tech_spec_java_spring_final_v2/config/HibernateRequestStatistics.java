@@ -0,0 +1,97 @@
+package org.example.tech_spec_java_spring_final_v2.config;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.AutoFlushEventListener;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.FlushEventListener;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+
+/**
+ * Counts the JDBC statements, entity loads and flushes Hibernate performs on the current thread
+ * between {@link #start()} and {@link #stop()}. The factory-wide {@code Statistics} cannot be used
+ * for this because concurrent requests share it.
+ */
+public final class HibernateRequestStatistics {
+
+    private static final ThreadLocal<Counts> CURRENT = new ThreadLocal<>();
+
+    private HibernateRequestStatistics() {
+    }
+
+    static void start() {
+        CURRENT.set(new Counts());
+    }
+
+    static Counts stop() {
+        Counts counts = CURRENT.get();
+        CURRENT.remove();
+        return counts;
+    }
+
+    private static Counts current() {
+        Counts counts = CURRENT.get();
+        // Work outside of a request (startup, scheduled reconciliation) goes to a throwaway instance
+        return counts != null ? counts : new Counts();
+    }
+
+    static final class Counts {
+
+        private long statements;
+        private long entityLoads;
+        private long flushes;
+
+        long statements() {
+            return statements;
+        }
+
+        long entityLoads() {
+            return entityLoads;
+        }
+
+        long flushes() {
+            return flushes;
+        }
+    }
+
+    /**
+     * Registered as {@code hibernate.session_factory.statement_inspector}; sees every SQL statement
+     * before it is prepared and returns it unchanged.
+     */
+    public static class StatementCounter implements StatementInspector {
+
+        @Override
+        public String inspect(String sql) {
+            current().statements++;
+            return sql;
+        }
+    }
+
+    /**
+     * Registers the entity load and flush listeners with the session factory.
+     */
+    public static class ListenerIntegrator implements Integrator {
+
+        @Override
+        public void integrate(Metadata metadata, BootstrapContext bootstrapContext,
+                              SessionFactoryImplementor sessionFactory) {
+            EventListenerRegistry registry = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+            registry.appendListeners(EventType.POST_LOAD, (PostLoadEventListener) event -> current().entityLoads++);
+            registry.appendListeners(EventType.FLUSH, (FlushEventListener) event -> current().flushes++);
+            registry.appendListeners(EventType.AUTO_FLUSH, (AutoFlushEventListener) event -> {
+                if (event.isFlushRequired()) {
+                    current().flushes++;
+                }
+            });
+        }
+
+        @Override
+        public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+        }
+    }
+}
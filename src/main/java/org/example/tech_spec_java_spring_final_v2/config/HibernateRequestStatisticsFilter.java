@@ -0,0 +1,57 @@
+package org.example.tech_spec_java_spring_final_v2.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Records the Hibernate work of each request as {@code hibernate.request.statements},
+ * {@code hibernate.request.entity.loads} and {@code hibernate.request.flushes}, tagged like
+ * {@code http.server.requests} with the method and URI template.
+ */
+public class HibernateRequestStatisticsFilter extends OncePerRequestFilter {
+
+    /**
+     * Request attribute holding the {@link HibernateRequestStatistics.Counts} once the request completed.
+     */
+    static final String COUNTS_ATTRIBUTE = HibernateRequestStatisticsFilter.class.getName() + ".counts";
+
+    private final MeterRegistry meterRegistry;
+
+    public HibernateRequestStatisticsFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        HibernateRequestStatistics.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            HibernateRequestStatistics.Counts counts = HibernateRequestStatistics.stop();
+            request.setAttribute(COUNTS_ATTRIBUTE, counts);
+            Object uri = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            Tags tags = Tags.of("method", request.getMethod(), "uri", uri != null ? uri.toString() : "UNKNOWN");
+            record("hibernate.request.statements", "JDBC statements prepared per request", tags, counts.statements());
+            record("hibernate.request.entity.loads", "Entities loaded per request", tags, counts.entityLoads());
+            record("hibernate.request.flushes", "Session flushes per request", tags, counts.flushes());
+        }
+    }
+
+    private void record(String name, String description, Tags tags, long value) {
+        DistributionSummary.builder(name)
+                .description(description)
+                .tags(tags)
+                .register(meterRegistry)
+                .record(value);
+    }
+}
@@ -0,0 +1,43 @@
+package org.example.tech_spec_java_spring_final_v2.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.hibernate.jpa.boot.spi.JpaSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * Metrics beyond what Spring Boot records on its own ({@code http.server.requests},
+ * {@code spring.data.repository.invocations} and the factory-wide {@code hibernate.*} statistics):
+ * {@code @Timed} support for non Spring Data repositories and per-request Hibernate counts.
+ */
+@Configuration(proxyBeanMethods = false)
+public class MetricsConfig {
+
+    @Bean
+    TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    @Bean
+    HibernatePropertiesCustomizer hibernateRequestStatisticsCustomizer() {
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, HibernateRequestStatistics.StatementCounter.class.getName());
+            properties.put(JpaSettings.INTEGRATOR_PROVIDER,
+                    (IntegratorProvider) () -> List.of(new HibernateRequestStatistics.ListenerIntegrator()));
+        };
+    }
+
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    FilterRegistrationBean<HibernateRequestStatisticsFilter> hibernateRequestStatisticsFilter(MeterRegistry meterRegistry) {
+        return new FilterRegistrationBean<>(new HibernateRequestStatisticsFilter(meterRegistry));
+    }
+}
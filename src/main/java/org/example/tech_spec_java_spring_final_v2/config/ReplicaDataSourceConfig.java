@@ -0,0 +1,62 @@
+package org.example.tech_spec_java_spring_final_v2.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.example.tech_spec_java_spring_final_v2.repository.ReplicaRouting;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import javax.sql.DataSource;
+
+/**
+ * Primary and replica pools behind a {@link ReplicaRoutingDataSource} once
+ * {@code app.datasource.replica.url} is not empty. The primary is configured through the usual
+ * {@code spring.datasource.*}, the replica through {@code app.datasource.replica.*} (same keys,
+ * including {@code hikari.*}). Only the routing data source is a candidate for injection, so JPA,
+ * the JDBC repositories and the transaction manager all go through it.
+ * <p>
+ * Servlet stack only: the reactive services read through R2DBC.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnExpression("'${app.datasource.replica.url:}' != ''")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@EnableConfigurationProperties(DataSourceProperties.class)
+public class ReplicaDataSourceConfig {
+
+    @Bean(defaultCandidate = false)
+    @ConfigurationProperties("spring.datasource.hikari")
+    HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean(defaultCandidate = false)
+    @ConfigurationProperties("app.datasource.replica")
+    DataSourceProperties replicaDataSourceProperties() {
+        return new DataSourceProperties();
+    }
+
+    @Bean(defaultCandidate = false)
+    @ConfigurationProperties("app.datasource.replica.hikari")
+    HikariDataSource replicaDataSource(@Qualifier("replicaDataSourceProperties") DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    ReplicaRoutingDataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                        @Qualifier("replicaDataSource") DataSource replica,
+                                        ReplicaRouting routing) {
+        return new ReplicaRoutingDataSource(primary, replica, routing);
+    }
+}
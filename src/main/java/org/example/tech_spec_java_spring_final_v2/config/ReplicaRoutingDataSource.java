@@ -0,0 +1,32 @@
+package org.example.tech_spec_java_spring_final_v2.config;
+
+import org.example.tech_spec_java_spring_final_v2.repository.ReplicaRouting;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Hands out replica connections to reads marked by {@link ReplicaRouting}, primary connections
+ * to everything else. The choice is made when a connection is obtained, so a transaction keeps
+ * the connection it started with.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Target {
+        PRIMARY, REPLICA
+    }
+
+    private final ReplicaRouting routing;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReplicaRouting routing) {
+        this.routing = routing;
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return routing.isReplicaRead() ? Target.REPLICA : Target.PRIMARY;
+    }
+}
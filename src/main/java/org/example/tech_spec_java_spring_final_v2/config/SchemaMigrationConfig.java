@@ -0,0 +1,30 @@
+package org.example.tech_spec_java_spring_final_v2.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+@Configuration(proxyBeanMethods = false)
+public class SchemaMigrationConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(SchemaMigrationConfig.class);
+
+    /**
+     * Skips the migration in the CDS training run of the fast-startup image, which only refreshes the
+     * context ({@code spring.context.exit=onRefresh}) and has no database. With AOT the Flyway beans
+     * are fixed at build time and cannot be switched off with {@code spring.flyway.enabled}.
+     */
+    @Bean
+    FlywayMigrationStrategy flywayMigrationStrategy(Environment environment) {
+        return flyway -> {
+            if ("onRefresh".equals(environment.getProperty("spring.context.exit"))) {
+                logger.info("Training run, schema migration skipped");
+                return;
+            }
+            flyway.migrate();
+        };
+    }
+}
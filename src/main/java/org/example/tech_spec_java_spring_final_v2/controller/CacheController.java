@@ -0,0 +1,27 @@
+package org.example.tech_spec_java_spring_final_v2.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.example.tech_spec_java_spring_final_v2.dto.CacheStatsDto;
+import org.example.tech_spec_java_spring_final_v2.cache.UserCache;
+import org.example.tech_spec_java_spring_final_v2.cache.UserEmailFilter;
+import org.example.tech_spec_java_spring_final_v2.dto.EmailFilterStatsDto;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequiredArgsConstructor
+public class CacheController {
+
+    private final UserCache userCache;
+    private final UserEmailFilter emailFilter;
+
+    @GetMapping("/admin/caches/users")
+    public CacheStatsDto getUserCacheStats() {
+        return userCache.stats();
+    }
+
+    @GetMapping("/admin/caches/user-emails")
+    public EmailFilterStatsDto getUserEmailFilterStats() {
+        return emailFilter.stats();
+    }
+}
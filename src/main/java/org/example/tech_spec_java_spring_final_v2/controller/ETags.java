@@ -0,0 +1,23 @@
+package org.example.tech_spec_java_spring_final_v2.controller;
+
+/**
+ * ETags of the user and subscription reads, derived from {@code users.version}.
+ * <p>
+ * The tags are weak: they identify a version of the data, not the bytes of one representation,
+ * and Tomcat does not compress responses carrying a strong ETag. If-None-Match uses the weak
+ * comparison, so revalidation works the same. The JSON and CBOR representations of one version share
+ * the tag; responses name {@code Accept} in {@code Vary} so that caches keep them apart.
+ */
+final class ETags {
+
+    private ETags() {
+    }
+
+    /**
+     * The version is read before the data it tags, so a concurrent write can only make the tag older
+     * than the body (and cause one extra full response), never newer.
+     */
+    static String of(Long userId, long version) {
+        return "W/\"" + userId + "-" + version + "\"";
+    }
+}
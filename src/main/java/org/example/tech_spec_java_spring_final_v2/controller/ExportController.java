@@ -0,0 +1,51 @@
+package org.example.tech_spec_java_spring_final_v2.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.example.tech_spec_java_spring_final_v2.dto.SubscriptionExportFilter;
+import org.example.tech_spec_java_spring_final_v2.service.DataFormat;
+import org.example.tech_spec_java_spring_final_v2.service.SubscriptionExportService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequiredArgsConstructor
+public class ExportController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportController.class);
+
+    private final SubscriptionExportService subscriptionExportService;
+
+    @GetMapping("/subscriptions/export")
+    public ResponseEntity<StreamingResponseBody> exportSubscriptions(
+            @RequestParam(required = false) String serviceName,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestHeader(value = HttpHeaders.ACCEPT, defaultValue = "*/*") String accept) {
+        logger.debug("Received request to export subscriptions, service: {}, from: {}, to: {}", serviceName, from, to);
+
+        DataFormat format = DataFormat.fromAccept(accept);
+        SubscriptionExportFilter filter = new SubscriptionExportFilter(serviceName, from, to);
+        StreamingResponseBody body = output -> subscriptionExportService.exportSubscriptions(filter, format, output);
+
+        return ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("subscriptions." + format.name().toLowerCase())
+                        .build()
+                        .toString())
+                .body(body);
+    }
+}
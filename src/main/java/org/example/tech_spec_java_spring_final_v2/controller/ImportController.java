@@ -0,0 +1,43 @@
+package org.example.tech_spec_java_spring_final_v2.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.example.tech_spec_java_spring_final_v2.dto.ImportReportDto;
+import org.example.tech_spec_java_spring_final_v2.service.BulkImportService;
+import org.example.tech_spec_java_spring_final_v2.service.DataFormat;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.InputStream;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequiredArgsConstructor
+public class ImportController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImportController.class);
+
+    private final BulkImportService bulkImportService;
+
+    @PostMapping(value = "/users/import", consumes = {"text/csv", "application/x-ndjson"})
+    public ImportReportDto importUsers(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                       InputStream body) {
+        logger.debug("Received request to import users, content type: {}", contentType);
+        ImportReportDto report = bulkImportService.importUsers(body, DataFormat.fromContentType(contentType));
+        logger.debug("Users imported: {} accepted, {} rejected", report.accepted(), report.rejected());
+        return report;
+    }
+
+    @PostMapping(value = "/subscriptions/import", consumes = {"text/csv", "application/x-ndjson"})
+    public ImportReportDto importSubscriptions(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                               InputStream body) {
+        logger.debug("Received request to import subscriptions, content type: {}", contentType);
+        ImportReportDto report = bulkImportService.importSubscriptions(body, DataFormat.fromContentType(contentType));
+        logger.debug("Subscriptions imported: {} accepted, {} rejected", report.accepted(), report.rejected());
+        return report;
+    }
+}
@@ -0,0 +1,74 @@
+package org.example.tech_spec_java_spring_final_v2.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.example.tech_spec_java_spring_final_v2.dto.SubscriptionDto;
+import org.example.tech_spec_java_spring_final_v2.dto.SubscriptionPageDto;
+import org.example.tech_spec_java_spring_final_v2.dto.TopSubscriptionDto;
+import org.example.tech_spec_java_spring_final_v2.service.ReactiveSubscriptionService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * {@link SubscriptionController} for the reactive profile: same mappings, statuses and error responses.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+public class ReactiveSubscriptionController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveSubscriptionController.class);
+
+    private final ReactiveSubscriptionService subscriptionService;
+
+    @PostMapping("/users/{userId}/subscriptions")
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<SubscriptionDto> addSubscription(@PathVariable Long userId, @RequestBody SubscriptionDto dto) {
+        logger.debug("Received request to add subscription for user with id: {}, service: {}",
+                userId, dto.serviceName());
+        return subscriptionService.addSubscription(userId, dto);
+    }
+
+    @GetMapping("/users/{userId}/subscriptions")
+    public Mono<ResponseEntity<SubscriptionPageDto>> getUserSubscriptions(@PathVariable Long userId,
+                                                                          @RequestParam(required = false) String pageToken,
+                                                                          @RequestParam(required = false) Integer limit,
+                                                                          ServerWebExchange exchange) {
+        logger.debug("Received request to get subscriptions for user with id: {}", userId);
+        return subscriptionService.getSubscriptionsVersion(userId).flatMap(version -> {
+            String eTag = ETags.of(userId, version);
+            if (exchange.checkNotModified(eTag)) {
+                return Mono.empty();
+            }
+            return subscriptionService.getUserSubscriptions(userId, pageToken, limit)
+                    .map(page -> ResponseEntity.ok().eTag(eTag).varyBy(HttpHeaders.ACCEPT).body(page));
+        });
+    }
+
+    @DeleteMapping("/users/{userId}/subscriptions/{subscriptionId}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public Mono<Void> deleteSubscription(@PathVariable Long userId, @PathVariable Long subscriptionId) {
+        logger.debug("Received request to delete subscription with id: {} for user with id: {}",
+                subscriptionId, userId);
+        return subscriptionService.deleteSubscription(userId, subscriptionId);
+    }
+
+    @GetMapping("/subscriptions/top")
+    public Mono<List<TopSubscriptionDto>> getTopSubscriptions(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Integer limit) {
+        logger.debug("Received request to get top subscriptions from: {}, to: {}, limit: {}", from, to, limit);
+        return subscriptionService.getTopSubscriptions(from, to, limit);
+    }
+}
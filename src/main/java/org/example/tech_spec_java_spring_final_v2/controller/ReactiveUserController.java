@@ -0,0 +1,74 @@
+package org.example.tech_spec_java_spring_final_v2.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.example.tech_spec_java_spring_final_v2.dto.UserBatchDto;
+import org.example.tech_spec_java_spring_final_v2.dto.UserDto;
+import org.example.tech_spec_java_spring_final_v2.service.ReactiveUserService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * {@link UserController} for the reactive profile: same mappings, statuses and error responses.
+ */
+@RestController
+@RequestMapping("/users")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+public class ReactiveUserController {
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveUserController.class);
+
+    private final ReactiveUserService userService;
+
+    @PostMapping
+    public Mono<UserDto> create(@RequestBody UserDto dto) {
+        logger.debug("Received request to create user with name: {}, email: {}", dto.name(), dto.email());
+        return userService.createUser(dto);
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<UserDto>> get(@PathVariable Long id, ServerWebExchange exchange) {
+        logger.debug("Received request to get user with id: {}", id);
+        return userService.getUserVersion(id).flatMap(version -> {
+            String eTag = ETags.of(id, version);
+            if (exchange.checkNotModified(eTag)) {
+                return Mono.empty();
+            }
+            return userService.getUser(id)
+                    .map(user -> ResponseEntity.ok().eTag(eTag).varyBy(HttpHeaders.ACCEPT).body(user));
+        });
+    }
+
+    @GetMapping(params = "ids")
+    public Mono<UserBatchDto> getAll(@RequestParam List<Long> ids) {
+        logger.debug("Received request to get {} users", ids.size());
+        return userService.getUsers(ids);
+    }
+
+    @PostMapping("/lookup")
+    public Mono<UserBatchDto> lookup(@RequestBody List<Long> ids) {
+        logger.debug("Received request to look up {} users", ids.size());
+        return userService.getUsers(ids);
+    }
+
+    @PutMapping("/{id}")
+    public Mono<UserDto> update(@PathVariable Long id, @RequestBody UserDto dto) {
+        logger.debug("Received request to update user with id: {}, new name: {}, new email: {}",
+                id, dto.name(), dto.email());
+        return userService.updateUser(id, dto);
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<Void> delete(@PathVariable Long id) {
+        logger.debug("Received request to delete user with id: {}", id);
+        return userService.deleteUser(id);
+    }
+
+}
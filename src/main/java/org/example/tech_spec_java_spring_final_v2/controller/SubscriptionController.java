@@ -2,15 +2,26 @@ package org.example.tech_spec_java_spring_final_v2.controller;
 
 import lombok.RequiredArgsConstructor;
 import org.example.tech_spec_java_spring_final_v2.dto.SubscriptionDto;
+import org.example.tech_spec_java_spring_final_v2.dto.SubscriptionPageDto;
+import org.example.tech_spec_java_spring_final_v2.dto.SubscriptionWriteDto;
+import org.example.tech_spec_java_spring_final_v2.dto.TopSubscriptionDto;
 import org.example.tech_spec_java_spring_final_v2.service.SubscriptionService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.net.URI;
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequiredArgsConstructor
 public class SubscriptionController {
 
@@ -18,40 +29,67 @@ public class SubscriptionController {
 
     private final SubscriptionService subscriptionService;
 
+    /**
+     * 201 with the subscription, or in write-behind mode 202 with a tracking id to poll
+     * {@code /subscriptions/writes/{trackingId}} for.
+     */
     @PostMapping("/users/{userId}/subscriptions")
-    @ResponseStatus(HttpStatus.CREATED)
-    public SubscriptionDto addSubscription(@PathVariable Long userId, @RequestBody SubscriptionDto dto) {
-        logger.info("Received request to add subscription for user with id: {}, service: {}", 
+    public ResponseEntity<?> addSubscription(@PathVariable Long userId, @RequestBody SubscriptionDto dto) {
+        logger.debug("Received request to add subscription for user with id: {}, service: {}", 
                 userId, dto.serviceName());
+        if (subscriptionService.isWriteBehind()) {
+            SubscriptionWriteDto write = subscriptionService.submitSubscription(userId, dto);
+            logger.debug("Subscription for user with id: {} accepted with tracking id: {}", userId, write.trackingId());
+            return ResponseEntity.accepted()
+                    .location(URI.create("/subscriptions/writes/" + write.trackingId()))
+                    .body(write);
+        }
         SubscriptionDto subscription = subscriptionService.addSubscription(userId, dto);
-        logger.info("Subscription added successfully with id: {} for user with id: {}", 
+        logger.debug("Subscription added successfully with id: {} for user with id: {}", 
                 subscription.id(), userId);
-        return subscription;
+        return ResponseEntity.status(HttpStatus.CREATED).body(subscription);
+    }
+
+    @GetMapping("/subscriptions/writes/{trackingId}")
+    public SubscriptionWriteDto getSubscriptionWrite(@PathVariable String trackingId) {
+        logger.debug("Received request to get subscription write with tracking id: {}", trackingId);
+        return subscriptionService.getSubscriptionWrite(trackingId);
     }
 
     @GetMapping("/users/{userId}/subscriptions")
-    public List<SubscriptionDto> getUserSubscriptions(@PathVariable Long userId) {
-        logger.info("Received request to get subscriptions for user with id: {}", userId);
-        List<SubscriptionDto> subscriptions = subscriptionService.getUserSubscriptions(userId);
-        logger.info("Retrieved {} subscriptions for user with id: {}", subscriptions.size(), userId);
-        return subscriptions;
+    public ResponseEntity<SubscriptionPageDto> getUserSubscriptions(@PathVariable Long userId,
+                                                                    @RequestParam(required = false) String pageToken,
+                                                                    @RequestParam(required = false) Integer limit,
+                                                                    WebRequest request) {
+        logger.debug("Received request to get subscriptions for user with id: {}", userId);
+        String eTag = ETags.of(userId, subscriptionService.getSubscriptionsVersion(userId));
+        if (request.checkNotModified(eTag)) {
+            logger.debug("Subscriptions of user with id: {} not modified", userId);
+            return null;
+        }
+        SubscriptionPageDto subscriptions = subscriptionService.getUserSubscriptions(userId, pageToken, limit);
+        logger.debug("Retrieved {} subscriptions for user with id: {}", subscriptions.items().size(), userId);
+        return ResponseEntity.ok().eTag(eTag).varyBy(HttpHeaders.ACCEPT).body(subscriptions);
     }
 
     @DeleteMapping("/users/{userId}/subscriptions/{subscriptionId}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public void deleteSubscription(@PathVariable Long userId, @PathVariable Long subscriptionId) {
-        logger.info("Received request to delete subscription with id: {} for user with id: {}", 
+        logger.debug("Received request to delete subscription with id: {} for user with id: {}", 
                 subscriptionId, userId);
         subscriptionService.deleteSubscription(userId, subscriptionId);
-        logger.info("Subscription with id: {} deleted successfully for user with id: {}", 
+        logger.debug("Subscription with id: {} deleted successfully for user with id: {}", 
                 subscriptionId, userId);
     }
 
     @GetMapping("/subscriptions/top")
-    public List<SubscriptionDto> getTopSubscriptions() {
-        logger.info("Received request to get top subscriptions");
-        List<SubscriptionDto> topSubscriptions = subscriptionService.getTopSubscriptions();
-        logger.info("Retrieved {} top subscriptions", topSubscriptions.size());
+    public List<TopSubscriptionDto> getTopSubscriptions(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Integer limit) {
+        logger.debug("Received request to get top subscriptions from: {}, to: {}, limit: {}", from, to, limit);
+        List<TopSubscriptionDto> topSubscriptions = subscriptionService.getTopSubscriptions(from, to, limit);
+        logger.debug("Retrieved {} top subscriptions", topSubscriptions.size());
         return topSubscriptions;
     }
 }
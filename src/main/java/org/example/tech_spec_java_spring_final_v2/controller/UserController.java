@@ -1,14 +1,22 @@
 package org.example.tech_spec_java_spring_final_v2.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.example.tech_spec_java_spring_final_v2.dto.UserBatchDto;
 import org.example.tech_spec_java_spring_final_v2.dto.UserDto;
 import org.example.tech_spec_java_spring_final_v2.service.UserService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.List;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/users")
 @RequiredArgsConstructor
 public class UserController {
@@ -18,34 +26,54 @@ public class UserController {
 
     @PostMapping
     public UserDto create(@RequestBody UserDto dto) {
-        logger.info("Received request to create user with name: {}, email: {}", dto.name(), dto.email());
+        logger.debug("Received request to create user with name: {}, email: {}", dto.name(), dto.email());
         UserDto createdUser = userService.createUser(dto);
-        logger.info("User created successfully with id: {}", createdUser.id());
+        logger.debug("User created successfully with id: {}", createdUser.id());
         return createdUser;
     }
 
     @GetMapping("/{id}")
-    public UserDto get(@PathVariable Long id) {
-        logger.info("Received request to get user with id: {}", id);
+    public ResponseEntity<UserDto> get(@PathVariable Long id, WebRequest request) {
+        logger.debug("Received request to get user with id: {}", id);
+        String eTag = ETags.of(id, userService.getUserVersion(id));
+        if (request.checkNotModified(eTag)) {
+            logger.debug("User with id: {} not modified", id);
+            return null;
+        }
         UserDto user = userService.getUser(id);
-        logger.info("Retrieved user with id: {}", id);
-        return user;
+        logger.debug("Retrieved user with id: {}", id);
+        return ResponseEntity.ok().eTag(eTag).varyBy(HttpHeaders.ACCEPT).body(user);
+    }
+
+    @GetMapping(params = "ids")
+    public UserBatchDto getAll(@RequestParam List<Long> ids) {
+        logger.debug("Received request to get {} users", ids.size());
+        return userService.getUsers(ids);
+    }
+
+    /**
+     * Same as {@code GET /users?ids=...} for id lists too long for a query string.
+     */
+    @PostMapping("/lookup")
+    public UserBatchDto lookup(@RequestBody List<Long> ids) {
+        logger.debug("Received request to look up {} users", ids.size());
+        return userService.getUsers(ids);
     }
 
     @PutMapping("/{id}")
     public UserDto update(@PathVariable Long id, @RequestBody UserDto dto) {
-        logger.info("Received request to update user with id: {}, new name: {}, new email: {}", 
+        logger.debug("Received request to update user with id: {}, new name: {}, new email: {}", 
                 id, dto.name(), dto.email());
         UserDto updatedUser = userService.updateUser(id, dto);
-        logger.info("User with id: {} updated successfully", id);
+        logger.debug("User with id: {} updated successfully", id);
         return updatedUser;
     }
 
     @DeleteMapping("/{id}")
     public void delete(@PathVariable Long id) {
-        logger.info("Received request to delete user with id: {}", id);
+        logger.debug("Received request to delete user with id: {}", id);
         userService.deleteUser(id);
-        logger.info("User with id: {} deleted successfully", id);
+        logger.debug("User with id: {} deleted successfully", id);
     }
 
 }
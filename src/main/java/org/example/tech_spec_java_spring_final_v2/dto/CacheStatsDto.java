@@ -0,0 +1,10 @@
+package org.example.tech_spec_java_spring_final_v2.dto;
+
+public record CacheStatsDto(
+    long size,
+    long hits,
+    long misses,
+    double hitRate,
+    long evictions
+) {
+}
@@ -0,0 +1,5 @@
+package org.example.tech_spec_java_spring_final_v2.dto;
+
+public record EmailFilterStatsDto(boolean loaded, double expectedFalsePositiveRate, long definitelyAbsent,
+                                  long maybePresent, long falsePositives, double observedFalsePositiveRate) {
+}
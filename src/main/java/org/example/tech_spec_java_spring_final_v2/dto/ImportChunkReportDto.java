@@ -0,0 +1,11 @@
+package org.example.tech_spec_java_spring_final_v2.dto;
+
+import java.util.List;
+
+public record ImportChunkReportDto(
+    int chunk,
+    int accepted,
+    int rejected,
+    List<ImportRejectionDto> rejections
+) {
+}
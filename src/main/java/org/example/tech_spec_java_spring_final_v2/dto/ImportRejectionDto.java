@@ -0,0 +1,4 @@
+package org.example.tech_spec_java_spring_final_v2.dto;
+
+public record ImportRejectionDto(long line, String reason) {
+}
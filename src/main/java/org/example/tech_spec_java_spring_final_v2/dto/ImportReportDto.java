@@ -0,0 +1,10 @@
+package org.example.tech_spec_java_spring_final_v2.dto;
+
+import java.util.List;
+
+public record ImportReportDto(
+    long accepted,
+    long rejected,
+    List<ImportChunkReportDto> chunks
+) {
+}
@@ -0,0 +1,6 @@
+package org.example.tech_spec_java_spring_final_v2.dto;
+
+import java.time.LocalDate;
+
+public record SubscriptionDailyCountDto(LocalDate startDate, String serviceName, Long count) {
+}
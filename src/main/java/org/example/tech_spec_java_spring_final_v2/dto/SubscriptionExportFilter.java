@@ -0,0 +1,10 @@
+package org.example.tech_spec_java_spring_final_v2.dto;
+
+import java.time.LocalDate;
+
+public record SubscriptionExportFilter(
+    String serviceName,
+    LocalDate from,
+    LocalDate to
+) {
+}
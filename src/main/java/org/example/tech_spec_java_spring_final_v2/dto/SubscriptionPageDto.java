@@ -0,0 +1,9 @@
+package org.example.tech_spec_java_spring_final_v2.dto;
+
+import java.util.List;
+
+public record SubscriptionPageDto(
+    List<SubscriptionDto> items,
+    String nextPageToken
+) {
+}
@@ -0,0 +1,19 @@
+package org.example.tech_spec_java_spring_final_v2.dto;
+
+/**
+ * State of a subscription accepted in write-behind mode. {@code subscription} carries its id once
+ * {@code WRITTEN}; {@code error} is set when {@code FAILED}.
+ */
+public record SubscriptionWriteDto(
+    String trackingId,
+    Status status,
+    SubscriptionDto subscription,
+    String error
+) {
+
+    public enum Status {
+        QUEUED,
+        WRITTEN,
+        FAILED
+    }
+}
@@ -0,0 +1,4 @@
+package org.example.tech_spec_java_spring_final_v2.dto;
+
+public record TopSubscriptionDto(String serviceName, Long count) {
+}
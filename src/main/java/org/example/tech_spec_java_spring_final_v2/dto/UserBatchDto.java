@@ -0,0 +1,9 @@
+package org.example.tech_spec_java_spring_final_v2.dto;
+
+import java.util.List;
+
+/**
+ * Result of a batch user lookup: found users and unknown ids, both in request order.
+ */
+public record UserBatchDto(List<UserDto> users, List<Long> missingIds) {
+}
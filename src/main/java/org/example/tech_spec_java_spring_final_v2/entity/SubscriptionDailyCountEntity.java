@@ -0,0 +1,49 @@
+package org.example.tech_spec_java_spring_final_v2.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Number of subscriptions per service and start date, so that counts over a date range are
+ * summed from one row per day and service instead of aggregated from the subscriptions table.
+ */
+@Entity
+@Table(name = "subscription_daily_counts")
+@IdClass(SubscriptionDailyCountEntity.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SubscriptionDailyCountEntity {
+
+    @Id
+    @Column(name = "start_date", nullable = false)
+    private LocalDate startDate;
+
+    @Id
+    @Column(name = "service_name", nullable = false, length = 100)
+    private String serviceName;
+
+    @Column(name = "subscription_count", nullable = false)
+    private long subscriptionCount;
+
+    @Getter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private LocalDate startDate;
+        private String serviceName;
+    }
+}
@@ -6,6 +6,9 @@ import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+import org.hibernate.annotations.PartitionKey;
 
 import java.time.LocalDate;
 
@@ -22,13 +25,22 @@ public class SubscriptionEntity {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne
-    @JoinColumn(name = "user_id", nullable = false)
+    // The partition key on PostgreSQL: updates and deletes by id also filter on it, so they touch
+    // one partition instead of probing every partition's index. Hibernate only honours the
+    // annotation on a basic attribute, hence the column is written through it, not the association.
+    @Column(name = "user_id", nullable = false)
+    @PartitionKey
+    private Long userId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false, insertable = false, updatable = false)
+    // Same as V1__create_schema.sql, so generated schemas delete a user's subscriptions with the user too
+    @OnDelete(action = OnDeleteAction.CASCADE)
     private UserEntity user;
 
     @Column(name = "service_name", nullable = false)
     private String serviceName;
 
-    @Column(name = "start_date")
+    @Column(name = "start_date", nullable = false)
     private LocalDate startDate;
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package org.example.tech_spec_java_spring_final_v2.entity;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
@@ -10,6 +11,7 @@ import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 
 @Entity
 @Table(name = "users")
@@ -24,7 +26,19 @@ public class UserEntity {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @Column(nullable = false, length = 100)
     private String name;
+
+    @Column(nullable = false, unique = true, length = 100)
     private String email;
 
+    /**
+     * Incremented by every write to the user or their subscriptions, and used as the ETag of both.
+     * Only changed by UPDATE statements, never through the entity.
+     */
+    @ColumnDefault("0")
+    @Column(nullable = false, updatable = false)
+    @Builder.Default
+    private long version = 0;
+
 }
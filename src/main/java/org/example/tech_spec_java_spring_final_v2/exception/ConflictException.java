@@ -0,0 +1,11 @@
+package org.example.tech_spec_java_spring_final_v2.exception;
+
+/**
+ * Thrown when a write conflicts with existing data, e.g. a duplicate email.
+ */
+public class ConflictException extends RuntimeException {
+
+    public ConflictException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
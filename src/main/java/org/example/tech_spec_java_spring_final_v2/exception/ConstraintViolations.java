@@ -0,0 +1,41 @@
+package org.example.tech_spec_java_spring_final_v2.exception;
+
+import io.r2dbc.spi.R2dbcException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.sql.SQLException;
+
+/**
+ * Tells which kind of constraint a {@link DataIntegrityViolationException} came from, based on
+ * the SQLSTATE reported by the JDBC or R2DBC driver (PostgreSQL codes, plus the H2 codes used in tests).
+ */
+public final class ConstraintViolations {
+
+    private static final String UNIQUE_VIOLATION = "23505";
+    private static final String FOREIGN_KEY_VIOLATION = "23503";
+    private static final String H2_REFERENTIAL_INTEGRITY_VIOLATION = "23506";
+
+    private ConstraintViolations() {
+    }
+
+    public static boolean isForeignKeyViolation(DataIntegrityViolationException ex) {
+        String sqlState = sqlState(ex);
+        return FOREIGN_KEY_VIOLATION.equals(sqlState) || H2_REFERENTIAL_INTEGRITY_VIOLATION.equals(sqlState);
+    }
+
+    public static boolean isUniqueViolation(DataIntegrityViolationException ex) {
+        return UNIQUE_VIOLATION.equals(sqlState(ex));
+    }
+
+    private static String sqlState(Throwable ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException && sqlException.getSQLState() != null) {
+                return sqlException.getSQLState();
+            }
+            if (cause instanceof R2dbcException r2dbcException && r2dbcException.getSqlState() != null) {
+                return r2dbcException.getSqlState();
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,21 @@
+package org.example.tech_spec_java_spring_final_v2.exception;
+
+import java.time.Duration;
+
+/**
+ * Thrown when a request is rejected because the server is overloaded, e.g. its database has slowed
+ * down; the client may retry after {@link #getRetryAfter()}.
+ */
+public class ServiceUnavailableException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public ServiceUnavailableException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
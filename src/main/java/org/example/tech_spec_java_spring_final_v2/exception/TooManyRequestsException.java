@@ -0,0 +1,21 @@
+package org.example.tech_spec_java_spring_final_v2.exception;
+
+import java.time.Duration;
+
+/**
+ * Thrown when a request is rejected because the server is at capacity; the client may retry
+ * after {@link #getRetryAfter()}.
+ */
+public class TooManyRequestsException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public TooManyRequestsException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,73 @@
+package org.example.tech_spec_java_spring_final_v2.repository;
+
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.example.tech_spec_java_spring_final_v2.dto.SubscriptionDto;
+import org.example.tech_spec_java_spring_final_v2.dto.UserDto;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Plain JDBC batch inserts for bulk imports and write-behind subscription writes. Hibernate cannot
+ * batch inserts of entities with IDENTITY ids, so the rows are sent as one JDBC batch per chunk; with
+ * {@code reWriteBatchedInserts=true} the PostgreSQL driver turns them into multi-row INSERTs.
+ */
+@Repository
+@Timed(value = "app.repository.invocations", histogram = true)
+@RequiredArgsConstructor
+public class BulkImportRepository {
+
+    private static final String INSERT_SUBSCRIPTION =
+            "INSERT INTO subscriptions (user_id, service_name, start_date) VALUES (?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void insertUsers(List<UserDto> users) {
+        jdbcTemplate.batchUpdate("INSERT INTO users (name, email) VALUES (?, ?)", users, users.size(),
+                (ps, user) -> {
+                    ps.setString(1, user.name());
+                    ps.setString(2, user.email());
+                });
+    }
+
+    public void insertSubscriptions(List<SubscriptionDto> subscriptions) {
+        jdbcTemplate.batchUpdate(INSERT_SUBSCRIPTION, subscriptions, subscriptions.size(),
+                (ps, subscription) -> setSubscription(ps, subscription));
+    }
+
+    /**
+     * Same batch as {@link #insertSubscriptions}, returning the generated ids in input order.
+     */
+    public List<Long> insertSubscriptionsReturningIds(List<SubscriptionDto> subscriptions) {
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(connection -> connection.prepareStatement(INSERT_SUBSCRIPTION, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        setSubscription(ps, subscriptions.get(i));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return subscriptions.size();
+                    }
+                }, keys);
+        return keys.getKeyList().stream()
+                .map(key -> ((Number) key.get("id")).longValue())
+                .toList();
+    }
+
+    private static void setSubscription(PreparedStatement ps, SubscriptionDto subscription) throws SQLException {
+        ps.setLong(1, subscription.userId());
+        ps.setString(2, subscription.serviceName());
+        ps.setDate(3, Date.valueOf(subscription.startDate()));
+    }
+}
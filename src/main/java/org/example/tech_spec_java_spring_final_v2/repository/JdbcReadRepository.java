@@ -0,0 +1,95 @@
+package org.example.tech_spec_java_spring_final_v2.repository;
+
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.example.tech_spec_java_spring_final_v2.dto.SubscriptionDto;
+import org.example.tech_spec_java_spring_final_v2.dto.TopSubscriptionDto;
+import org.example.tech_spec_java_spring_final_v2.dto.UserDto;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Read paths that map rows straight into the DTO records. Nothing goes through the persistence
+ * context: no entity instances, no dirty-checking snapshots and no association fetching, which is
+ * all wasted work for data that is only serialized into a response.
+ */
+@Repository
+@Timed(value = "app.repository.invocations", histogram = true)
+@RequiredArgsConstructor
+public class JdbcReadRepository {
+
+    private static final RowMapper<UserDto> USER = (rs, row) ->
+            new UserDto(rs.getLong("id"), rs.getString("name"), rs.getString("email"));
+
+    private static final RowMapper<SubscriptionDto> SUBSCRIPTION = (rs, row) ->
+            new SubscriptionDto(rs.getLong("id"), rs.getLong("user_id"), rs.getString("service_name"),
+                    rs.getObject("start_date", LocalDate.class));
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public Optional<UserDto> findUserById(Long id) {
+        return jdbcTemplate.query("SELECT id, name, email FROM users WHERE id = :id", Map.of("id", id), USER)
+                .stream()
+                .findFirst();
+    }
+
+    public Optional<Long> findUserVersion(Long id) {
+        return jdbcTemplate.queryForList("SELECT version FROM users WHERE id = :id", Map.of("id", id), Long.class)
+                .stream()
+                .findFirst();
+    }
+
+    public List<UserDto> findUsersByIds(Collection<Long> ids) {
+        return jdbcTemplate.query("SELECT id, name, email FROM users WHERE id IN (:ids)", Map.of("ids", ids), USER);
+    }
+
+    /**
+     * First keyset page of a user's subscriptions, ordered by {@code (start_date, id)}; served from
+     * the (user_id, start_date, id) index, which also includes service_name.
+     */
+    public List<SubscriptionDto> findFirstSubscriptionPage(Long userId, int limit) {
+        return jdbcTemplate.query("SELECT id, user_id, service_name, start_date FROM subscriptions " +
+                        "WHERE user_id = :userId ORDER BY start_date, id LIMIT :limit",
+                Map.of("userId", userId, "limit", limit), SUBSCRIPTION);
+    }
+
+    /**
+     * Keyset page after {@code (startDate, id)}. The redundant {@code start_date >= :startDate}
+     * lets the database seek directly in the (user_id, start_date, id) index.
+     */
+    public List<SubscriptionDto> findSubscriptionPageAfter(Long userId, LocalDate startDate, Long id, int limit) {
+        return jdbcTemplate.query("SELECT id, user_id, service_name, start_date FROM subscriptions " +
+                        "WHERE user_id = :userId AND start_date >= :startDate " +
+                        "AND (start_date > :startDate OR id > :id) ORDER BY start_date, id LIMIT :limit",
+                Map.of("userId", userId, "startDate", startDate, "id", id, "limit", limit), SUBSCRIPTION);
+    }
+
+    /**
+     * Passes every user email to the consumer without materializing the result. Runs in a read-only
+     * transaction so that, on PostgreSQL, the fetch size makes the driver read through a cursor.
+     */
+    @Transactional(readOnly = true)
+    public void forEachUserEmail(Consumer<String> consumer) {
+        jdbcTemplate.getJdbcOperations().query(connection -> {
+            PreparedStatement statement = connection.prepareStatement("SELECT email FROM users");
+            statement.setFetchSize(1000);
+            return statement;
+        }, (RowCallbackHandler) rs -> consumer.accept(rs.getString(1)));
+    }
+
+    public List<TopSubscriptionDto> countSubscriptionsByServiceName() {
+        return jdbcTemplate.query("SELECT service_name, COUNT(*) AS count FROM subscriptions GROUP BY service_name",
+                (rs, row) -> new TopSubscriptionDto(rs.getString("service_name"), rs.getLong("count")));
+    }
+}
@@ -0,0 +1,21 @@
+package org.example.tech_spec_java_spring_final_v2.repository;
+
+import io.r2dbc.spi.Readable;
+
+/**
+ * Column access shared by the R2DBC repositories.
+ */
+final class ReactiveRows {
+
+    private ReactiveRows() {
+    }
+
+    /**
+     * Reads any integral column as a {@code Long}: drivers decode a column only into the Java type
+     * of its SQL type (e.g. {@code SERIAL} ids into {@code Integer}, {@code SUM} into {@code BigDecimal}).
+     */
+    static Long getLong(Readable row, String column) {
+        Number value = (Number) row.get(column);
+        return value != null ? value.longValue() : null;
+    }
+}
@@ -0,0 +1,138 @@
+package org.example.tech_spec_java_spring_final_v2.repository;
+
+import io.r2dbc.spi.Parameters;
+import io.r2dbc.spi.R2dbcType;
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.example.tech_spec_java_spring_final_v2.dto.SubscriptionDailyCountDto;
+import org.example.tech_spec_java_spring_final_v2.dto.SubscriptionDto;
+import org.example.tech_spec_java_spring_final_v2.dto.TopSubscriptionDto;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+/**
+ * R2DBC counterpart of the subscription and daily rollup statements used by the blocking stack,
+ * for the reactive profile.
+ */
+@Repository
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+public class ReactiveSubscriptionRepository {
+
+    private static final String COLUMNS = "id, user_id, service_name, start_date";
+
+    private final DatabaseClient databaseClient;
+
+    public Mono<SubscriptionDto> insert(Long userId, String serviceName, LocalDate startDate) {
+        return databaseClient.sql("INSERT INTO subscriptions (user_id, service_name, start_date) " +
+                        "VALUES (:userId, :serviceName, :startDate)")
+                .bind("userId", userId)
+                .bind("serviceName", Parameters.in(R2dbcType.VARCHAR, serviceName))
+                .bind("startDate", startDate)
+                .filter(statement -> statement.returnGeneratedValues("id"))
+                .map(row -> new SubscriptionDto(ReactiveRows.getLong(row, "id"), userId, serviceName, startDate))
+                .one();
+    }
+
+    /**
+     * First keyset page of a user's subscriptions, ordered by {@code (start_date, id)}.
+     */
+    public Flux<SubscriptionDto> findFirstPage(Long userId, int limit) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM subscriptions " +
+                        "WHERE user_id = :userId ORDER BY start_date, id LIMIT :limit")
+                .bind("userId", userId)
+                .bind("limit", limit)
+                .map(ReactiveSubscriptionRepository::toDto)
+                .all();
+    }
+
+    /**
+     * Keyset page after {@code (startDate, id)}, see {@link JdbcReadRepository#findSubscriptionPageAfter}.
+     */
+    public Flux<SubscriptionDto> findPageAfter(Long userId, LocalDate startDate, Long id, int limit) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM subscriptions " +
+                        "WHERE user_id = :userId AND start_date >= :startDate " +
+                        "AND (start_date > :startDate OR id > :id) ORDER BY start_date, id LIMIT :limit")
+                .bind("userId", userId)
+                .bind("startDate", startDate)
+                .bind("id", id)
+                .bind("limit", limit)
+                .map(ReactiveSubscriptionRepository::toDto)
+                .all();
+    }
+
+    /**
+     * The subscription if it belongs to the user, see {@link SubscriptionRepository#findDeletedByIdAndUserId}.
+     */
+    public Mono<SubscriptionDto> findByIdAndUserId(Long id, Long userId) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM subscriptions WHERE id = :id AND user_id = :userId")
+                .bind("id", id)
+                .bind("userId", userId)
+                .map(ReactiveSubscriptionRepository::toDto)
+                .one();
+    }
+
+    /**
+     * Deletes the subscription only if it belongs to the user; the number of deleted rows.
+     */
+    public Mono<Long> deleteByIdAndUserId(Long id, Long userId) {
+        return databaseClient.sql("DELETE FROM subscriptions WHERE id = :id AND user_id = :userId")
+                .bind("id", id)
+                .bind("userId", userId)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Flux<SubscriptionDailyCountDto> countDailyByUserId(Long userId) {
+        return databaseClient.sql("SELECT start_date, service_name, COUNT(*) AS subscription_count " +
+                        "FROM subscriptions WHERE user_id = :userId GROUP BY start_date, service_name")
+                .bind("userId", userId)
+                .map(row -> new SubscriptionDailyCountDto(row.get("start_date", LocalDate.class),
+                        row.get("service_name", String.class), ReactiveRows.getLong(row, "subscription_count")))
+                .all();
+    }
+
+    public Mono<Long> addToDailyCount(LocalDate startDate, String serviceName, long delta) {
+        return databaseClient.sql("UPDATE subscription_daily_counts SET subscription_count = subscription_count + :delta " +
+                        "WHERE start_date = :startDate AND service_name = :serviceName")
+                .bind("delta", delta)
+                .bind("startDate", startDate)
+                .bind("serviceName", serviceName)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Mono<Long> insertDailyCount(LocalDate startDate, String serviceName, long count) {
+        return databaseClient.sql("INSERT INTO subscription_daily_counts (start_date, service_name, subscription_count) " +
+                        "VALUES (:startDate, :serviceName, :count)")
+                .bind("startDate", startDate)
+                .bind("serviceName", serviceName)
+                .bind("count", count)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    /**
+     * Top services by number of subscriptions starting within {@code [from, to]}, from the daily rollups.
+     */
+    public Flux<TopSubscriptionDto> findTop(LocalDate from, LocalDate to, int limit) {
+        return databaseClient.sql("SELECT service_name, SUM(subscription_count) AS total FROM subscription_daily_counts " +
+                        "WHERE start_date BETWEEN :from AND :to GROUP BY service_name " +
+                        "HAVING SUM(subscription_count) > 0 ORDER BY total DESC, service_name LIMIT :limit")
+                .bind("from", from)
+                .bind("to", to)
+                .bind("limit", limit)
+                .map(row -> new TopSubscriptionDto(row.get("service_name", String.class), ReactiveRows.getLong(row, "total")))
+                .all();
+    }
+
+    private static SubscriptionDto toDto(Readable row) {
+        return new SubscriptionDto(ReactiveRows.getLong(row, "id"), ReactiveRows.getLong(row, "user_id"),
+                row.get("service_name", String.class), row.get("start_date", LocalDate.class));
+    }
+}
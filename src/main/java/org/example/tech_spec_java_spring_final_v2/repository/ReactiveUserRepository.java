@@ -0,0 +1,86 @@
+package org.example.tech_spec_java_spring_final_v2.repository;
+
+import io.r2dbc.spi.Parameters;
+import io.r2dbc.spi.R2dbcType;
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.example.tech_spec_java_spring_final_v2.dto.UserDto;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+/**
+ * R2DBC counterpart of the user statements used by the blocking stack, for the reactive profile.
+ * Rows are mapped straight into {@link UserDto}, as in {@link JdbcReadRepository}.
+ */
+@Repository
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+public class ReactiveUserRepository {
+
+    private final DatabaseClient databaseClient;
+
+    public Mono<UserDto> insert(String name, String email) {
+        return databaseClient.sql("INSERT INTO users (name, email) VALUES (:name, :email)")
+                .bind("name", Parameters.in(R2dbcType.VARCHAR, name))
+                .bind("email", Parameters.in(R2dbcType.VARCHAR, email))
+                .filter(statement -> statement.returnGeneratedValues("id"))
+                .map(row -> new UserDto(ReactiveRows.getLong(row, "id"), name, email))
+                .one();
+    }
+
+    public Mono<UserDto> findById(Long id) {
+        return databaseClient.sql("SELECT id, name, email FROM users WHERE id = :id")
+                .bind("id", id)
+                .map(ReactiveUserRepository::toDto)
+                .one();
+    }
+
+    public Mono<Long> findVersion(Long id) {
+        return databaseClient.sql("SELECT version FROM users WHERE id = :id")
+                .bind("id", id)
+                .map(row -> ReactiveRows.getLong(row, "version"))
+                .one();
+    }
+
+    public Flux<UserDto> findByIds(Collection<Long> ids) {
+        return databaseClient.sql("SELECT id, name, email FROM users WHERE id IN (:ids)")
+                .bind("ids", ids)
+                .map(ReactiveUserRepository::toDto)
+                .all();
+    }
+
+    public Mono<Long> updateNameAndEmail(Long id, String name, String email) {
+        return databaseClient.sql("UPDATE users SET name = :name, email = :email, version = version + 1 WHERE id = :id")
+                .bind("id", id)
+                .bind("name", Parameters.in(R2dbcType.VARCHAR, name))
+                .bind("email", Parameters.in(R2dbcType.VARCHAR, email))
+                .fetch()
+                .rowsUpdated();
+    }
+
+    /**
+     * Marks a change of the user's subscriptions, see {@code UserEntity#getVersion()}.
+     */
+    public Mono<Long> incrementVersion(Long id) {
+        return databaseClient.sql("UPDATE users SET version = version + 1 WHERE id = :id")
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Mono<Long> deleteById(Long id) {
+        return databaseClient.sql("DELETE FROM users WHERE id = :id")
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    private static UserDto toDto(Readable row) {
+        return new UserDto(ReactiveRows.getLong(row, "id"), row.get("name", String.class), row.get("email", String.class));
+    }
+}
@@ -0,0 +1,94 @@
+package org.example.tech_spec_java_spring_final_v2.repository;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Decides which reads may go to the read replica ({@code app.datasource.replica.url}, see
+ * {@code ReplicaDataSourceConfig}). Everything runs against the primary unless wrapped in one of
+ * the {@code read} methods; those run against the replica, except:
+ * <ul>
+ *     <li>within a transaction, which stays on the connection it already uses;</li>
+ *     <li>for a user written within the read-your-writes window, so a change is visible to the next
+ *     read of that user and its subscriptions even while the replica lags behind. Writers report
+ *     every user they change through {@link #written}; the window should exceed the replica lag.</li>
+ * </ul>
+ * Without a replica every read simply runs as is.
+ */
+@Component
+public class ReplicaRouting {
+
+    private static final ThreadLocal<Boolean> REPLICA_READ = new ThreadLocal<>();
+
+    private final boolean enabled;
+    private final Cache<Long, Boolean> recentWrites;
+
+    public ReplicaRouting(@Value("${app.datasource.replica.url:}") String replicaUrl,
+                          @Value("${app.datasource.replica.read-your-writes-window:5s}") Duration window,
+                          @Value("${app.datasource.replica.max-tracked-users:100000}") long maxTrackedUsers) {
+        this.enabled = !replicaUrl.isBlank();
+        // An evicted user only loses its window early; the size bounds memory under a write burst
+        this.recentWrites = Caffeine.newBuilder()
+                .maximumSize(maxTrackedUsers)
+                .expireAfterWrite(window)
+                .build();
+    }
+
+    /**
+     * A read not tied to any user.
+     */
+    public <T> T read(Supplier<T> read) {
+        return route(false, read);
+    }
+
+    /**
+     * A read of the user or its subscriptions.
+     */
+    public <T> T read(Long userId, Supplier<T> read) {
+        return route(enabled && recentWrites.getIfPresent(userId) != null, read);
+    }
+
+    /**
+     * A read of several users, from the primary if any of them was written recently.
+     */
+    public <T> T read(Collection<Long> userIds, Supplier<T> read) {
+        return route(enabled && !recentWrites.getAllPresent(userIds).isEmpty(), read);
+    }
+
+    public void written(Long userId) {
+        writtenAll(List.of(userId));
+    }
+
+    public void writtenAll(Collection<Long> userIds) {
+        if (enabled) {
+            userIds.forEach(userId -> recentWrites.put(userId, Boolean.TRUE));
+        }
+    }
+
+    /**
+     * Whether connections obtained on the current thread should come from the replica.
+     */
+    public boolean isReplicaRead() {
+        return REPLICA_READ.get() != null;
+    }
+
+    private <T> T route(boolean primary, Supplier<T> read) {
+        if (!enabled || primary || isReplicaRead() || TransactionSynchronizationManager.isActualTransactionActive()) {
+            return read.get();
+        }
+        REPLICA_READ.set(Boolean.TRUE);
+        try {
+            return read.get();
+        } finally {
+            REPLICA_READ.remove();
+        }
+    }
+}
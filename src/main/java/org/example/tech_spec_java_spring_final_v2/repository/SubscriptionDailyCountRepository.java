@@ -0,0 +1,44 @@
+package org.example.tech_spec_java_spring_final_v2.repository;
+
+import org.example.tech_spec_java_spring_final_v2.dto.TopSubscriptionDto;
+import org.example.tech_spec_java_spring_final_v2.entity.SubscriptionDailyCountEntity;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface SubscriptionDailyCountRepository
+        extends JpaRepository<SubscriptionDailyCountEntity, SubscriptionDailyCountEntity.Key> {
+
+    /**
+     * Adds {@code delta} to an existing row. Returns the number of updated rows, i.e. 0 if there is
+     * no row for the day and service yet.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE subscription_daily_counts SET subscription_count = subscription_count + :delta " +
+            "WHERE start_date = :startDate AND service_name = :serviceName", nativeQuery = true)
+    int addToCount(@Param("startDate") LocalDate startDate, @Param("serviceName") String serviceName,
+                   @Param("delta") long delta);
+
+    /**
+     * Reads one row per day and service in the range from the primary key on (start_date, service_name).
+     */
+    @Query("SELECT new org.example.tech_spec_java_spring_final_v2.dto.TopSubscriptionDto(" +
+            "c.serviceName, SUM(c.subscriptionCount)) FROM SubscriptionDailyCountEntity c " +
+            "WHERE c.startDate BETWEEN :from AND :to GROUP BY c.serviceName " +
+            "HAVING SUM(c.subscriptionCount) > 0 " +
+            "ORDER BY SUM(c.subscriptionCount) DESC, c.serviceName")
+    List<TopSubscriptionDto> findTop(@Param("from") LocalDate from, @Param("to") LocalDate to, Limit limit);
+
+    @Modifying
+    @Query(value = "INSERT INTO subscription_daily_counts (start_date, service_name, subscription_count) " +
+            "SELECT start_date, service_name, COUNT(*) FROM subscriptions GROUP BY start_date, service_name",
+            nativeQuery = true)
+    int insertFromSubscriptions();
+}
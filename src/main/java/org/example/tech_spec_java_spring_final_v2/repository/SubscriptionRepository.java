@@ -1,17 +1,70 @@
 package org.example.tech_spec_java_spring_final_v2.repository;
 
+import jakarta.persistence.QueryHint;
+import org.example.tech_spec_java_spring_final_v2.dto.SubscriptionDailyCountDto;
+import org.example.tech_spec_java_spring_final_v2.dto.SubscriptionDto;
 import org.example.tech_spec_java_spring_final_v2.entity.SubscriptionEntity;
-import org.example.tech_spec_java_spring_final_v2.entity.UserEntity;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface SubscriptionRepository extends JpaRepository<SubscriptionEntity, Long> {
-    
-    List<SubscriptionEntity> findByUser(UserEntity user);
-    
-    @Query(value = "SELECT s.service_name, COUNT(*) as count FROM subscriptions s " +
-            "GROUP BY s.service_name ORDER BY count DESC LIMIT 3", nativeQuery = true)
-    List<Object[]> findTop3PopularSubscriptions();
-}
\ No newline at end of file
+
+    /**
+     * Service name and start date of the subscription if it belongs to the user, for the bookkeeping
+     * of a delete. Both never change, so they need no lock; {@link #deleteByIdAndUserId} decides.
+     */
+    @Query("SELECT s.serviceName AS serviceName, s.startDate AS startDate FROM SubscriptionEntity s " +
+            "WHERE s.id = :id AND s.userId = :userId")
+    Optional<DeletedSubscription> findDeletedByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
+
+    /**
+     * Deletes the subscription only if it belongs to the user, in a single statement.
+     * Returns the number of deleted rows: 0 if nothing matched, including a concurrent delete.
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM SubscriptionEntity s WHERE s.id = :id AND s.userId = :userId")
+    int deleteByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
+
+    /**
+     * Per-day counts of the user's subscriptions, served from the (user_id, start_date, id) index.
+     */
+    @Query("SELECT new org.example.tech_spec_java_spring_final_v2.dto.SubscriptionDailyCountDto(" +
+            "s.startDate, s.serviceName, COUNT(s)) FROM SubscriptionEntity s WHERE s.userId = :userId " +
+            "GROUP BY s.startDate, s.serviceName")
+    List<SubscriptionDailyCountDto> countDailyByUserId(@Param("userId") Long userId);
+
+    /**
+     * Streams matching subscriptions as unmanaged DTOs, so the persistence context does not
+     * grow with the result. Must be consumed inside a transaction; on PostgreSQL the fetch
+     * size makes the driver read the result through a server-side cursor. The order follows the
+     * (user_id, id) primary key, so the partitioned table is merged from the per-partition key
+     * indexes instead of being sorted as a whole before the first row.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new org.example.tech_spec_java_spring_final_v2.dto.SubscriptionDto(" +
+            "s.id, s.userId, s.serviceName, s.startDate) FROM SubscriptionEntity s " +
+            "WHERE (:serviceName IS NULL OR s.serviceName = :serviceName) " +
+            "AND (:from IS NULL OR s.startDate >= :from) " +
+            "AND (:to IS NULL OR s.startDate <= :to) " +
+            "ORDER BY s.userId, s.id")
+    Stream<SubscriptionDto> streamForExport(@Param("serviceName") String serviceName,
+                                            @Param("from") LocalDate from,
+                                            @Param("to") LocalDate to);
+
+    interface DeletedSubscription {
+        String getServiceName();
+
+        LocalDate getStartDate();
+    }
+}
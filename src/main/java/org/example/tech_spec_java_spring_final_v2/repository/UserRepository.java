@@ -2,9 +2,38 @@ package org.example.tech_spec_java_spring_final_v2.repository;
 
 import org.example.tech_spec_java_spring_final_v2.entity.UserEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<UserEntity, Long> {
     Optional<UserEntity> findByEmail(String email);
+
+    /**
+     * Updates name and email without reading the row first. Returns the number of updated rows,
+     * i.e. 0 if the user does not exist.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE UserEntity u SET u.name = :name, u.email = :email, u.version = u.version + 1 WHERE u.id = :id")
+    int updateNameAndEmail(@Param("id") Long id, @Param("name") String name, @Param("email") String email);
+
+    /**
+     * Marks a change of the users' subscriptions, see {@link UserEntity#getVersion()}.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE UserEntity u SET u.version = u.version + 1 WHERE u.id IN :ids")
+    int incrementVersions(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT u.email FROM UserEntity u WHERE u.email IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    @Query("SELECT u.email, u.id FROM UserEntity u WHERE u.email IN :emails")
+    List<Object[]> findIdsByEmails(@Param("emails") Collection<String> emails);
 }
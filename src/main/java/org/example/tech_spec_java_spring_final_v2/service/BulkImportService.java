@@ -0,0 +1,12 @@
+package org.example.tech_spec_java_spring_final_v2.service;
+
+import org.example.tech_spec_java_spring_final_v2.dto.ImportReportDto;
+
+import java.io.InputStream;
+
+public interface BulkImportService {
+
+    ImportReportDto importUsers(InputStream input, DataFormat format);
+
+    ImportReportDto importSubscriptions(InputStream input, DataFormat format);
+}
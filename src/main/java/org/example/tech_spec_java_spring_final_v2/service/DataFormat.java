@@ -0,0 +1,51 @@
+package org.example.tech_spec_java_spring_final_v2.service;
+
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.List;
+
+public enum DataFormat {
+
+    CSV(new MediaType("text", "csv")),
+    NDJSON(MediaType.APPLICATION_NDJSON);
+
+    private final MediaType mediaType;
+
+    DataFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    public static DataFormat fromContentType(String contentType) {
+        MediaType requested = MediaType.parseMediaType(contentType);
+        for (DataFormat format : values()) {
+            if (format.mediaType.isCompatibleWith(requested)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported data format: " + contentType);
+    }
+
+    /**
+     * Picks the first format acceptable for the given Accept header, NDJSON if any format will do.
+     */
+    public static DataFormat fromAccept(String accept) {
+        List<MediaType> acceptable = MediaType.parseMediaTypes(accept);
+        MimeTypeUtils.sortBySpecificity(acceptable);
+        for (MediaType mediaType : acceptable) {
+            if (mediaType.isWildcardType()) {
+                return NDJSON;
+            }
+            for (DataFormat format : values()) {
+                if (mediaType.includes(format.mediaType)) {
+                    return format;
+                }
+            }
+        }
+        throw new IllegalArgumentException("Unsupported data format: " + accept);
+    }
+}
@@ -0,0 +1,32 @@
+package org.example.tech_spec_java_spring_final_v2.service;
+
+import org.example.tech_spec_java_spring_final_v2.dto.SubscriptionDto;
+import org.example.tech_spec_java_spring_final_v2.dto.SubscriptionPageDto;
+import org.example.tech_spec_java_spring_final_v2.dto.TopSubscriptionDto;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Non-blocking counterpart of {@link SubscriptionService} for the reactive profile; errors are
+ * signalled with the same exceptions.
+ */
+public interface ReactiveSubscriptionService {
+
+    Mono<SubscriptionDto> addSubscription(Long userId, SubscriptionDto dto);
+
+    Mono<SubscriptionPageDto> getUserSubscriptions(Long userId, String pageToken, Integer limit);
+
+    /**
+     * See {@link UserService#getUserVersion(Long)}.
+     */
+    Mono<Long> getSubscriptionsVersion(Long userId);
+
+    Mono<Void> deleteSubscription(Long userId, Long subscriptionId);
+
+    /**
+     * See {@link SubscriptionService#getTopSubscriptions(LocalDate, LocalDate, Integer)}.
+     */
+    Mono<List<TopSubscriptionDto>> getTopSubscriptions(LocalDate from, LocalDate to, Integer limit);
+}
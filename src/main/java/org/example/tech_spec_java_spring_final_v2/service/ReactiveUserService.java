@@ -0,0 +1,26 @@
+package org.example.tech_spec_java_spring_final_v2.service;
+
+import org.example.tech_spec_java_spring_final_v2.dto.UserBatchDto;
+import org.example.tech_spec_java_spring_final_v2.dto.UserDto;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Non-blocking counterpart of {@link UserService} for the reactive profile; errors are signalled
+ * with the same exceptions.
+ */
+public interface ReactiveUserService {
+
+    Mono<UserDto> createUser(UserDto dto);
+    Mono<UserDto> getUser(Long id);
+    Mono<UserBatchDto> getUsers(List<Long> ids);
+    Mono<UserDto> updateUser(Long id, UserDto dto);
+    Mono<Void> deleteUser(Long id);
+
+    /**
+     * See {@link UserService#getUserVersion(Long)}.
+     */
+    Mono<Long> getUserVersion(Long id);
+
+}
@@ -0,0 +1,10 @@
+package org.example.tech_spec_java_spring_final_v2.service;
+
+import org.example.tech_spec_java_spring_final_v2.dto.SubscriptionExportFilter;
+
+import java.io.OutputStream;
+
+public interface SubscriptionExportService {
+
+    long exportSubscriptions(SubscriptionExportFilter filter, DataFormat format, OutputStream output);
+}
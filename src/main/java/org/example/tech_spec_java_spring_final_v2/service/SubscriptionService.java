@@ -1,16 +1,42 @@
 package org.example.tech_spec_java_spring_final_v2.service;
 
 import org.example.tech_spec_java_spring_final_v2.dto.SubscriptionDto;
+import org.example.tech_spec_java_spring_final_v2.dto.SubscriptionPageDto;
+import org.example.tech_spec_java_spring_final_v2.dto.SubscriptionWriteDto;
+import org.example.tech_spec_java_spring_final_v2.dto.TopSubscriptionDto;
 
+import java.time.LocalDate;
 import java.util.List;
 
 public interface SubscriptionService {
 
     SubscriptionDto addSubscription(Long userId, SubscriptionDto dto);
+
+    /**
+     * Whether subscriptions are added through {@link #submitSubscription} rather than
+     * {@link #addSubscription}.
+     */
+    boolean isWriteBehind();
+
+    /**
+     * Validates the subscription and queues it for a batched write, see {@link #getSubscriptionWrite}.
+     */
+    SubscriptionWriteDto submitSubscription(Long userId, SubscriptionDto dto);
+
+    SubscriptionWriteDto getSubscriptionWrite(String trackingId);
     
-    List<SubscriptionDto> getUserSubscriptions(Long userId);
+    SubscriptionPageDto getUserSubscriptions(Long userId, String pageToken, Integer limit);
+
+    /**
+     * See {@link UserService#getUserVersion(Long)}.
+     */
+    long getSubscriptionsVersion(Long userId);
     
     void deleteSubscription(Long userId, Long subscriptionId);
     
-    List<SubscriptionDto> getTopSubscriptions();
+    /**
+     * Top services by number of subscriptions. Without {@code from} and {@code to} all subscriptions are
+     * counted, otherwise those starting within the range (both inclusive, {@code to} defaults to today).
+     */
+    List<TopSubscriptionDto> getTopSubscriptions(LocalDate from, LocalDate to, Integer limit);
 }
\ No newline at end of file
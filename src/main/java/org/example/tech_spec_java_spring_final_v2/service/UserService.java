@@ -1,12 +1,21 @@
 package org.example.tech_spec_java_spring_final_v2.service;
 
+import org.example.tech_spec_java_spring_final_v2.dto.UserBatchDto;
 import org.example.tech_spec_java_spring_final_v2.dto.UserDto;
 
+import java.util.List;
+
 public interface UserService {
 
     UserDto createUser(UserDto dto);
     UserDto getUser(Long id);
+    UserBatchDto getUsers(List<Long> ids);
     UserDto updateUser(Long id, UserDto dto);
     void deleteUser(Long id);
 
+    /**
+     * Version of the user and their subscriptions; changes with every write to either.
+     */
+    long getUserVersion(Long id);
+
 }
@@ -0,0 +1,353 @@
+package org.example.tech_spec_java_spring_final_v2.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.tech_spec_java_spring_final_v2.cache.CacheInvalidationBus;
+import org.example.tech_spec_java_spring_final_v2.cache.UserCache;
+import org.example.tech_spec_java_spring_final_v2.cache.UserEmailFilter;
+import org.example.tech_spec_java_spring_final_v2.cache.UserVersionCache;
+import org.example.tech_spec_java_spring_final_v2.dto.ImportChunkReportDto;
+import org.example.tech_spec_java_spring_final_v2.dto.ImportRejectionDto;
+import org.example.tech_spec_java_spring_final_v2.dto.ImportReportDto;
+import org.example.tech_spec_java_spring_final_v2.dto.SubscriptionDto;
+import org.example.tech_spec_java_spring_final_v2.dto.UserDto;
+import org.example.tech_spec_java_spring_final_v2.exception.ConstraintViolations;
+import org.example.tech_spec_java_spring_final_v2.repository.BulkImportRepository;
+import org.example.tech_spec_java_spring_final_v2.repository.ReplicaRouting;
+import org.example.tech_spec_java_spring_final_v2.repository.UserRepository;
+import org.example.tech_spec_java_spring_final_v2.service.BulkImportService;
+import org.example.tech_spec_java_spring_final_v2.service.DataFormat;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+@Service
+public class BulkImportServiceImpl implements BulkImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkImportServiceImpl.class);
+
+    private static final int MAX_REJECTIONS_PER_CHUNK = 100;
+
+    private final UserRepository userRepository;
+    private final BulkImportRepository bulkImportRepository;
+    private final SubscriptionPopularityIndex popularityIndex;
+    private final SubscriptionDailyCounts dailyCounts;
+    private final UserCache userCache;
+    private final UserEmailFilter emailFilter;
+    private final UserVersionCache versionCache;
+    private final ReplicaRouting replicaRouting;
+    private final CacheInvalidationBus invalidationBus;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public BulkImportServiceImpl(UserRepository userRepository,
+                                 BulkImportRepository bulkImportRepository,
+                                 SubscriptionPopularityIndex popularityIndex,
+                                 SubscriptionDailyCounts dailyCounts,
+                                 UserCache userCache,
+                                 UserEmailFilter emailFilter,
+                                 UserVersionCache versionCache,
+                                 ReplicaRouting replicaRouting,
+                                 CacheInvalidationBus invalidationBus,
+                                 ObjectMapper objectMapper,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${app.import.chunk-size:1000}") int chunkSize) {
+        this.userRepository = userRepository;
+        this.bulkImportRepository = bulkImportRepository;
+        this.popularityIndex = popularityIndex;
+        this.dailyCounts = dailyCounts;
+        this.userCache = userCache;
+        this.emailFilter = emailFilter;
+        this.versionCache = versionCache;
+        this.replicaRouting = replicaRouting;
+        this.invalidationBus = invalidationBus;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public ImportReportDto importUsers(InputStream input, DataFormat format) {
+        logger.info("Importing users from {} input", format);
+
+        // Emails of earlier chunks are committed by then, so the lookup of each chunk rejects them
+        ImportReportDto report = importChunks(input, format, this::importUserChunk);
+
+        logger.info("User import finished: {} accepted, {} rejected", report.accepted(), report.rejected());
+        return report;
+    }
+
+    @Override
+    public ImportReportDto importSubscriptions(InputStream input, DataFormat format) {
+        logger.info("Importing subscriptions from {} input", format);
+
+        ImportReportDto report = importChunks(input, format, this::importSubscriptionChunk);
+
+        logger.info("Subscription import finished: {} accepted, {} rejected", report.accepted(), report.rejected());
+        return report;
+    }
+
+    private ImportReportDto importChunks(InputStream input, DataFormat format, ChunkImporter importer) {
+        List<ImportChunkReportDto> chunks = new ArrayList<>();
+        long accepted = 0;
+        long rejected = 0;
+
+        try (ImportRowReader reader = new ImportRowReader(input, format, objectMapper)) {
+            List<ImportRowReader.Row> rows = readChunk(reader);
+            while (!rows.isEmpty()) {
+                ImportChunkReportDto chunk = importer.importChunk(chunks.size() + 1, rows);
+                logger.debug("Imported chunk {}: {} accepted, {} rejected",
+                        chunk.chunk(), chunk.accepted(), chunk.rejected());
+                chunks.add(chunk);
+                accepted += chunk.accepted();
+                rejected += chunk.rejected();
+                rows = readChunk(reader);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read import data", e);
+        }
+
+        return new ImportReportDto(accepted, rejected, chunks);
+    }
+
+    private List<ImportRowReader.Row> readChunk(ImportRowReader reader) {
+        List<ImportRowReader.Row> rows = new ArrayList<>(chunkSize);
+        ImportRowReader.Row row;
+        while (rows.size() < chunkSize && (row = reader.next()) != null) {
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private ImportChunkReportDto importUserChunk(int number, List<ImportRowReader.Row> rows) {
+        Rejections rejections = new Rejections();
+        Map<String, UserDto> candidates = new LinkedHashMap<>();
+        Map<String, Long> lines = new HashMap<>();
+
+        for (ImportRowReader.Row row : rows) {
+            if (row.error() != null) {
+                rejections.add(row.line(), row.error());
+                continue;
+            }
+            String name = trimToNull(row.fields().get("name"));
+            String email = trimToNull(row.fields().get("email"));
+            if (name == null || email == null) {
+                rejections.add(row.line(), "name and email are required");
+            } else if (candidates.containsKey(email)) {
+                rejections.add(row.line(), "duplicate email " + email + " in import");
+            } else {
+                candidates.put(email, new UserDto(null, name, email));
+                lines.put(email, row.line());
+            }
+        }
+
+        // Emails the filter rules out cannot exist, so only the rest is looked up
+        List<String> maybeExisting = emailFilter.filterMaybePresent(candidates.keySet());
+        int existing = rejectExisting(maybeExisting, candidates, lines, rejections);
+        emailFilter.recordFalsePositives(maybeExisting.size() - existing);
+
+        List<UserDto> users = List.copyOf(candidates.values());
+        if (!insertUsers(users, number)) {
+            // Emails written outside of the service are missing from the filter until its next rebuild,
+            // and a concurrent import may have taken one since the lookup
+            List<UserDto> chunk = users;
+            users = insertOneByOne(chunk, user -> bulkImportRepository.insertUsers(List.of(user)), (i, e) -> {
+                String email = chunk.get(i).email();
+                rejections.add(lines.get(email), e instanceof DataIntegrityViolationException violation
+                        && ConstraintViolations.isUniqueViolation(violation)
+                        ? "user with email " + email + " already exists" : "insert failed");
+            });
+        }
+        if (!users.isEmpty()) {
+            // The new ids are not known here, so any cached "not found" may now be stale
+            userCache.invalidateMissing();
+            invalidationBus.publishUsersCreated();
+            for (UserDto user : users) {
+                emailFilter.add(user.email());
+            }
+        }
+        return rejections.report(number, users.size());
+    }
+
+    private ImportChunkReportDto importSubscriptionChunk(int number, List<ImportRowReader.Row> rows) {
+        Rejections rejections = new Rejections();
+        List<PendingSubscription> pending = new ArrayList<>();
+
+        for (ImportRowReader.Row row : rows) {
+            if (row.error() != null) {
+                rejections.add(row.line(), row.error());
+                continue;
+            }
+            String userEmail = trimToNull(row.fields().get("userEmail"));
+            String serviceName = trimToNull(row.fields().get("serviceName"));
+            String startDate = trimToNull(row.fields().get("startDate"));
+            if (userEmail == null || serviceName == null) {
+                rejections.add(row.line(), "userEmail and serviceName are required");
+                continue;
+            }
+            try {
+                pending.add(new PendingSubscription(row.line(), userEmail, serviceName,
+                        startDate != null ? LocalDate.parse(startDate) : LocalDate.now()));
+            } catch (DateTimeParseException e) {
+                rejections.add(row.line(), "invalid startDate " + startDate);
+            }
+        }
+
+        Map<String, Long> userIds = new HashMap<>();
+        if (!pending.isEmpty()) {
+            Set<String> emails = new HashSet<>();
+            pending.forEach(subscription -> emails.add(subscription.userEmail()));
+            for (Object[] result : userRepository.findIdsByEmails(emails)) {
+                userIds.put((String) result[0], ((Number) result[1]).longValue());
+            }
+        }
+
+        List<SubscriptionDto> resolved = new ArrayList<>(pending.size());
+        List<PendingSubscription> resolvedRows = new ArrayList<>(pending.size());
+        for (PendingSubscription subscription : pending) {
+            Long userId = userIds.get(subscription.userEmail());
+            if (userId == null) {
+                rejections.add(subscription.line(), "user with email " + subscription.userEmail() + " not found");
+            } else {
+                resolved.add(new SubscriptionDto(null, userId, subscription.serviceName(), subscription.startDate()));
+                resolvedRows.add(subscription);
+            }
+        }
+
+        // One rollup adjustment per day and service rather than per row, in the transaction of the chunk
+        Map<DailyKey, Long> daily = new HashMap<>();
+        for (SubscriptionDto subscription : resolved) {
+            daily.merge(new DailyKey(subscription.startDate(), subscription.serviceName()), 1L, Long::sum);
+        }
+        List<SubscriptionDto> subscriptions = resolved;
+        if (!resolved.isEmpty() && !insert(() -> {
+            bulkImportRepository.insertSubscriptions(resolved);
+            daily.forEach((key, count) -> dailyCounts.add(key.startDate(), key.serviceName(), count));
+        }, number)) {
+            // A user deleted since the lookup fails the whole batch
+            subscriptions = insertOneByOne(resolved, subscription -> {
+                bulkImportRepository.insertSubscriptions(List.of(subscription));
+                dailyCounts.increment(subscription.startDate(), subscription.serviceName());
+            }, (i, e) -> {
+                PendingSubscription row = resolvedRows.get(i);
+                rejections.add(row.line(), e instanceof DataIntegrityViolationException violation
+                        && ConstraintViolations.isForeignKeyViolation(violation)
+                        ? "user with email " + row.userEmail() + " not found" : "insert failed");
+            });
+        }
+        subscriptions.forEach(subscription -> popularityIndex.increment(subscription.serviceName()));
+        Set<Long> changedUsers = new HashSet<>();
+        subscriptions.forEach(subscription -> changedUsers.add(subscription.userId()));
+        userRepository.incrementVersions(changedUsers);
+        replicaRouting.writtenAll(changedUsers);
+        versionCache.invalidateAll(changedUsers);
+        invalidationBus.publishAll(changedUsers);
+        return rejections.report(number, subscriptions.size());
+    }
+
+    private int rejectExisting(List<String> emails, Map<String, UserDto> candidates, Map<String, Long> lines,
+                               Rejections rejections) {
+        if (emails.isEmpty()) {
+            return 0;
+        }
+        List<String> existing = userRepository.findExistingEmails(emails);
+        for (String email : existing) {
+            candidates.remove(email);
+            rejections.add(lines.get(email), "user with email " + email + " already exists");
+        }
+        return existing.size();
+    }
+
+    private boolean insertUsers(List<UserDto> users, int chunk) {
+        return users.isEmpty() || insert(() -> bulkImportRepository.insertUsers(users), chunk);
+    }
+
+    private boolean insert(Runnable batch, int chunk) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> batch.run());
+            return true;
+        } catch (DataAccessException e) {
+            logger.warn("Failed to insert import chunk {}, inserting its rows one by one: {}", chunk, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Inserts the rows of a failed chunk in a transaction each, so only the offending rows are rejected.
+     * Returns the inserted rows.
+     */
+    private <T> List<T> insertOneByOne(List<T> rows, Consumer<T> insert, BiConsumer<Integer, DataAccessException> reject) {
+        List<T> inserted = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            T row = rows.get(i);
+            try {
+                transactionTemplate.executeWithoutResult(status -> insert.accept(row));
+                inserted.add(row);
+            } catch (DataAccessException e) {
+                logger.debug("Rejected import row: {}", e.getMessage());
+                reject.accept(i, e);
+            }
+        }
+        return inserted;
+    }
+
+    private static String trimToNull(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        return value.trim();
+    }
+
+    @FunctionalInterface
+    private interface ChunkImporter {
+        ImportChunkReportDto importChunk(int number, List<ImportRowReader.Row> rows);
+    }
+
+    private record PendingSubscription(long line, String userEmail, String serviceName, LocalDate startDate) {
+    }
+
+    private record DailyKey(LocalDate startDate, String serviceName) {
+    }
+
+    /**
+     * Collects rejected rows of a chunk; the count is exact, the details are capped.
+     */
+    private static final class Rejections {
+
+        private final List<ImportRejectionDto> details = new ArrayList<>();
+        private int count;
+
+        void add(long line, String reason) {
+            count++;
+            if (details.size() < MAX_REJECTIONS_PER_CHUNK) {
+                details.add(new ImportRejectionDto(line, reason));
+            }
+        }
+
+        ImportChunkReportDto report(int chunk, int accepted) {
+            details.sort(Comparator.comparingLong(ImportRejectionDto::line));
+            return new ImportChunkReportDto(chunk, accepted, count, List.copyOf(details));
+        }
+    }
+}
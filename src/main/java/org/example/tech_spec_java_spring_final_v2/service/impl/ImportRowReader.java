@@ -0,0 +1,133 @@
+package org.example.tech_spec_java_spring_final_v2.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.tech_spec_java_spring_final_v2.service.DataFormat;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads CSV (with a header line) or NDJSON records one line at a time, so an import
+ * never holds more than the current chunk in memory.
+ */
+class ImportRowReader implements AutoCloseable {
+
+    private static final TypeReference<Map<String, Object>> JSON_OBJECT = new TypeReference<>() {
+    };
+
+    record Row(long line, Map<String, String> fields, String error) {
+    }
+
+    private final BufferedReader reader;
+    private final DataFormat format;
+    private final ObjectMapper objectMapper;
+
+    private List<String> header;
+    private long line;
+
+    ImportRowReader(InputStream input, DataFormat format, ObjectMapper objectMapper) {
+        this.reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        this.format = format;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Returns the next non-blank record or {@code null} at the end of the input.
+     */
+    Row next() {
+        String text = readLine();
+        while (text != null && text.isBlank()) {
+            text = readLine();
+        }
+        if (text == null) {
+            return null;
+        }
+
+        if (format == DataFormat.NDJSON) {
+            return parseJson(text);
+        }
+        if (header == null) {
+            header = splitCsv(text).stream().map(String::trim).toList();
+            return next();
+        }
+        return parseCsv(text);
+    }
+
+    private Row parseJson(String text) {
+        try {
+            Map<String, String> fields = new HashMap<>();
+            objectMapper.readValue(text, JSON_OBJECT).forEach((key, value) ->
+                    fields.put(key, value != null ? value.toString() : null));
+            return new Row(line, fields, null);
+        } catch (JsonProcessingException e) {
+            return new Row(line, Map.of(), "malformed JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    private Row parseCsv(String text) {
+        List<String> values = splitCsv(text);
+        if (values.size() != header.size()) {
+            return new Row(line, Map.of(), "expected " + header.size() + " columns but got " + values.size());
+        }
+        Map<String, String> fields = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            fields.put(header.get(i), values.get(i));
+        }
+        return new Row(line, fields, null);
+    }
+
+    private String readLine() {
+        try {
+            String text = reader.readLine();
+            if (text != null) {
+                line++;
+            }
+            return text;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read import data", e);
+        }
+    }
+
+    static List<String> splitCsv(String text) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString());
+        return values;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,91 @@
+package org.example.tech_spec_java_spring_final_v2.service.impl;
+
+import org.example.tech_spec_java_spring_final_v2.dto.SubscriptionDailyCountDto;
+import org.example.tech_spec_java_spring_final_v2.dto.TopSubscriptionDto;
+import io.r2dbc.spi.ConnectionFactory;
+import org.example.tech_spec_java_spring_final_v2.repository.ReactiveSubscriptionRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+/**
+ * Adjusts and reads the daily rollups of {@link SubscriptionDailyCounts} over R2DBC. Creating the
+ * rollups and reconciling them stays with {@link SubscriptionDailyCounts}, which runs in the reactive
+ * profile as well; writes and their adjustments share a transaction for the same reason as there.
+ * The transaction manager is not a bean, so {@code @Transactional} on the JPA side stays unambiguous.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveSubscriptionDailyCounts {
+
+    private final ReactiveSubscriptionRepository repository;
+    private final TransactionalOperator transactionalOperator;
+    private final TransactionalOperator savepointOperator;
+    private final int defaultLimit;
+
+    public ReactiveSubscriptionDailyCounts(ReactiveSubscriptionRepository repository,
+                                           ConnectionFactory connectionFactory,
+                                           @Value("${app.subscriptions.top.limit:3}") int defaultLimit) {
+        R2dbcTransactionManager transactionManager = new R2dbcTransactionManager(connectionFactory);
+        this.repository = repository;
+        this.transactionalOperator = TransactionalOperator.create(transactionManager);
+        this.savepointOperator = TransactionalOperator.create(transactionManager,
+                new DefaultTransactionDefinition(TransactionDefinition.PROPAGATION_NESTED));
+        this.defaultLimit = defaultLimit;
+    }
+
+    /**
+     * Runs a subscription write and the adjustments it calls for in one transaction, see
+     * {@link SubscriptionDailyCounts#inWriteTransaction}.
+     */
+    public <T> Mono<T> inWriteTransaction(Mono<T> write) {
+        return transactionalOperator.transactional(write);
+    }
+
+    public Mono<Void> increment(LocalDate startDate, String serviceName) {
+        return add(startDate, serviceName, 1);
+    }
+
+    public Mono<Void> decrement(LocalDate startDate, String serviceName) {
+        return add(startDate, serviceName, -1);
+    }
+
+    public Mono<Void> decrementAll(Collection<SubscriptionDailyCountDto> counts) {
+        return Flux.fromIterable(counts)
+                .concatMap(count -> add(count.startDate(), count.serviceName(), -count.count()))
+                .then();
+    }
+
+    public Mono<Void> add(LocalDate startDate, String serviceName, long delta) {
+        return repository.addToDailyCount(startDate, serviceName, delta)
+                .flatMap(updated -> {
+                    // A missing row for a decrement can only mean drift; reconciliation repairs it
+                    if (updated > 0 || delta < 0) {
+                        return Mono.<Long>empty();
+                    }
+                    // At a savepoint, so losing the race for the row does not abort the write's transaction
+                    return savepointOperator.transactional(repository.insertDailyCount(startDate, serviceName, delta))
+                            // Another writer inserted the row in the meantime
+                            .onErrorResume(DataIntegrityViolationException.class,
+                                    e -> repository.addToDailyCount(startDate, serviceName, delta));
+                })
+                .then();
+    }
+
+    /**
+     * Top services by number of subscriptions starting within {@code [from, to]}, both inclusive.
+     */
+    public Flux<TopSubscriptionDto> getTop(LocalDate from, LocalDate to, Integer limit) {
+        return repository.findTop(from, to, limit != null ? limit : defaultLimit);
+    }
+}
@@ -0,0 +1,148 @@
+package org.example.tech_spec_java_spring_final_v2.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.example.tech_spec_java_spring_final_v2.dto.SubscriptionDto;
+import org.example.tech_spec_java_spring_final_v2.dto.SubscriptionPageDto;
+import org.example.tech_spec_java_spring_final_v2.dto.TopSubscriptionDto;
+import org.example.tech_spec_java_spring_final_v2.exception.ConstraintViolations;
+import org.example.tech_spec_java_spring_final_v2.repository.ReactiveSubscriptionRepository;
+import org.example.tech_spec_java_spring_final_v2.repository.ReactiveUserRepository;
+import org.example.tech_spec_java_spring_final_v2.service.ReactiveSubscriptionService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Same statements, validation and error mapping as {@link SubscriptionServiceImpl}, over R2DBC.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+public class ReactiveSubscriptionServiceImpl implements ReactiveSubscriptionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveSubscriptionServiceImpl.class);
+
+    private final ReactiveSubscriptionRepository subscriptionRepository;
+    private final ReactiveUserRepository userRepository;
+    private final SubscriptionPopularityIndex popularityIndex;
+    private final ReactiveSubscriptionDailyCounts dailyCounts;
+
+    @Override
+    public Mono<SubscriptionDto> addSubscription(Long userId, SubscriptionDto dto) {
+        logger.debug("Adding subscription for user with id: {}, service: {}", userId, dto.serviceName());
+
+        LocalDate startDate = dto.startDate() != null ? dto.startDate() : LocalDate.now();
+        // No lookup: the foreign key on subscriptions.user_id decides whether the user exists
+        return dailyCounts.inWriteTransaction(subscriptionRepository.insert(userId, dto.serviceName(), startDate)
+                        .flatMap(subscription -> dailyCounts.increment(subscription.startDate(), subscription.serviceName())
+                                .thenReturn(subscription)))
+                .onErrorMap(e -> e instanceof DataIntegrityViolationException violation
+                        && ConstraintViolations.isForeignKeyViolation(violation), e -> {
+                    logger.error("User with id {} not found", userId);
+                    return new RuntimeException("User with id " + userId + " not found");
+                })
+                .flatMap(subscription -> {
+                    popularityIndex.increment(subscription.serviceName());
+                    logger.debug("Subscription added successfully with id: {}", subscription.id());
+                    return userRepository.incrementVersion(userId)
+                            .thenReturn(subscription);
+                });
+    }
+
+    @Override
+    public Mono<SubscriptionPageDto> getUserSubscriptions(Long userId, String pageToken, Integer limit) {
+        logger.debug("Getting subscriptions for user with id: {}, page token: {}, limit: {}", userId, pageToken, limit);
+
+        return Mono.defer(() -> {
+            int pageSize = SubscriptionServiceImpl.pageSize(limit);
+            // One extra row tells whether another page follows without a separate count query
+            Flux<SubscriptionDto> items;
+            if (pageToken == null) {
+                items = subscriptionRepository.findFirstPage(userId, pageSize + 1);
+            } else {
+                PageToken after = PageToken.decode(pageToken);
+                items = subscriptionRepository.findPageAfter(userId, after.startDate(), after.id(), pageSize + 1);
+            }
+            return items.collectList().flatMap(page -> {
+                if (!page.isEmpty()) {
+                    return Mono.just(toPage(page, pageSize));
+                }
+                // An empty page is the only case where the user may not exist at all
+                return userRepository.findById(userId)
+                        .map(user -> new SubscriptionPageDto(page, null))
+                        .switchIfEmpty(Mono.error(() -> {
+                            logger.error("User with id {} not found", userId);
+                            return new RuntimeException("User with id " + userId + " not found");
+                        }));
+            });
+        });
+    }
+
+    @Override
+    public Mono<Long> getSubscriptionsVersion(Long userId) {
+        return userRepository.findVersion(userId)
+                .switchIfEmpty(Mono.error(() -> {
+                    logger.error("User with id {} not found", userId);
+                    return new RuntimeException("User with id " + userId + " not found");
+                }));
+    }
+
+    @Override
+    public Mono<Void> deleteSubscription(Long userId, Long subscriptionId) {
+        logger.debug("Deleting subscription with id: {} for user with id: {}", subscriptionId, userId);
+
+        // Ownership is part of the DELETE itself, so a foreign subscription simply matches no row.
+        // Only the delete that removed the row adjusts the counts, so a concurrent one cannot repeat it.
+        return subscriptionRepository.findByIdAndUserId(subscriptionId, userId)
+                .filterWhen(found -> dailyCounts.inWriteTransaction(
+                        subscriptionRepository.deleteByIdAndUserId(subscriptionId, userId)
+                                .flatMap(deleted -> deleted == 0 ? Mono.just(false)
+                                        : dailyCounts.decrement(found.startDate(), found.serviceName())
+                                                .thenReturn(true))))
+                .switchIfEmpty(Mono.error(() -> {
+                    logger.error("Subscription with id {} not found for user with id {}", subscriptionId, userId);
+                    return new RuntimeException("Subscription with id " + subscriptionId
+                            + " not found for user with id " + userId);
+                }))
+                .flatMap(deleted -> {
+                    popularityIndex.decrement(deleted.serviceName());
+                    logger.debug("Subscription with id: {} deleted successfully", subscriptionId);
+                    return userRepository.incrementVersion(userId)
+                            .then();
+                });
+    }
+
+    @Override
+    public Mono<List<TopSubscriptionDto>> getTopSubscriptions(LocalDate from, LocalDate to, Integer limit) {
+        logger.debug("Getting top subscriptions from: {}, to: {}, limit: {}", from, to, limit);
+
+        return Mono.defer(() -> {
+            SubscriptionServiceImpl.checkTopLimit(limit);
+            if (from == null && to == null) {
+                Mono<List<TopSubscriptionDto>> top = Mono.fromCallable(() ->
+                        limit == null ? popularityIndex.getTop() : popularityIndex.getTop(limit));
+                // Loading the index queries the database over JDBC, which must not block an event loop
+                return popularityIndex.isLoaded() ? top : top.subscribeOn(Schedulers.boundedElastic());
+            }
+            return dailyCounts.getTop(from, SubscriptionServiceImpl.topRangeEnd(from, to), limit).collectList();
+        });
+    }
+
+    private static SubscriptionPageDto toPage(List<SubscriptionDto> items, int pageSize) {
+        String nextPageToken = null;
+        if (items.size() > pageSize) {
+            items = items.subList(0, pageSize);
+            SubscriptionDto last = items.get(pageSize - 1);
+            nextPageToken = new PageToken(last.startDate(), last.id()).encode();
+        }
+        return new SubscriptionPageDto(items, nextPageToken);
+    }
+}
@@ -0,0 +1,155 @@
+package org.example.tech_spec_java_spring_final_v2.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.example.tech_spec_java_spring_final_v2.cache.UserEmailFilter;
+import org.example.tech_spec_java_spring_final_v2.dto.SubscriptionDailyCountDto;
+import org.example.tech_spec_java_spring_final_v2.dto.UserBatchDto;
+import org.example.tech_spec_java_spring_final_v2.dto.UserDto;
+import org.example.tech_spec_java_spring_final_v2.exception.ConflictException;
+import org.example.tech_spec_java_spring_final_v2.exception.ConstraintViolations;
+import org.example.tech_spec_java_spring_final_v2.repository.ReactiveSubscriptionRepository;
+import org.example.tech_spec_java_spring_final_v2.repository.ReactiveUserRepository;
+import org.example.tech_spec_java_spring_final_v2.service.ReactiveUserService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.example.tech_spec_java_spring_final_v2.service.impl.UserServiceImpl.LOOKUP_CHUNK_SIZE;
+
+/**
+ * Same statements and error mapping as {@link UserServiceImpl}, without the {@code UserCache}:
+ * its loaders block, and a lookup over R2DBC does not hold a thread while it waits.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+public class ReactiveUserServiceImpl implements ReactiveUserService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveUserServiceImpl.class);
+
+    private final ReactiveUserRepository userRepository;
+    private final ReactiveSubscriptionRepository subscriptionRepository;
+    private final UserEmailFilter emailFilter;
+    private final SubscriptionPopularityIndex popularityIndex;
+    private final ReactiveSubscriptionDailyCounts dailyCounts;
+
+    @Override
+    public Mono<UserDto> createUser(UserDto dto) {
+        logger.debug("Creating new user with name: {}, email: {}", dto.name(), dto.email());
+
+        // Uniqueness is enforced by the users.email constraint, no lookup before the insert
+        return userRepository.insert(dto.name(), dto.email())
+                .onErrorMap(ReactiveUserServiceImpl::isUniqueViolation, e -> {
+                    logger.error("User with email {} already exists", dto.email());
+                    return new ConflictException("User with email " + dto.email() + " already exists", e);
+                })
+                .doOnNext(user -> {
+                    emailFilter.add(user.email());
+                    logger.debug("User created successfully with id: {}", user.id());
+                });
+    }
+
+    @Override
+    public Mono<UserDto> getUser(Long id) {
+        logger.debug("Getting user with id: {}", id);
+
+        return userRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> {
+                    logger.error("User with id {} not found", id);
+                    return new RuntimeException("User with id " + id + " not found");
+                }));
+    }
+
+    @Override
+    public Mono<UserBatchDto> getUsers(List<Long> ids) {
+        logger.debug("Getting {} users by id", ids.size());
+
+        return Mono.defer(() -> {
+            Set<Long> requested = UserServiceImpl.requestedIds(ids);
+            return Flux.fromIterable(requested)
+                    .buffer(LOOKUP_CHUNK_SIZE)
+                    .concatMap(userRepository::findByIds)
+                    .collectMap(UserDto::id)
+                    .map(found -> toBatch(requested, found));
+        });
+    }
+
+    @Override
+    public Mono<UserDto> updateUser(Long id, UserDto dto) {
+        logger.debug("Updating user with id: {}, new name: {}, new email: {}", id, dto.name(), dto.email());
+
+        // Single conditional UPDATE: the affected row count tells whether the user exists,
+        // the users.email constraint whether the new email is taken
+        return userRepository.updateNameAndEmail(id, dto.name(), dto.email())
+                .onErrorMap(ReactiveUserServiceImpl::isUniqueViolation, e -> {
+                    logger.error("Cannot update user. Email {} already in use by another user", dto.email());
+                    return new ConflictException("Email " + dto.email() + " already in use by another user", e);
+                })
+                .flatMap(updated -> {
+                    if (updated == 0) {
+                        logger.error("User with id {} not found for update", id);
+                        return Mono.error(new RuntimeException("User with id " + id + " not found"));
+                    }
+                    // The previous email stays in the filter as a false positive until the next rebuild
+                    emailFilter.add(dto.email());
+                    logger.debug("User with id: {} updated successfully", id);
+                    return Mono.just(new UserDto(id, dto.name(), dto.email()));
+                });
+    }
+
+    @Override
+    public Mono<Void> deleteUser(Long id) {
+        logger.debug("Deleting user with id: {}", id);
+
+        // Read before the delete: the user's subscriptions go with it through ON DELETE CASCADE
+        return dailyCounts.inWriteTransaction(subscriptionRepository.countDailyByUserId(id)
+                        .collectList()
+                        .flatMap(subscriptions -> userRepository.deleteById(id)
+                                .then(dailyCounts.decrementAll(subscriptions))
+                                .thenReturn(subscriptions)))
+                .doOnSuccess(subscriptions -> {
+                    for (SubscriptionDailyCountDto count : subscriptions) {
+                        popularityIndex.decrement(count.serviceName(), count.count());
+                    }
+                    logger.debug("User with id: {} deleted successfully", id);
+                })
+                .then();
+    }
+
+    @Override
+    public Mono<Long> getUserVersion(Long id) {
+        return userRepository.findVersion(id)
+                .switchIfEmpty(Mono.error(() -> {
+                    logger.error("User with id {} not found", id);
+                    return new RuntimeException("User with id " + id + " not found");
+                }));
+    }
+
+    private static UserBatchDto toBatch(Set<Long> requested, Map<Long, UserDto> found) {
+        List<UserDto> users = new ArrayList<>(requested.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : requested) {
+            UserDto user = found.get(id);
+            if (user != null) {
+                users.add(user);
+            } else {
+                missingIds.add(id);
+            }
+        }
+        logger.debug("Found {} users, {} ids missing", users.size(), missingIds.size());
+        return new UserBatchDto(users, missingIds);
+    }
+
+    private static boolean isUniqueViolation(Throwable e) {
+        return e instanceof DataIntegrityViolationException violation && ConstraintViolations.isUniqueViolation(violation);
+    }
+}
@@ -0,0 +1,179 @@
+package org.example.tech_spec_java_spring_final_v2.service.impl;
+
+import org.example.tech_spec_java_spring_final_v2.dto.SubscriptionDailyCountDto;
+import org.example.tech_spec_java_spring_final_v2.dto.TopSubscriptionDto;
+import org.example.tech_spec_java_spring_final_v2.repository.SubscriptionDailyCountRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Daily rollups of subscription counts per service, keyed by subscription start date. A top-N query
+ * over a date range then reads one row per day and service, independent of the subscriptions table size.
+ * <p>
+ * Rows are adjusted in the transaction of the subscription write they account for
+ * ({@link #inWriteTransaction}), so the rebuild sees a write either together with its adjustment or
+ * not at all. Counts that drift (subscriptions changed outside of the service) are repaired by the
+ * scheduled reconciliation, which rebuilds the table from the subscriptions on one node.
+ */
+@Component
+public class SubscriptionDailyCounts {
+
+    private static final Logger logger = LoggerFactory.getLogger(SubscriptionDailyCounts.class);
+
+    // Key of the PostgreSQL advisory lock taken by the node that rebuilds the rollups
+    private static final long REBUILD_LOCK_KEY = 0x5375_6244_6179L;
+
+    private static final String INSERT_COUNT = "INSERT INTO subscription_daily_counts " +
+            "(start_date, service_name, subscription_count) VALUES (?, ?, ?)";
+
+    private final SubscriptionDailyCountRepository repository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int defaultLimit;
+
+    public SubscriptionDailyCounts(SubscriptionDailyCountRepository repository,
+                                   JdbcTemplate jdbcTemplate,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${app.subscriptions.top.limit:3}") int defaultLimit) {
+        this.repository = repository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.defaultLimit = defaultLimit;
+    }
+
+    /**
+     * Runs a subscription write and the adjustments it calls for in one transaction. The rebuild
+     * waits for such a transaction to commit once it has adjusted a rollup, and holds back the
+     * adjustments that come later until it has committed itself.
+     */
+    public <T> T inWriteTransaction(Supplier<T> write) {
+        return transactionTemplate.execute(status -> write.get());
+    }
+
+    public void increment(LocalDate startDate, String serviceName) {
+        add(startDate, serviceName, 1);
+    }
+
+    public void decrement(LocalDate startDate, String serviceName) {
+        add(startDate, serviceName, -1);
+    }
+
+    public void decrementAll(Collection<SubscriptionDailyCountDto> counts) {
+        for (SubscriptionDailyCountDto count : counts) {
+            add(count.startDate(), count.serviceName(), -count.count());
+        }
+    }
+
+    /**
+     * Within the transaction of the write, see {@link #inWriteTransaction}.
+     */
+    public void add(LocalDate startDate, String serviceName, long delta) {
+        if (repository.addToCount(startDate, serviceName, delta) > 0 || delta < 0) {
+            // A missing row for a decrement can only mean drift; reconciliation repairs it
+            return;
+        }
+        try {
+            insertCount(startDate, serviceName, delta);
+        } catch (DuplicateKeyException e) {
+            // Another writer inserted the row in the meantime
+            repository.addToCount(startDate, serviceName, delta);
+        }
+    }
+
+    /**
+     * At a savepoint, so losing the race for the row does not abort the write's transaction. The JPA
+     * transaction manager offers no savepoints, hence the plain JDBC on the connection it has bound.
+     */
+    private void insertCount(LocalDate startDate, String serviceName, long count) {
+        jdbcTemplate.execute((ConnectionCallback<Integer>) connection -> {
+            Savepoint savepoint = connection.setSavepoint();
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_COUNT)) {
+                statement.setDate(1, Date.valueOf(startDate));
+                statement.setString(2, serviceName);
+                statement.setLong(3, count);
+                int rows = statement.executeUpdate();
+                connection.releaseSavepoint(savepoint);
+                return rows;
+            } catch (SQLException e) {
+                connection.rollback(savepoint);
+                throw e;
+            }
+        });
+    }
+
+    /**
+     * Top services by number of subscriptions starting within {@code [from, to]}, both inclusive.
+     */
+    public List<TopSubscriptionDto> getTop(LocalDate from, LocalDate to, Integer limit) {
+        return repository.findTop(from, to, Limit.of(limit != null ? limit : defaultLimit));
+    }
+
+    /**
+     * Fills the rollups on the first start after they were introduced.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        if (repository.count() == 0) {
+            reconcile();
+        }
+    }
+
+    @Scheduled(cron = "${app.subscriptions.rollups.reconcile-cron:0 30 3 * * *}")
+    public void reconcile() {
+        logger.debug("Rebuilding subscription daily counts");
+        // Replaced in one transaction, so readers see either the old or the new rollups
+        Integer rows = transactionTemplate.execute(status -> {
+            if (!lockForRebuild()) {
+                return null;
+            }
+            repository.deleteAllInBatch();
+            return repository.insertFromSubscriptions();
+        });
+        if (rows == null) {
+            logger.debug("Subscription daily counts are being rebuilt by another node");
+            return;
+        }
+        logger.debug("Subscription daily counts rebuilt: {} rows", rows);
+    }
+
+    /**
+     * On PostgreSQL the nodes that lose the advisory lock skip the run. The table lock conflicts with
+     * the row changes of the writers: it waits for the transactions that have already adjusted a
+     * rollup, so their subscriptions are in the snapshot the rollups are rebuilt from, and blocks
+     * the later adjustments, whose subscriptions are not, until the rebuild has committed.
+     * The H2 of the tests runs on a single node and has neither lock.
+     */
+    private boolean lockForRebuild() {
+        String database = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equals(database)) {
+            return true;
+        }
+        if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT pg_try_advisory_xact_lock(?)", Boolean.class, REBUILD_LOCK_KEY))) {
+            return false;
+        }
+        jdbcTemplate.execute("LOCK TABLE subscription_daily_counts IN SHARE ROW EXCLUSIVE MODE");
+        return true;
+    }
+}
@@ -0,0 +1,85 @@
+package org.example.tech_spec_java_spring_final_v2.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.example.tech_spec_java_spring_final_v2.dto.SubscriptionDto;
+import org.example.tech_spec_java_spring_final_v2.dto.SubscriptionExportFilter;
+import org.example.tech_spec_java_spring_final_v2.repository.SubscriptionRepository;
+import org.example.tech_spec_java_spring_final_v2.service.DataFormat;
+import org.example.tech_spec_java_spring_final_v2.service.SubscriptionExportService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+public class SubscriptionExportServiceImpl implements SubscriptionExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SubscriptionExportServiceImpl.class);
+
+    private static final String CSV_HEADER = "id,userId,serviceName,startDate\n";
+
+    private final SubscriptionRepository subscriptionRepository;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportSubscriptions(SubscriptionExportFilter filter, DataFormat format, OutputStream output) {
+        logger.info("Exporting subscriptions as {}, filter: {}", format, filter);
+
+        long count = 0;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        try (Stream<SubscriptionDto> subscriptions = subscriptionRepository.streamForExport(
+                filter.serviceName(), filter.from(), filter.to())) {
+            if (format == DataFormat.CSV) {
+                writer.write(CSV_HEADER);
+            }
+            Iterator<SubscriptionDto> iterator = subscriptions.iterator();
+            while (iterator.hasNext()) {
+                SubscriptionDto subscription = iterator.next();
+                if (format == DataFormat.CSV) {
+                    writeCsv(writer, subscription);
+                } else {
+                    writer.write(objectMapper.writeValueAsString(subscription));
+                    writer.write('\n');
+                }
+                count++;
+            }
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write subscriptions export", e);
+        }
+
+        logger.info("Exported {} subscriptions", count);
+        return count;
+    }
+
+    private static void writeCsv(Writer writer, SubscriptionDto subscription) throws IOException {
+        writer.write(String.valueOf(subscription.id()));
+        writer.write(',');
+        writer.write(String.valueOf(subscription.userId()));
+        writer.write(',');
+        writer.write(escapeCsv(subscription.serviceName()));
+        writer.write(',');
+        writer.write(subscription.startDate() != null ? subscription.startDate().toString() : "");
+        writer.write('\n');
+    }
+
+    private static String escapeCsv(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
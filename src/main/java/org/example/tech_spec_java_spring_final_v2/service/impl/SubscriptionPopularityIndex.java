@@ -0,0 +1,138 @@
+package org.example.tech_spec_java_spring_final_v2.service.impl;
+
+import org.example.tech_spec_java_spring_final_v2.dto.TopSubscriptionDto;
+import org.example.tech_spec_java_spring_final_v2.repository.JdbcReadRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory subscription counts per service name, used to answer the top-N query
+ * without aggregating the whole subscriptions table on every request.
+ * <p>
+ * Counts are loaded once on startup, adjusted by the service on every add/delete and
+ * periodically reconciled with the database, which also repairs changes made outside
+ * of the service (e.g. subscriptions removed by the ON DELETE CASCADE of a user).
+ */
+@Component
+public class SubscriptionPopularityIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(SubscriptionPopularityIndex.class);
+
+    private static final Comparator<TopSubscriptionDto> BY_COUNT = Comparator
+            .comparing(TopSubscriptionDto::count)
+            .thenComparing(TopSubscriptionDto::serviceName, Comparator.reverseOrder());
+
+    private final JdbcReadRepository readRepository;
+    private final int limit;
+
+    private final Map<String, Long> counts = new ConcurrentHashMap<>();
+    private final AtomicBoolean dirty = new AtomicBoolean(true);
+    // Not synchronized: a virtual thread blocked on the query inside a monitor would pin its carrier
+    private final ReentrantLock reconcileLock = new ReentrantLock();
+    private volatile List<TopSubscriptionDto> top = List.of();
+    private volatile boolean loaded;
+
+    public SubscriptionPopularityIndex(JdbcReadRepository readRepository,
+                                       @Value("${app.subscriptions.top.limit:3}") int limit) {
+        this.readRepository = readRepository;
+        this.limit = limit;
+    }
+
+    public void increment(String serviceName) {
+        counts.merge(serviceName, 1L, Long::sum);
+        dirty.set(true);
+    }
+
+    public void decrement(String serviceName) {
+        decrement(serviceName, 1);
+    }
+
+    public void decrement(String serviceName, long by) {
+        counts.computeIfPresent(serviceName, (name, count) -> count > by ? count - by : null);
+        dirty.set(true);
+    }
+
+    public List<TopSubscriptionDto> getTop() {
+        if (!loaded) {
+            reconcile();
+        }
+        if (dirty.compareAndSet(true, false)) {
+            top = computeTop(limit);
+        }
+        return top;
+    }
+
+    /**
+     * Like {@link #getTop()} for a different number of services; the result is not cached.
+     */
+    public List<TopSubscriptionDto> getTop(int limit) {
+        if (limit == this.limit) {
+            return getTop();
+        }
+        if (!loaded) {
+            reconcile();
+        }
+        return computeTop(limit);
+    }
+
+    /**
+     * Whether {@link #getTop()} can answer from memory, without loading the counts first.
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.subscriptions.top.reconcile-interval-ms:300000}",
+            initialDelayString = "${app.subscriptions.top.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        reconcileLock.lock();
+        try {
+            logger.debug("Reconciling subscription popularity index with the database");
+
+            Map<String, Long> actual = new HashMap<>();
+            for (TopSubscriptionDto count : readRepository.countSubscriptionsByServiceName()) {
+                actual.put(count.serviceName(), count.count());
+            }
+
+            // Writes racing with the query above may be off by one until the next reconciliation
+            counts.keySet().retainAll(actual.keySet());
+            counts.putAll(actual);
+            dirty.set(true);
+            loaded = true;
+
+            logger.debug("Subscription popularity index reconciled: {} services", actual.size());
+        } finally {
+            reconcileLock.unlock();
+        }
+    }
+
+    private List<TopSubscriptionDto> computeTop(int limit) {
+        PriorityQueue<TopSubscriptionDto> heap = new PriorityQueue<>(limit + 1, BY_COUNT);
+        for (Map.Entry<String, Long> entry : counts.entrySet()) {
+            heap.add(new TopSubscriptionDto(entry.getKey(), entry.getValue()));
+            if (heap.size() > limit) {
+                heap.poll();
+            }
+        }
+
+        List<TopSubscriptionDto> result = new ArrayList<>(heap);
+        result.sort(BY_COUNT.reversed());
+        return List.copyOf(result);
+    }
+}
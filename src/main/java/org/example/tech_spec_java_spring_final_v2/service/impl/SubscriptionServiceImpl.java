@@ -1,20 +1,29 @@
 package org.example.tech_spec_java_spring_final_v2.service.impl;
 
 import lombok.RequiredArgsConstructor;
+import org.example.tech_spec_java_spring_final_v2.cache.CacheInvalidationBus;
+import org.example.tech_spec_java_spring_final_v2.cache.UserCache;
+import org.example.tech_spec_java_spring_final_v2.cache.UserVersionCache;
 import org.example.tech_spec_java_spring_final_v2.dto.SubscriptionDto;
+import org.example.tech_spec_java_spring_final_v2.dto.SubscriptionPageDto;
+import org.example.tech_spec_java_spring_final_v2.dto.SubscriptionWriteDto;
+import org.example.tech_spec_java_spring_final_v2.dto.TopSubscriptionDto;
 import org.example.tech_spec_java_spring_final_v2.entity.SubscriptionEntity;
-import org.example.tech_spec_java_spring_final_v2.entity.UserEntity;
+import org.example.tech_spec_java_spring_final_v2.exception.ConstraintViolations;
+import org.example.tech_spec_java_spring_final_v2.repository.JdbcReadRepository;
+import org.example.tech_spec_java_spring_final_v2.repository.ReplicaRouting;
 import org.example.tech_spec_java_spring_final_v2.repository.SubscriptionRepository;
 import org.example.tech_spec_java_spring_final_v2.repository.UserRepository;
 import org.example.tech_spec_java_spring_final_v2.service.SubscriptionService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
-import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
@@ -22,112 +31,231 @@ public class SubscriptionServiceImpl implements SubscriptionService {
 
     private static final Logger logger = LoggerFactory.getLogger(SubscriptionServiceImpl.class);
 
+    static final int DEFAULT_PAGE_SIZE = 50;
+    static final int MAX_PAGE_SIZE = 500;
+    static final int MAX_TOP_LIMIT = 100;
+
     private final SubscriptionRepository subscriptionRepository;
     private final UserRepository userRepository;
+    private final JdbcReadRepository readRepository;
+    private final SubscriptionPopularityIndex popularityIndex;
+    private final SubscriptionDailyCounts dailyCounts;
+    private final UserCache userCache;
+    private final UserVersionCache versionCache;
+    private final ObjectProvider<SubscriptionWriteBehind> writeBehind;
+    private final ReplicaRouting replicaRouting;
+    private final CacheInvalidationBus invalidationBus;
 
     @Override
     public SubscriptionDto addSubscription(Long userId, SubscriptionDto dto) {
-        logger.info("Adding subscription for user with id: {}, service: {}", userId, dto.serviceName());
-
-        UserEntity user = userRepository.findById(userId)
-                .orElseThrow(() -> {
-                    logger.error("User with id {} not found", userId);
-                    return new RuntimeException("User with id " + userId + " not found");
-                });
+        logger.debug("Adding subscription for user with id: {}, service: {}", userId, dto.serviceName());
 
-        logger.debug("User found: {}", user.getName());
+        if (userCache.isKnownMissing(userId)) {
+            logger.error("User with id {} not found", userId);
+            throw new RuntimeException("User with id " + userId + " not found");
+        }
 
         LocalDate startDate = dto.startDate() != null ? dto.startDate() : LocalDate.now();
-        SubscriptionEntity subscription = SubscriptionEntity.builder()
-                .user(user)
+        // No lookup: the foreign key on subscriptions.user_id decides whether the user exists
+        SubscriptionEntity entity = SubscriptionEntity.builder()
+                .userId(userId)
                 .serviceName(dto.serviceName())
                 .startDate(startDate)
                 .build();
 
-        logger.debug("Saving subscription: {}", subscription.getServiceName());
-        subscription = subscriptionRepository.save(subscription);
+        logger.debug("Saving subscription: {}", entity.getServiceName());
+        SubscriptionEntity subscription;
+        try {
+            subscription = dailyCounts.inWriteTransaction(() -> {
+                SubscriptionEntity saved = subscriptionRepository.save(entity);
+                dailyCounts.increment(saved.getStartDate(), saved.getServiceName());
+                return saved;
+            });
+        } catch (DataIntegrityViolationException e) {
+            if (!ConstraintViolations.isForeignKeyViolation(e)) {
+                throw e;
+            }
+            userCache.invalidate(userId);
+            logger.error("User with id {} not found", userId);
+            throw new RuntimeException("User with id " + userId + " not found");
+        }
+        popularityIndex.increment(subscription.getServiceName());
+        incrementVersion(userId);
 
         SubscriptionDto result = toDto(subscription);
-        logger.info("Subscription added successfully with id: {}", result.id());
+        logger.debug("Subscription added successfully with id: {}", result.id());
         return result;
     }
 
     @Override
-    public List<SubscriptionDto> getUserSubscriptions(Long userId) {
-        logger.info("Getting subscriptions for user with id: {}", userId);
+    public boolean isWriteBehind() {
+        return writeBehind.getIfAvailable() != null;
+    }
 
-        UserEntity user = userRepository.findById(userId)
-                .orElseThrow(() -> {
-                    logger.error("User with id {} not found", userId);
-                    return new RuntimeException("User with id " + userId + " not found");
-                });
+    @Override
+    public SubscriptionWriteDto submitSubscription(Long userId, SubscriptionDto dto) {
+        logger.debug("Submitting subscription for user with id: {}, service: {}", userId, dto.serviceName());
 
-        logger.debug("User found: {}", user.getName());
+        SubscriptionWriteBehind writer = writeBehind.getIfAvailable();
+        if (writer == null) {
+            throw new IllegalStateException("Write-behind mode is disabled");
+        }
+        if (dto.serviceName() == null || dto.serviceName().isBlank()) {
+            throw new IllegalArgumentException("serviceName is required");
+        }
+        // Checked up front: once queued, a missing user could only be reported through the tracking id
+        if (!userExists(userId)) {
+            logger.error("User with id {} not found", userId);
+            throw new RuntimeException("User with id " + userId + " not found");
+        }
 
-        List<SubscriptionDto> subscriptions = subscriptionRepository.findByUser(user).stream()
-                .map(this::toDto)
-                .collect(Collectors.toList());
+        LocalDate startDate = dto.startDate() != null ? dto.startDate() : LocalDate.now();
+        SubscriptionWriteDto write = writer.submit(new SubscriptionDto(null, userId, dto.serviceName(), startDate));
+        logger.debug("Subscription for user with id: {} queued with tracking id: {}", userId, write.trackingId());
+        return write;
+    }
 
-        logger.info("Found {} subscriptions for user with id: {}", subscriptions.size(), userId);
-        return subscriptions;
+    @Override
+    public SubscriptionWriteDto getSubscriptionWrite(String trackingId) {
+        return Optional.ofNullable(writeBehind.getIfAvailable())
+                .flatMap(writer -> writer.get(trackingId))
+                .orElseThrow(() -> new RuntimeException("Subscription write " + trackingId + " not found"));
     }
 
     @Override
-    public void deleteSubscription(Long userId, Long subscriptionId) {
-        logger.info("Deleting subscription with id: {} for user with id: {}", subscriptionId, userId);
+    public SubscriptionPageDto getUserSubscriptions(Long userId, String pageToken, Integer limit) {
+        logger.debug("Getting subscriptions for user with id: {}, page token: {}, limit: {}", userId, pageToken, limit);
+
+        int pageSize = pageSize(limit);
+        // One extra row tells whether another page follows without a separate count query
+        PageToken after = pageToken == null ? null : PageToken.decode(pageToken);
+        List<SubscriptionDto> items = replicaRouting.read(userId, () -> after == null
+                ? readRepository.findFirstSubscriptionPage(userId, pageSize + 1)
+                : readRepository.findSubscriptionPageAfter(userId, after.startDate(), after.id(), pageSize + 1));
+
+        // An empty page is the only case where the user may not exist at all
+        if (items.isEmpty() && !userExists(userId)) {
+            logger.error("User with id {} not found", userId);
+            throw new RuntimeException("User with id " + userId + " not found");
+        }
 
-        SubscriptionEntity subscription = subscriptionRepository.findById(subscriptionId)
+        String nextPageToken = null;
+        if (items.size() > pageSize) {
+            items = items.subList(0, pageSize);
+            SubscriptionDto last = items.get(pageSize - 1);
+            nextPageToken = new PageToken(last.startDate(), last.id()).encode();
+        }
+
+        logger.debug("Found {} subscriptions for user with id: {}", items.size(), userId);
+        return new SubscriptionPageDto(items, nextPageToken);
+    }
+
+    @Override
+    public long getSubscriptionsVersion(Long userId) {
+        return versionCache.get(userId, key -> replicaRouting.read(key, () -> readRepository.findUserVersion(key)))
                 .orElseThrow(() -> {
-                    logger.error("Subscription with id {} not found", subscriptionId);
-                    return new RuntimeException("Subscription with id " + subscriptionId + " not found");
+                    logger.error("User with id {} not found", userId);
+                    return new RuntimeException("User with id " + userId + " not found");
                 });
+    }
 
-        logger.debug("Subscription found: {}", subscription.getServiceName());
+    @Override
+    public void deleteSubscription(Long userId, Long subscriptionId) {
+        logger.debug("Deleting subscription with id: {} for user with id: {}", subscriptionId, userId);
 
-        if (!subscription.getUser().getId().equals(userId)) {
-            logger.error("Subscription with id {} does not belong to user with id {}", subscriptionId, userId);
-            throw new RuntimeException("Subscription with id " + subscriptionId + " does not belong to user with id " + userId);
+        // Ownership is part of the DELETE itself, so a foreign subscription simply matches no row.
+        // Only the delete that removed the row adjusts the counts, so a concurrent one cannot repeat it.
+        Optional<SubscriptionRepository.DeletedSubscription> found = subscriptionRepository
+                .findDeletedByIdAndUserId(subscriptionId, userId);
+        boolean removed = found.isPresent() && dailyCounts.inWriteTransaction(() -> {
+            if (subscriptionRepository.deleteByIdAndUserId(subscriptionId, userId) == 0) {
+                return false;
+            }
+            dailyCounts.decrement(found.get().getStartDate(), found.get().getServiceName());
+            return true;
+        });
+        if (!removed) {
+            logger.error("Subscription with id {} not found for user with id {}", subscriptionId, userId);
+            throw new RuntimeException("Subscription with id " + subscriptionId
+                    + " not found for user with id " + userId);
         }
+        SubscriptionRepository.DeletedSubscription deleted = found.get();
 
-        logger.debug("Deleting subscription: {}", subscription.getServiceName());
-        subscriptionRepository.delete(subscription);
-        logger.info("Subscription with id: {} deleted successfully", subscriptionId);
+        logger.debug("Deleted subscription: {}", deleted.getServiceName());
+        popularityIndex.decrement(deleted.getServiceName());
+        incrementVersion(userId);
+        logger.debug("Subscription with id: {} deleted successfully", subscriptionId);
     }
 
     @Override
-    public List<SubscriptionDto> getTopSubscriptions() {
-        logger.info("Getting top subscriptions");
+    public List<TopSubscriptionDto> getTopSubscriptions(LocalDate from, LocalDate to, Integer limit) {
+        logger.debug("Getting top subscriptions from: {}, to: {}, limit: {}", from, to, limit);
+
+        checkTopLimit(limit);
+
+        List<TopSubscriptionDto> topSubscriptions;
+        if (from == null && to == null) {
+            topSubscriptions = limit == null ? popularityIndex.getTop() : popularityIndex.getTop(limit);
+        } else {
+            LocalDate end = topRangeEnd(from, to);
+            topSubscriptions = replicaRouting.read(() -> dailyCounts.getTop(from, end, limit));
+        }
 
-        List<Object[]> results = subscriptionRepository.findTop3PopularSubscriptions();
-        logger.debug("Found {} top subscription results", results.size());
+        logger.debug("Returning {} top subscriptions", topSubscriptions.size());
+        return topSubscriptions;
+    }
 
-        List<SubscriptionDto> topSubscriptions = new ArrayList<>();
+    /**
+     * After the subscription write, so a reader that sees the new version also sees the change.
+     */
+    private void incrementVersion(Long userId) {
+        userRepository.incrementVersions(List.of(userId));
+        replicaRouting.written(userId);
+        versionCache.invalidate(userId);
+        invalidationBus.publish(userId);
+    }
 
-        for (Object[] result : results) {
-            String serviceName = (String) result[0];
-            Long count = ((Number) result[1]).longValue();
+    private boolean userExists(Long userId) {
+        return userCache.get(userId, key -> replicaRouting.read(key, () -> readRepository.findUserById(key))).isPresent();
+    }
 
-            logger.debug("Top subscription: {}, count: {}", serviceName, count);
+    static void checkTopLimit(Integer limit) {
+        if (limit != null && (limit < 1 || limit > MAX_TOP_LIMIT)) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_TOP_LIMIT);
+        }
+    }
 
-            topSubscriptions.add(new SubscriptionDto(
-                    null,
-                    null,
-                    serviceName,
-                    null
-            ));
+    /**
+     * Validates a top range with at least one bound and returns its inclusive end.
+     */
+    static LocalDate topRangeEnd(LocalDate from, LocalDate to) {
+        if (from == null) {
+            throw new IllegalArgumentException("from is required when to is given");
+        }
+        LocalDate until = to != null ? to : LocalDate.now();
+        if (from.isAfter(until)) {
+            throw new IllegalArgumentException("from must not be after to");
         }
+        return until;
+    }
 
-        logger.info("Returning {} top subscriptions", topSubscriptions.size());
-        return topSubscriptions;
+    static int pageSize(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+        return Math.min(limit, MAX_PAGE_SIZE);
     }
 
-    private SubscriptionDto toDto(SubscriptionEntity subscription) {
+    SubscriptionDto toDto(SubscriptionEntity subscription) {
         logger.trace("Converting subscription entity to DTO: id={}, service={}", 
                 subscription.getId(), subscription.getServiceName());
 
         return new SubscriptionDto(
                 subscription.getId(),
-                subscription.getUser().getId(),
+                subscription.getUserId(),
                 subscription.getServiceName(),
                 subscription.getStartDate()
         );
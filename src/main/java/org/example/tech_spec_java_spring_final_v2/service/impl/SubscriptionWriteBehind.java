@@ -0,0 +1,308 @@
+package org.example.tech_spec_java_spring_final_v2.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.tech_spec_java_spring_final_v2.cache.CacheInvalidationBus;
+import org.example.tech_spec_java_spring_final_v2.cache.UserCache;
+import org.example.tech_spec_java_spring_final_v2.cache.UserVersionCache;
+import org.example.tech_spec_java_spring_final_v2.dto.SubscriptionDto;
+import org.example.tech_spec_java_spring_final_v2.dto.SubscriptionWriteDto;
+import org.example.tech_spec_java_spring_final_v2.exception.ConstraintViolations;
+import org.example.tech_spec_java_spring_final_v2.exception.ServiceUnavailableException;
+import org.example.tech_spec_java_spring_final_v2.exception.TooManyRequestsException;
+import org.example.tech_spec_java_spring_final_v2.repository.BulkImportRepository;
+import org.example.tech_spec_java_spring_final_v2.repository.ReplicaRouting;
+import org.example.tech_spec_java_spring_final_v2.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind mode for subscription inserts ({@code app.subscriptions.write-behind.enabled=true}).
+ * Accepted subscriptions wait in a bounded queue; a single writer thread drains whatever has
+ * accumulated, up to the batch size, into one JDBC batch committed in one transaction. Under a burst
+ * of requests the batches grow, so the number of commits stays low.
+ * <p>
+ * A full queue rejects the request rather than blocking it. On shutdown the writer stops after the
+ * web server and writes out everything still queued; requests arriving after that are answered 503.
+ * The state of every write is kept by tracking id for a limited time and up to a limited number of
+ * writes, so a burst cannot grow the heap past the bounded queue; an evicted tracking id is not found.
+ */
+@Component
+@ConditionalOnProperty(name = "app.subscriptions.write-behind.enabled", havingValue = "true")
+public class SubscriptionWriteBehind implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(SubscriptionWriteBehind.class);
+
+    /**
+     * Lower phases stop later: after the web server has finished its in-flight requests, so
+     * subscriptions accepted during the graceful shutdown are still written.
+     */
+    static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+    static final Duration RETRY_AFTER = Duration.ofSeconds(1);
+    private static final long POLL_INTERVAL_MS = 100;
+
+    private final BulkImportRepository repository;
+    private final UserRepository userRepository;
+    private final SubscriptionPopularityIndex popularityIndex;
+    private final SubscriptionDailyCounts dailyCounts;
+    private final UserCache userCache;
+    private final UserVersionCache versionCache;
+    private final ReplicaRouting replicaRouting;
+    private final CacheInvalidationBus invalidationBus;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<Pending> queue;
+    private final Cache<String, SubscriptionWriteDto> writes;
+    private final int batchSize;
+    private final Duration shutdownTimeout;
+    private final DistributionSummary batchSizes;
+
+    private volatile boolean running;
+    private volatile boolean stopping;
+    private Thread writer;
+
+    public SubscriptionWriteBehind(BulkImportRepository repository,
+                                   UserRepository userRepository,
+                                   SubscriptionPopularityIndex popularityIndex,
+                                   SubscriptionDailyCounts dailyCounts,
+                                   UserCache userCache,
+                                   UserVersionCache versionCache,
+                                   ReplicaRouting replicaRouting,
+                                   CacheInvalidationBus invalidationBus,
+                                   PlatformTransactionManager transactionManager,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${app.subscriptions.write-behind.queue-capacity:10000}") int queueCapacity,
+                                   @Value("${app.subscriptions.write-behind.batch-size:500}") int batchSize,
+                                   @Value("${app.subscriptions.write-behind.status-ttl:1h}") Duration statusTtl,
+                                   @Value("${app.subscriptions.write-behind.status-max-entries:100000}") long statusMaxEntries,
+                                   @Value("${app.subscriptions.write-behind.shutdown-timeout:30s}") Duration shutdownTimeout) {
+        this.repository = repository;
+        this.userRepository = userRepository;
+        this.popularityIndex = popularityIndex;
+        this.dailyCounts = dailyCounts;
+        this.userCache = userCache;
+        this.versionCache = versionCache;
+        this.replicaRouting = replicaRouting;
+        this.invalidationBus = invalidationBus;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.writes = Caffeine.newBuilder()
+                .expireAfterWrite(statusTtl)
+                .maximumSize(statusMaxEntries)
+                .build();
+        this.batchSize = batchSize;
+        this.shutdownTimeout = shutdownTimeout;
+        Gauge.builder("app.subscriptions.write-behind.queued", queue, BlockingQueue::size)
+                .description("Subscriptions waiting to be written")
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("app.subscriptions.write-behind.batch.size")
+                .description("Subscriptions written per commit")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queues a validated subscription (user id, service name and start date set).
+     */
+    public SubscriptionWriteDto submit(SubscriptionDto subscription) {
+        if (stopping) {
+            throw shuttingDown();
+        }
+        String trackingId = UUID.randomUUID().toString();
+        SubscriptionWriteDto queued = new SubscriptionWriteDto(trackingId, SubscriptionWriteDto.Status.QUEUED,
+                subscription, null);
+        // Recorded first, so the writer can never complete a write that is not tracked yet
+        writes.put(trackingId, queued);
+        Pending pending = new Pending(trackingId, subscription);
+        if (!queue.offer(pending)) {
+            writes.invalidate(trackingId);
+            throw new TooManyRequestsException("Subscription write queue is full", RETRY_AFTER);
+        }
+        // stop() may have run between the check and the offer, and the writer may already have found the
+        // queue empty and exited. Taking the item back means nobody will write it; if it is already gone,
+        // the writer has it.
+        if (stopping && queue.remove(pending)) {
+            writes.invalidate(trackingId);
+            throw shuttingDown();
+        }
+        return queued;
+    }
+
+    private static ServiceUnavailableException shuttingDown() {
+        return new ServiceUnavailableException("Subscription writer is shutting down", RETRY_AFTER);
+    }
+
+    public Optional<SubscriptionWriteDto> get(String trackingId) {
+        return Optional.ofNullable(writes.getIfPresent(trackingId));
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        writer = Thread.ofPlatform().name("subscription-writer").start(this::drain);
+    }
+
+    @Override
+    public void stop() {
+        stopping = true;
+        running = false;
+        try {
+            if (!writer.join(shutdownTimeout)) {
+                logger.warn("Subscription writer did not finish within {}, {} subscriptions not written",
+                        shutdownTimeout, queue.size());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    private void drain() {
+        List<Pending> batch = new ArrayList<>(batchSize);
+        // After stop() the queue is still emptied; submit() takes back anything queued after the last check
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                logger.error("Failed to write subscription batch of {}", batch.size(), e);
+                batch.forEach(pending -> fail(pending, "Failed to write subscription"));
+            } finally {
+                batch.clear();
+            }
+        }
+        logger.debug("Subscription writer stopped");
+    }
+
+    void write(List<Pending> batch) {
+        batchSizes.record(batch.size());
+        if (insert(batch)) {
+            return;
+        }
+        // One bad row (a user deleted after the request was accepted) fails the whole batch
+        logger.warn("Subscription batch of {} failed, writing subscriptions one by one", batch.size());
+        for (Pending pending : batch) {
+            insert(List.of(pending));
+        }
+    }
+
+    private boolean insert(List<Pending> batch) {
+        List<SubscriptionDto> subscriptions = batch.stream().map(Pending::subscription).toList();
+        List<Long> ids;
+        try {
+            ids = transactionTemplate.execute(status -> {
+                List<Long> inserted = repository.insertSubscriptionsReturningIds(subscriptions);
+                addDailyCounts(subscriptions);
+                return inserted;
+            });
+        } catch (DataAccessException e) {
+            if (batch.size() > 1) {
+                return false;
+            }
+            Long userId = subscriptions.get(0).userId();
+            if (e instanceof DataIntegrityViolationException violation && ConstraintViolations.isForeignKeyViolation(violation)) {
+                userCache.invalidate(userId);
+                fail(batch.get(0), "User with id " + userId + " not found");
+            } else {
+                logger.error("Failed to write subscription for user with id {}: {}", userId, e.getMessage());
+                fail(batch.get(0), "Failed to write subscription");
+            }
+            return true;
+        }
+
+        List<SubscriptionDto> written = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            SubscriptionDto subscription = subscriptions.get(i);
+            SubscriptionDto saved = new SubscriptionDto(ids.get(i), subscription.userId(),
+                    subscription.serviceName(), subscription.startDate());
+            written.add(saved);
+            writes.put(batch.get(i).trackingId(), new SubscriptionWriteDto(batch.get(i).trackingId(),
+                    SubscriptionWriteDto.Status.WRITTEN, saved, null));
+        }
+        try {
+            afterInsert(written);
+        } catch (RuntimeException e) {
+            // The subscriptions are committed; drifted counts are repaired by the reconciliations
+            logger.error("Failed to update counts after writing {} subscriptions", written.size(), e);
+        }
+        logger.debug("Wrote {} subscriptions in one batch", written.size());
+        return true;
+    }
+
+    /**
+     * One rollup adjustment per day and service, in the transaction of the insert.
+     */
+    private void addDailyCounts(List<SubscriptionDto> subscriptions) {
+        Map<DailyKey, Long> daily = new HashMap<>();
+        for (SubscriptionDto subscription : subscriptions) {
+            daily.merge(new DailyKey(subscription.startDate(), subscription.serviceName()), 1L, Long::sum);
+        }
+        daily.forEach((key, count) -> dailyCounts.add(key.startDate(), key.serviceName(), count));
+    }
+
+    /**
+     * The rest of the bookkeeping of a single insert.
+     */
+    private void afterInsert(List<SubscriptionDto> subscriptions) {
+        Set<Long> changedUsers = new HashSet<>();
+        for (SubscriptionDto subscription : subscriptions) {
+            popularityIndex.increment(subscription.serviceName());
+            changedUsers.add(subscription.userId());
+        }
+        userRepository.incrementVersions(changedUsers);
+        replicaRouting.writtenAll(changedUsers);
+        versionCache.invalidateAll(changedUsers);
+        invalidationBus.publishAll(changedUsers);
+    }
+
+    private void fail(Pending pending, String error) {
+        writes.put(pending.trackingId(), new SubscriptionWriteDto(pending.trackingId(),
+                SubscriptionWriteDto.Status.FAILED, pending.subscription(), error));
+    }
+
+    record Pending(String trackingId, SubscriptionDto subscription) {
+    }
+
+    private record DailyKey(LocalDate startDate, String serviceName) {
+    }
+}
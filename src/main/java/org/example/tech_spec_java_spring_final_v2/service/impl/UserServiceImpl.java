@@ -1,61 +1,103 @@
 package org.example.tech_spec_java_spring_final_v2.service.impl;
 
 import lombok.RequiredArgsConstructor;
+import org.example.tech_spec_java_spring_final_v2.cache.CacheInvalidationBus;
+import org.example.tech_spec_java_spring_final_v2.cache.UserCache;
+import org.example.tech_spec_java_spring_final_v2.cache.UserEmailFilter;
+import org.example.tech_spec_java_spring_final_v2.cache.UserVersionCache;
+import org.example.tech_spec_java_spring_final_v2.dto.SubscriptionDailyCountDto;
+import org.example.tech_spec_java_spring_final_v2.dto.UserBatchDto;
 import org.example.tech_spec_java_spring_final_v2.dto.UserDto;
 import org.example.tech_spec_java_spring_final_v2.entity.UserEntity;
+import org.example.tech_spec_java_spring_final_v2.exception.ConflictException;
+import org.example.tech_spec_java_spring_final_v2.exception.ConstraintViolations;
+import org.example.tech_spec_java_spring_final_v2.repository.JdbcReadRepository;
+import org.example.tech_spec_java_spring_final_v2.repository.ReplicaRouting;
+import org.example.tech_spec_java_spring_final_v2.repository.SubscriptionRepository;
 import org.example.tech_spec_java_spring_final_v2.repository.UserRepository;
 import org.example.tech_spec_java_spring_final_v2.service.UserService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
 @Service
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
 
     private static final Logger logger = LoggerFactory.getLogger(UserServiceImpl.class);
 
+    static final int MAX_BATCH_SIZE = 1000;
+    // Keeps the IN list, and the number of bind parameters, bounded per query
+    static final int LOOKUP_CHUNK_SIZE = 500;
+
     private final UserRepository userRepository;
+    private final SubscriptionRepository subscriptionRepository;
+    private final JdbcReadRepository readRepository;
+    private final UserCache userCache;
+    private final UserVersionCache versionCache;
+    private final UserEmailFilter emailFilter;
+    private final SubscriptionPopularityIndex popularityIndex;
+    private final SubscriptionDailyCounts dailyCounts;
+    private final ReplicaRouting replicaRouting;
+    private final CacheInvalidationBus invalidationBus;
 
     @Override
     public UserDto createUser(UserDto dto) {
-        logger.info("Creating new user with name: {}, email: {}", dto.name(), dto.email());
-
-        // Check if user with the same email already exists
-        userRepository.findByEmail(dto.email()).ifPresent(existingUser -> {
-            logger.error("User with email {} already exists", dto.email());
-            throw new RuntimeException("User with email " + dto.email() + " already exists");
-        });
+        logger.debug("Creating new user with name: {}, email: {}", dto.name(), dto.email());
 
         UserEntity user = UserEntity.builder()
                 .name(dto.name())
                 .email(dto.email())
                 .build();
 
+        // Uniqueness is enforced by the users.email constraint, no lookup before the insert
         logger.debug("Saving new user to database");
-        user = userRepository.save(user);
+        try {
+            user = userRepository.save(user);
+        } catch (DataIntegrityViolationException e) {
+            if (!ConstraintViolations.isUniqueViolation(e)) {
+                throw e;
+            }
+            logger.error("User with email {} already exists", dto.email());
+            throw new ConflictException("User with email " + dto.email() + " already exists", e);
+        }
 
         UserDto result = toDto(user);
-        logger.info("User created successfully with id: {}", result.id());
+        // Replaces a possible "not found" entry for the newly assigned id
+        replicaRouting.written(result.id());
+        userCache.put(result);
+        // Other nodes may hold a "not found" entry for the new id
+        invalidationBus.publish(result.id());
+        emailFilter.add(result.email());
+        logger.debug("User created successfully with id: {}", result.id());
         return result;
     }
 
     @Override
     public UserDto getUser(Long id) {
-        logger.info("Getting user with id: {}", id);
+        logger.debug("Getting user with id: {}", id);
 
         try {
-            UserDto result = userRepository.findById(id)
-                    .map(user -> {
-                        logger.debug("User found: {}", user.getName());
-                        return toDto(user);
-                    })
+            UserDto result = userCache.get(id, key -> replicaRouting.read(key, () -> readRepository.findUserById(key))
+                            .map(user -> {
+                                logger.debug("User found: {}", user.name());
+                                return user;
+                            }))
                     .orElseThrow(() -> {
                         logger.error("User with id {} not found", id);
                         return new RuntimeException("User with id " + id + " not found");
                     });
 
-            logger.info("Successfully retrieved user with id: {}", id);
+            logger.debug("Successfully retrieved user with id: {}", id);
             return result;
         } catch (Exception e) {
             logger.error("Error getting user with id: {}", id, e);
@@ -64,52 +106,128 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
-    public UserDto updateUser(Long id, UserDto dto) {
-        logger.info("Updating user with id: {}, new name: {}, new email: {}", id, dto.name(), dto.email());
+    public UserBatchDto getUsers(List<Long> ids) {
+        logger.debug("Getting {} users by id", ids.size());
+
+        Set<Long> requested = requestedIds(ids);
+        Map<Long, Optional<UserDto>> found = userCache.getAll(requested,
+                missing -> replicaRouting.read(missing, () -> loadUsers(missing)));
+
+        List<UserDto> users = new ArrayList<>(requested.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : requested) {
+            Optional<UserDto> user = found.getOrDefault(id, Optional.empty());
+            if (user.isPresent()) {
+                users.add(user.get());
+            } else {
+                missingIds.add(id);
+            }
+        }
 
-        var user = userRepository.findById(id)
-                .orElseThrow(() -> {
-                    logger.error("User with id {} not found for update", id);
-                    return new RuntimeException("User with id " + id + " not found");
-                });
+        logger.debug("Found {} users, {} ids missing", users.size(), missingIds.size());
+        return new UserBatchDto(users, missingIds);
+    }
 
-        logger.debug("Found user to update: {}", user.getName());
+    @Override
+    public UserDto updateUser(Long id, UserDto dto) {
+        logger.debug("Updating user with id: {}, new name: {}, new email: {}", id, dto.name(), dto.email());
 
-        // Check if email is being changed and if the new email already exists for another user
-        if (!user.getEmail().equals(dto.email())) {
-            userRepository.findByEmail(dto.email()).ifPresent(existingUser -> {
-                if (!existingUser.getId().equals(id)) {
-                    logger.error("Cannot update user. Email {} already in use by another user", dto.email());
-                    throw new RuntimeException("Email " + dto.email() + " already in use by another user");
-                }
-            });
+        // Single conditional UPDATE: the affected row count tells whether the user exists,
+        // the users.email constraint whether the new email is taken
+        logger.debug("Saving updated user to database");
+        int updated;
+        try {
+            updated = userRepository.updateNameAndEmail(id, dto.name(), dto.email());
+        } catch (DataIntegrityViolationException e) {
+            if (!ConstraintViolations.isUniqueViolation(e)) {
+                throw e;
+            }
+            logger.error("Cannot update user. Email {} already in use by another user", dto.email());
+            throw new ConflictException("Email " + dto.email() + " already in use by another user", e);
         }
 
-        user.setName(dto.name());
-        user.setEmail(dto.email());
-
-        logger.debug("Saving updated user to database");
-        UserEntity updatedUser = userRepository.save(user);
+        if (updated == 0) {
+            logger.error("User with id {} not found for update", id);
+            throw new RuntimeException("User with id " + id + " not found");
+        }
 
-        UserDto result = toDto(updatedUser);
-        logger.info("User with id: {} updated successfully", id);
+        UserDto result = new UserDto(id, dto.name(), dto.email());
+        // Before the invalidation, so the entries are reloaded from the primary
+        replicaRouting.written(id);
+        userCache.invalidate(id);
+        versionCache.invalidate(id);
+        invalidationBus.publish(id);
+        // The previous email stays in the filter as a false positive until the next rebuild
+        emailFilter.add(dto.email());
+        logger.debug("User with id: {} updated successfully", id);
         return result;
     }
 
     @Override
     public void deleteUser(Long id) {
-        logger.info("Deleting user with id: {}", id);
+        logger.debug("Deleting user with id: {}", id);
 
         try {
-            userRepository.deleteById(id);
-            logger.info("User with id: {} deleted successfully", id);
+            // Read before the delete: the user's subscriptions go with it through ON DELETE CASCADE
+            List<SubscriptionDailyCountDto> subscriptions = dailyCounts.inWriteTransaction(() -> {
+                List<SubscriptionDailyCountDto> counts = subscriptionRepository.countDailyByUserId(id);
+                userRepository.deleteById(id);
+                dailyCounts.decrementAll(counts);
+                return counts;
+            });
+            replicaRouting.written(id);
+            userCache.invalidate(id);
+            versionCache.invalidate(id);
+            invalidationBus.publish(id);
+            for (SubscriptionDailyCountDto count : subscriptions) {
+                popularityIndex.decrement(count.serviceName(), count.count());
+            }
+            logger.debug("User with id: {} deleted successfully", id);
         } catch (Exception e) {
             logger.error("Error deleting user with id: {}", id, e);
             throw e;
         }
     }
 
-    private UserDto toDto(UserEntity user) {
+    @Override
+    public long getUserVersion(Long id) {
+        return versionCache.get(id, key -> replicaRouting.read(key, () -> readRepository.findUserVersion(key)))
+                .orElseThrow(() -> {
+                    logger.error("User with id {} not found", id);
+                    return new RuntimeException("User with id " + id + " not found");
+                });
+    }
+
+    /**
+     * Distinct non-null ids in request order, limited to {@link #MAX_BATCH_SIZE}.
+     */
+    static Set<Long> requestedIds(List<Long> ids) {
+        Set<Long> requested = new LinkedHashSet<>(ids);
+        requested.remove(null);
+        if (requested.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("At most " + MAX_BATCH_SIZE + " ids can be requested at once");
+        }
+        return requested;
+    }
+
+    private Map<Long, Optional<UserDto>> loadUsers(Set<Long> ids) {
+        Map<Long, Optional<UserDto>> result = new HashMap<>();
+        List<Long> chunk = new ArrayList<>(LOOKUP_CHUNK_SIZE);
+        for (Long id : ids) {
+            result.put(id, Optional.empty());
+            chunk.add(id);
+            if (chunk.size() == LOOKUP_CHUNK_SIZE) {
+                readRepository.findUsersByIds(chunk).forEach(user -> result.put(user.id(), Optional.of(user)));
+                chunk = new ArrayList<>(LOOKUP_CHUNK_SIZE);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            readRepository.findUsersByIds(chunk).forEach(user -> result.put(user.id(), Optional.of(user)));
+        }
+        return result;
+    }
+
+    UserDto toDto(UserEntity user) {
         logger.trace("Converting user entity to DTO: id={}, name={}", user.getId(), user.getName());
         return new UserDto(user.getId(), user.getName(), user.getEmail());
     }
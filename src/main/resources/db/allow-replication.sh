@@ -0,0 +1,3 @@
+#!/bin/bash
+# Lets the db-replica service (docker compose --profile replica) stream from this database
+echo "host replication all all scram-sha-256" >> "$PGDATA/pg_hba.conf"
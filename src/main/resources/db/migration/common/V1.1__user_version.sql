@@ -0,0 +1,2 @@
+-- Растёт при каждом изменении пользователя или его подписок, используется как ETag
+ALTER TABLE users ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,4 @@
+-- Подписки без даты начала получают значение по умолчанию столбца: без даты подписка не попадает
+-- ни в страницы пользователя по (start_date, id), ни в дневные сводки
+UPDATE subscriptions SET start_date = CURRENT_DATE WHERE start_date IS NULL;
+ALTER TABLE subscriptions ALTER COLUMN start_date SET NOT NULL;
@@ -0,0 +1,11 @@
+-- Число подписок по дате начала и сервису для ТОП-N за период
+CREATE TABLE subscription_daily_counts (
+                                           start_date DATE NOT NULL,
+                                           service_name VARCHAR(100) NOT NULL,
+                                           subscription_count BIGINT NOT NULL,
+                                           PRIMARY KEY (start_date, service_name)
+);
+
+-- Сводки по уже существующим подпискам, дальше их поддерживает приложение
+INSERT INTO subscription_daily_counts (start_date, service_name, subscription_count)
+SELECT start_date, service_name, COUNT(*) FROM subscriptions GROUP BY start_date, service_name;
@@ -0,0 +1,4 @@
+-- Сущности отображают id как Long; проверка схемы Hibernate требует BIGINT
+ALTER TABLE subscriptions ALTER COLUMN user_id TYPE BIGINT;
+ALTER TABLE subscriptions ALTER COLUMN id TYPE BIGINT;
+ALTER TABLE users ALTER COLUMN id TYPE BIGINT;
@@ -0,0 +1,3 @@
+-- H2 не поддерживает INCLUDE, service_name добавлен в ключ индекса
+CREATE INDEX idx_subscriptions_user_start_id ON subscriptions(user_id, start_date, id, service_name);
+DROP INDEX idx_user_id;
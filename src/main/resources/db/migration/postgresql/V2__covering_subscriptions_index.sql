@@ -0,0 +1,4 @@
+-- Покрывающий индекс для keyset-пагинации подписок пользователя по (start_date, id),
+-- он же обслуживает поиск по user_id, поэтому idx_user_id больше не нужен
+CREATE INDEX idx_subscriptions_user_start_id ON subscriptions(user_id, start_date, id) INCLUDE (service_name);
+DROP INDEX idx_user_id;
@@ -0,0 +1,3 @@
+-- Последовательности SERIAL ограничены диапазоном INTEGER
+ALTER SEQUENCE users_id_seq AS BIGINT;
+ALTER SEQUENCE subscriptions_id_seq AS BIGINT;
@@ -0,0 +1,38 @@
+-- Подписки разбиты на 16 секций по хэшу user_id: запросы и удаления с user_id = ? читают одну секцию,
+-- а очистка и индексы обслуживают секции по отдельности. H2 секционирование не поддерживает,
+-- там таблица остаётся обычной.
+-- Таблица переписывается целиком в одной транзакции, на это время запись в неё заблокирована.
+ALTER TABLE subscriptions RENAME TO subscriptions_unpartitioned;
+ALTER TABLE subscriptions_unpartitioned RENAME CONSTRAINT subscriptions_pkey TO subscriptions_unpartitioned_pkey;
+-- Иначе последовательность удалится вместе со старой таблицей
+ALTER SEQUENCE subscriptions_id_seq OWNED BY NONE;
+
+-- Первичный ключ секционированной таблицы обязан включать ключ секционирования
+CREATE TABLE subscriptions (
+                               id BIGINT NOT NULL DEFAULT nextval('subscriptions_id_seq'),
+                               user_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+                               service_name VARCHAR(100) NOT NULL,
+                               start_date DATE NOT NULL DEFAULT CURRENT_DATE,
+                               PRIMARY KEY (user_id, id)
+) PARTITION BY HASH (user_id);
+
+DO $$
+BEGIN
+    FOR remainder IN 0..15 LOOP
+        EXECUTE format('CREATE TABLE subscriptions_p%s PARTITION OF subscriptions '
+                           || 'FOR VALUES WITH (MODULUS 16, REMAINDER %s)', remainder, remainder);
+    END LOOP;
+END
+$$;
+
+INSERT INTO subscriptions (id, user_id, service_name, start_date)
+SELECT id, user_id, service_name, start_date FROM subscriptions_unpartitioned;
+
+DROP TABLE subscriptions_unpartitioned;
+ALTER SEQUENCE subscriptions_id_seq OWNED BY subscriptions.id;
+
+-- Индексы создаются на каждой секции
+CREATE INDEX idx_service_name ON subscriptions(service_name);
+CREATE INDEX idx_subscriptions_user_start_id ON subscriptions(user_id, start_date, id) INCLUDE (service_name);
+
+ANALYZE subscriptions;
@@ -0,0 +1,101 @@
+package org.example.tech_spec_java_spring_final_v2.benchmark;
+
+import org.example.tech_spec_java_spring_final_v2.dto.ImportReportDto;
+import org.example.tech_spec_java_spring_final_v2.dto.SubscriptionDto;
+import org.example.tech_spec_java_spring_final_v2.dto.UserDto;
+import org.example.tech_spec_java_spring_final_v2.repository.SubscriptionRepository;
+import org.example.tech_spec_java_spring_final_v2.repository.UserRepository;
+import org.example.tech_spec_java_spring_final_v2.service.BulkImportService;
+import org.example.tech_spec_java_spring_final_v2.service.DataFormat;
+import org.example.tech_spec_java_spring_final_v2.service.SubscriptionService;
+import org.example.tech_spec_java_spring_final_v2.service.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares the bulk import with the same rows loaded through the per-row service API.
+ * Run with {@code ./gradlew benchmark}; the numbers are only comparable on the same machine.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@ActiveProfiles("test")
+class BulkImportBenchmarkTest {
+
+    private static final int USERS = 5_000;
+    private static final int SUBSCRIPTIONS_PER_USER = 2;
+
+    @Autowired
+    private BulkImportService bulkImportService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private SubscriptionService subscriptionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SubscriptionRepository subscriptionRepository;
+
+    @AfterEach
+    void tearDown() {
+        subscriptionRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void perRowApi() {
+        long started = System.nanoTime();
+        for (int i = 0; i < USERS; i++) {
+            UserDto user = userService.createUser(new UserDto(null, "User " + i, "per-row-" + i + "@example.com"));
+            for (int j = 0; j < SUBSCRIPTIONS_PER_USER; j++) {
+                subscriptionService.addSubscription(user.id(),
+                        new SubscriptionDto(null, user.id(), "Service " + j, LocalDate.of(2024, 1, 1)));
+            }
+        }
+        report("per-row API", started);
+        assertEquals(USERS, userRepository.count());
+    }
+
+    @Test
+    void bulkImport() {
+        StringBuilder users = new StringBuilder("name,email\n");
+        StringBuilder subscriptions = new StringBuilder("userEmail,serviceName,startDate\n");
+        for (int i = 0; i < USERS; i++) {
+            users.append("User ").append(i).append(",bulk-").append(i).append("@example.com\n");
+            for (int j = 0; j < SUBSCRIPTIONS_PER_USER; j++) {
+                subscriptions.append("bulk-").append(i).append("@example.com,Service ").append(j).append(",2024-01-01\n");
+            }
+        }
+
+        long started = System.nanoTime();
+        ImportReportDto userReport = bulkImportService.importUsers(stream(users), DataFormat.CSV);
+        ImportReportDto subscriptionReport = bulkImportService.importSubscriptions(stream(subscriptions), DataFormat.CSV);
+        report("bulk import", started);
+
+        assertEquals(USERS, userReport.accepted());
+        assertEquals((long) USERS * SUBSCRIPTIONS_PER_USER, subscriptionReport.accepted());
+    }
+
+    private static ByteArrayInputStream stream(StringBuilder content) {
+        return new ByteArrayInputStream(content.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void report(String name, long started) {
+        long millis = (System.nanoTime() - started) / 1_000_000;
+        int rows = USERS * (1 + SUBSCRIPTIONS_PER_USER);
+        System.out.printf("%s: %d rows in %d ms (%.0f rows/s)%n", name, rows, millis, rows * 1000.0 / Math.max(millis, 1));
+    }
+}
@@ -0,0 +1,129 @@
+package org.example.tech_spec_java_spring_final_v2.benchmark;
+
+import org.example.tech_spec_java_spring_final_v2.TechSpecJavaSpringFinalV2Application;
+import org.example.tech_spec_java_spring_final_v2.dto.SubscriptionDto;
+import org.example.tech_spec_java_spring_final_v2.dto.UserDto;
+import org.example.tech_spec_java_spring_final_v2.service.SubscriptionService;
+import org.example.tech_spec_java_spring_final_v2.service.UserService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Drives the same concurrent mix of user and subscription reads against the servlet stack
+ * (Tomcat, JDBC) and the {@code reactive} profile (Netty, R2DBC), both with 10 database connections,
+ * and reports throughput, latency and the peak number of platform threads.
+ * Run with {@code ./gradlew benchmark}; the numbers are only comparable on the same machine.
+ */
+@Tag("benchmark")
+class ReactiveStackBenchmarkTest {
+
+    private static final int USERS = 200;
+    private static final int SUBSCRIPTIONS_PER_USER = 5;
+    private static final int CLIENTS = 1_000;
+    private static final int REQUESTS_PER_CLIENT = 20;
+
+    @Test
+    void servletStack() throws Exception {
+        run("servlet", "stackbenchservlet", "test");
+    }
+
+    @Test
+    void reactiveStack() throws Exception {
+        run("reactive", "stackbenchreactive", "test", "reactive");
+    }
+
+    private void run(String name, String database, String... profiles) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(TechSpecJavaSpringFinalV2Application.class)
+                .profiles(profiles)
+                .properties("server.port=0",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN",
+                        "spring.datasource.hikari.maximum-pool-size=10",
+                        // Compares thread models at full load, nothing may be shed
+                        "app.admission.enabled=false")
+                // Arguments, unlike the default properties above, take precedence over the profiles' settings;
+                // both drivers must open the same in-memory database
+                .run("--spring.datasource.url=jdbc:h2:mem:" + database,
+                        "--spring.r2dbc.url=r2dbc:h2:mem:///" + database,
+                        "--spring.r2dbc.pool.max-size=10")) {
+            List<Long> userIds = seed(context);
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+
+            HttpClient client = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+            ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+            threads.resetPeakThreadCount();
+            long[] latencies = new long[CLIENTS * REQUESTS_PER_CLIENT];
+            long started = System.nanoTime();
+            try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+                List<Future<?>> futures = new ArrayList<>(CLIENTS);
+                for (int c = 0; c < CLIENTS; c++) {
+                    int offset = c * REQUESTS_PER_CLIENT;
+                    futures.add(clients.submit(() -> {
+                        for (int r = 0; r < REQUESTS_PER_CLIENT; r++) {
+                            Long userId = userIds.get(ThreadLocalRandom.current().nextInt(userIds.size()));
+                            String path = r % 2 == 0 ? "/users/" + userId : "/users/" + userId + "/subscriptions";
+                            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).build();
+                            long sent = System.nanoTime();
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            latencies[offset + r] = System.nanoTime() - sent;
+                            assertEquals(200, response.statusCode());
+                        }
+                        return null;
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            }
+            report(name, started, latencies, threads.getPeakThreadCount());
+        }
+    }
+
+    private static List<Long> seed(ConfigurableApplicationContext context) {
+        UserService userService = context.getBean(UserService.class);
+        SubscriptionService subscriptionService = context.getBean(SubscriptionService.class);
+        List<Long> userIds = new ArrayList<>(USERS);
+        for (int i = 0; i < USERS; i++) {
+            UserDto user = userService.createUser(new UserDto(null, "User " + i, "stack-" + i + "@example.com"));
+            for (int j = 0; j < SUBSCRIPTIONS_PER_USER; j++) {
+                subscriptionService.addSubscription(user.id(),
+                        new SubscriptionDto(null, user.id(), "Service " + j, LocalDate.of(2024, 1, 1).plusDays(j)));
+            }
+            userIds.add(user.id());
+        }
+        return userIds;
+    }
+
+    private static void report(String name, long started, long[] latencies, int peakThreads) {
+        long millis = (System.nanoTime() - started) / 1_000_000;
+        Arrays.sort(latencies);
+        System.out.printf("%s: %d requests in %d ms (%.0f req/s), p50 %.1f ms, p99 %.1f ms, max %.1f ms, peak %d threads%n",
+                name, latencies.length, millis, latencies.length * 1000.0 / Math.max(millis, 1),
+                percentile(latencies, 0.50), percentile(latencies, 0.99), latencies[latencies.length - 1] / 1e6,
+                peakThreads);
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        return sorted[(int) Math.min(sorted.length - 1, Math.round(percentile * sorted.length))] / 1e6;
+    }
+}
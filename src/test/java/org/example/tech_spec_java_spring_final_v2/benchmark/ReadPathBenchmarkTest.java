@@ -0,0 +1,132 @@
+package org.example.tech_spec_java_spring_final_v2.benchmark;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.example.tech_spec_java_spring_final_v2.dto.SubscriptionDto;
+import org.example.tech_spec_java_spring_final_v2.dto.UserDto;
+import org.example.tech_spec_java_spring_final_v2.entity.SubscriptionEntity;
+import org.example.tech_spec_java_spring_final_v2.entity.UserEntity;
+import org.example.tech_spec_java_spring_final_v2.repository.JdbcReadRepository;
+import org.example.tech_spec_java_spring_final_v2.repository.SubscriptionRepository;
+import org.example.tech_spec_java_spring_final_v2.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.LongFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares the read endpoints' data access through JPA entities (as before the JDBC read path)
+ * with {@link JdbcReadRepository}, reporting time and heap allocation per call.
+ * Run with {@code ./gradlew benchmark --tests '*ReadPathBenchmarkTest'}.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@ActiveProfiles("test")
+class ReadPathBenchmarkTest {
+
+    private static final int USERS = 1_000;
+    private static final int SUBSCRIPTIONS_PER_USER = 10;
+    private static final int PAGE_SIZE = 20;
+    private static final int WARMUP = 5_000;
+    private static final int ITERATIONS = 20_000;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcReadRepository readRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SubscriptionRepository subscriptionRepository;
+
+    private long[] userIds;
+
+    @BeforeEach
+    void setUp() {
+        List<UserEntity> users = new ArrayList<>(USERS);
+        for (int i = 0; i < USERS; i++) {
+            users.add(UserEntity.builder().name("User " + i).email("read-" + i + "@example.com").build());
+        }
+        users = userRepository.saveAll(users);
+
+        List<SubscriptionEntity> subscriptions = new ArrayList<>(USERS * SUBSCRIPTIONS_PER_USER);
+        for (UserEntity user : users) {
+            for (int j = 0; j < SUBSCRIPTIONS_PER_USER; j++) {
+                subscriptions.add(SubscriptionEntity.builder()
+                        .userId(user.getId()).serviceName("Service " + j).startDate(LocalDate.of(2024, 1, 1 + j)).build());
+            }
+        }
+        subscriptionRepository.saveAll(subscriptions);
+        userIds = users.stream().mapToLong(UserEntity::getId).toArray();
+    }
+
+    @AfterEach
+    void tearDown() {
+        subscriptionRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void getUser() {
+        run("getUser via entity", id -> inEntityManager(em -> {
+            UserEntity user = em.find(UserEntity.class, id);
+            return new UserDto(user.getId(), user.getName(), user.getEmail());
+        }));
+        run("getUser via JDBC", id -> readRepository.findUserById(id).orElseThrow());
+    }
+
+    @Test
+    void getUserSubscriptions() {
+        // The entity path fetches the owning user too, as the eager association used to
+        run("subscriptions page via entity", id -> inEntityManager(em -> em.createQuery(
+                        "SELECT s FROM SubscriptionEntity s JOIN FETCH s.user WHERE s.user.id = :userId " +
+                                "ORDER BY s.startDate, s.id", SubscriptionEntity.class)
+                .setParameter("userId", id)
+                .setMaxResults(PAGE_SIZE + 1)
+                .getResultStream()
+                .map(s -> new SubscriptionDto(s.getId(), s.getUser().getId(), s.getServiceName(), s.getStartDate()))
+                .toList()));
+        run("subscriptions page via JDBC", id -> readRepository.findFirstSubscriptionPage(id, PAGE_SIZE + 1));
+
+        assertEquals(SUBSCRIPTIONS_PER_USER, readRepository.findFirstSubscriptionPage(userIds[0], PAGE_SIZE + 1).size());
+    }
+
+    private <T> T inEntityManager(Function<EntityManager, T> work) {
+        try (EntityManager em = entityManagerFactory.createEntityManager()) {
+            return work.apply(em);
+        }
+    }
+
+    private void run(String name, LongFunction<?> operation) {
+        for (int i = 0; i < WARMUP; i++) {
+            operation.apply(userIds[i % userIds.length]);
+        }
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        long started = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            operation.apply(userIds[i % userIds.length]);
+        }
+        long elapsed = System.nanoTime() - started;
+        long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+
+        System.out.printf("%s: %.1f us/op, %d bytes/op%n", name,
+                elapsed / 1000.0 / ITERATIONS, allocated / ITERATIONS);
+    }
+}
@@ -0,0 +1,120 @@
+package org.example.tech_spec_java_spring_final_v2.benchmark;
+
+import org.example.tech_spec_java_spring_final_v2.TechSpecJavaSpringFinalV2Application;
+import org.example.tech_spec_java_spring_final_v2.dto.SubscriptionDto;
+import org.example.tech_spec_java_spring_final_v2.dto.UserDto;
+import org.example.tech_spec_java_spring_final_v2.service.SubscriptionService;
+import org.example.tech_spec_java_spring_final_v2.service.UserService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Drives the same concurrent read load against the application started with the default
+ * platform thread pool and with the {@code virtual-threads} profile.
+ * Run with {@code ./gradlew benchmark}; the numbers are only comparable on the same machine.
+ */
+@Tag("benchmark")
+class VirtualThreadsBenchmarkTest {
+
+    private static final int USERS = 200;
+    private static final int SUBSCRIPTIONS_PER_USER = 5;
+    private static final int CLIENTS = 400;
+    private static final int REQUESTS_PER_CLIENT = 50;
+
+    @Test
+    void platformThreads() throws Exception {
+        run("platform threads", "test");
+    }
+
+    @Test
+    void virtualThreads() throws Exception {
+        run("virtual threads", "test", "virtual-threads");
+    }
+
+    private void run(String name, String... profiles) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(TechSpecJavaSpringFinalV2Application.class)
+                .profiles(profiles)
+                .properties("server.port=0",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN",
+                        "spring.datasource.url=jdbc:h2:mem:vt-bench-" + profiles.length,
+                        "spring.datasource.hikari.maximum-pool-size=10",
+                        // Compares thread models at full load, nothing may be shed
+                        "app.admission.enabled=false")
+                .run()) {
+            List<Long> userIds = seed(context);
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+
+            HttpClient client = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+            long[] latencies = new long[CLIENTS * REQUESTS_PER_CLIENT];
+            long started = System.nanoTime();
+            try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+                List<Future<?>> futures = new ArrayList<>(CLIENTS);
+                for (int c = 0; c < CLIENTS; c++) {
+                    int offset = c * REQUESTS_PER_CLIENT;
+                    futures.add(clients.submit(() -> {
+                        for (int r = 0; r < REQUESTS_PER_CLIENT; r++) {
+                            Long userId = userIds.get(ThreadLocalRandom.current().nextInt(userIds.size()));
+                            HttpRequest request = HttpRequest.newBuilder(
+                                    URI.create("http://localhost:" + port + "/users/" + userId + "/subscriptions")).build();
+                            long sent = System.nanoTime();
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            latencies[offset + r] = System.nanoTime() - sent;
+                            assertEquals(200, response.statusCode());
+                        }
+                        return null;
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            }
+            report(name, started, latencies);
+        }
+    }
+
+    private static List<Long> seed(ConfigurableApplicationContext context) {
+        UserService userService = context.getBean(UserService.class);
+        SubscriptionService subscriptionService = context.getBean(SubscriptionService.class);
+        List<Long> userIds = new ArrayList<>(USERS);
+        for (int i = 0; i < USERS; i++) {
+            UserDto user = userService.createUser(new UserDto(null, "User " + i, "vt-" + i + "@example.com"));
+            for (int j = 0; j < SUBSCRIPTIONS_PER_USER; j++) {
+                subscriptionService.addSubscription(user.id(),
+                        new SubscriptionDto(null, user.id(), "Service " + j, LocalDate.of(2024, 1, 1).plusDays(j)));
+            }
+            userIds.add(user.id());
+        }
+        return userIds;
+    }
+
+    private static void report(String name, long started, long[] latencies) {
+        long millis = (System.nanoTime() - started) / 1_000_000;
+        Arrays.sort(latencies);
+        System.out.printf("%s: %d requests in %d ms (%.0f req/s), p50 %.1f ms, p99 %.1f ms, max %.1f ms%n",
+                name, latencies.length, millis, latencies.length * 1000.0 / Math.max(millis, 1),
+                percentile(latencies, 0.50), percentile(latencies, 0.99), latencies[latencies.length - 1] / 1e6);
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        return sorted[(int) Math.min(sorted.length - 1, Math.round(percentile * sorted.length))] / 1e6;
+    }
+}
@@ -0,0 +1,176 @@
+package org.example.tech_spec_java_spring_final_v2.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.tech_spec_java_spring_final_v2.dto.UserDto;
+import org.example.tech_spec_java_spring_final_v2.repository.ReplicaRouting;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+class CacheInvalidationBusTest {
+
+    private final LocalInvalidationTransport transportA = new LocalInvalidationTransport(7999);
+    private final LocalInvalidationTransport transportB = transportA.peer();
+    private final Node nodeA = new Node(transportA);
+    private final Node nodeB = new Node(transportB);
+
+    @BeforeEach
+    void setUp() {
+        nodeA.bus.start();
+        nodeB.bus.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        nodeA.bus.stop();
+        nodeB.bus.stop();
+    }
+
+    @Test
+    void flush_ShouldEvictPublishedUsersOnOtherNodesWithOneMessage() {
+        // Arrange
+        nodeB.cache(1L, "Ivan");
+        nodeB.cache(2L, "Olga");
+        nodeA.cache(1L, "Ivan");
+
+        // Act
+        nodeA.bus.publish(1L);
+        nodeA.bus.publishAll(List.of(1L, 2L));
+        nodeA.bus.flush();
+
+        // Assert
+        assertEquals(1, transportA.published().size());
+        assertEquals("reloaded", nodeB.name(1L));
+        assertEquals("reloaded", nodeB.name(2L));
+        assertEquals(0L, nodeB.versionCache.get(1L, id -> Optional.of(0L)).orElseThrow());
+        verify(nodeB.replicaRouting).writtenAll(argThat(ids -> ids.containsAll(List.of(1L, 2L))));
+        // The publisher has invalidated its own entries before publishing
+        assertEquals("Ivan", nodeA.name(1L));
+    }
+
+    @Test
+    void flush_WhenNothingWasPublished_ShouldSendNothing() {
+        // Act
+        nodeA.bus.flush();
+
+        // Assert
+        assertTrue(transportA.published().isEmpty());
+    }
+
+    @Test
+    void publishUsersCreated_ShouldDropNotFoundEntriesOnOtherNodes() {
+        // Arrange
+        nodeB.userCache.get(5L, id -> Optional.empty());
+        assertTrue(nodeB.userCache.isKnownMissing(5L));
+
+        // Act
+        nodeA.bus.publishUsersCreated();
+        nodeA.bus.flush();
+
+        // Assert
+        assertFalse(nodeB.userCache.isKnownMissing(5L));
+    }
+
+    @Test
+    void connectionLoss_ShouldClearAllEntries() {
+        // Arrange
+        nodeB.cache(1L, "Ivan");
+
+        // Act
+        transportB.disconnect();
+
+        // Assert
+        assertEquals("reloaded", nodeB.name(1L));
+    }
+
+    @Test
+    void flush_WhenPublishFails_ShouldRetryWithNextFlush() {
+        // Arrange
+        nodeB.cache(1L, "Ivan");
+        transportA.disconnect();
+        nodeA.bus.publish(1L);
+
+        // Act & Assert
+        nodeA.bus.flush();
+        assertEquals("Ivan", nodeB.name(1L));
+
+        transportA.reconnect();
+        nodeA.bus.flush();
+        assertEquals("reloaded", nodeB.name(1L));
+    }
+
+    @Test
+    void receive_WhenMessageIsMalformed_ShouldClearAllEntries() {
+        // Arrange
+        nodeB.cache(1L, "Ivan");
+
+        // Act
+        nodeB.bus.receive("other:1,x");
+
+        // Assert
+        assertEquals("reloaded", nodeB.name(1L));
+    }
+
+    @Test
+    void encode_ShouldSplitIdsOverPayloadsOfLimitedSize() {
+        // Arrange
+        List<Long> ids = LongStream.rangeClosed(1, 1000).boxed().toList();
+
+        // Act
+        List<String> payloads = CacheInvalidationBus.encode("node", ids, true, 100);
+
+        // Assert
+        Set<String> tokens = new HashSet<>();
+        List<String> all = new ArrayList<>();
+        for (String payload : payloads) {
+            assertTrue(payload.length() <= 100);
+            assertTrue(payload.startsWith("node:"));
+            all.addAll(List.of(payload.substring("node:".length()).split(",")));
+        }
+        tokens.addAll(all);
+        assertEquals(1001, all.size());
+        assertEquals(1001, tokens.size());
+        assertTrue(tokens.contains(CacheInvalidationBus.USERS_CREATED));
+    }
+
+    private static class Node {
+
+        private final UserCache userCache = new UserCache(100, Duration.ofMinutes(1), Duration.ofMinutes(1));
+        private final UserVersionCache versionCache = new UserVersionCache(100, Duration.ofMinutes(1));
+        private final ReplicaRouting replicaRouting = spy(new ReplicaRouting("", Duration.ofSeconds(5), 100));
+        private final CacheInvalidationBus bus;
+
+        Node(InvalidationTransport transport) {
+            StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+            beanFactory.addBean("transport", transport);
+            ObjectProvider<InvalidationTransport> provider = beanFactory.getBeanProvider(InvalidationTransport.class);
+            bus = new CacheInvalidationBus(provider, userCache, versionCache, replicaRouting,
+                    new SimpleMeterRegistry(), Duration.ofHours(1));
+        }
+
+        void cache(Long id, String name) {
+            userCache.put(new UserDto(id, name, name + "@example.com"));
+            versionCache.get(id, key -> Optional.of(7L));
+        }
+
+        String name(Long id) {
+            return userCache.get(id, key -> Optional.of(new UserDto(key, "reloaded", "reloaded@example.com")))
+                    .orElseThrow()
+                    .name();
+        }
+    }
+}
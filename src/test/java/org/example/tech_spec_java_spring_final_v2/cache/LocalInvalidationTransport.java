@@ -0,0 +1,83 @@
+package org.example.tech_spec_java_spring_final_v2.cache;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * In-memory {@link InvalidationTransport} standing in for PostgreSQL in tests. Every
+ * {@link #peer()} is another node on the same network; messages are delivered synchronously on the
+ * publishing thread. {@link #disconnect()} and {@link #reconnect()} simulate a broken connection.
+ */
+public class LocalInvalidationTransport implements InvalidationTransport {
+
+    private final Set<LocalInvalidationTransport> network;
+    private final List<String> published = new CopyOnWriteArrayList<>();
+    private final int maxPayloadBytes;
+
+    private volatile Consumer<String> onMessage;
+    private volatile Runnable onReset;
+    private volatile boolean disconnected;
+
+    public LocalInvalidationTransport(int maxPayloadBytes) {
+        this(ConcurrentHashMap.newKeySet(), maxPayloadBytes);
+    }
+
+    private LocalInvalidationTransport(Set<LocalInvalidationTransport> network, int maxPayloadBytes) {
+        this.network = network;
+        this.maxPayloadBytes = maxPayloadBytes;
+    }
+
+    public LocalInvalidationTransport peer() {
+        return new LocalInvalidationTransport(network, maxPayloadBytes);
+    }
+
+    /**
+     * Payloads sent by this node.
+     */
+    public List<String> published() {
+        return published;
+    }
+
+    public void disconnect() {
+        disconnected = true;
+        onReset.run();
+    }
+
+    public void reconnect() {
+        disconnected = false;
+        onReset.run();
+    }
+
+    @Override
+    public int maxPayloadBytes() {
+        return maxPayloadBytes;
+    }
+
+    @Override
+    public void publish(String payload) {
+        if (disconnected) {
+            throw new IllegalStateException("Not connected");
+        }
+        published.add(payload);
+        for (LocalInvalidationTransport node : network) {
+            if (!node.disconnected) {
+                node.onMessage.accept(payload);
+            }
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<String> onMessage, Runnable onReset) {
+        this.onMessage = onMessage;
+        this.onReset = onReset;
+        network.add(this);
+    }
+
+    @Override
+    public void close() {
+        network.remove(this);
+    }
+}
@@ -0,0 +1,152 @@
+package org.example.tech_spec_java_spring_final_v2.cache;
+
+import org.example.tech_spec_java_spring_final_v2.dto.EmailFilterStatsDto;
+import org.example.tech_spec_java_spring_final_v2.repository.JdbcReadRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+@ExtendWith(MockitoExtension.class)
+class UserEmailFilterTest {
+
+    private static final int USERS = 1_000;
+
+    @Mock
+    private JdbcReadRepository readRepository;
+
+    private UserEmailFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new UserEmailFilter(readRepository, USERS, 0.01);
+    }
+
+    @Test
+    void mightContain_BeforeFirstRebuild_ShouldReportEveryEmailAsPossiblyPresent() {
+        assertTrue(filter.mightContain("anyone@example.com"));
+        assertFalse(filter.stats().loaded());
+    }
+
+    @Test
+    void buildInBackground_ShouldAnswerMaybeUntilTheScanCompletes() throws InterruptedException {
+        // Arrange
+        CountDownLatch scanning = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            scanning.countDown();
+            release.await();
+            return null;
+        }).when(readRepository).forEachUserEmail(any());
+
+        // Act
+        filter.buildInBackground();
+
+        // Assert
+        assertTrue(scanning.await(5, TimeUnit.SECONDS));
+        assertTrue(filter.mightContain("anyone@example.com"));
+        filter.recordFalsePositives(1);
+        assertFalse(filter.stats().loaded());
+        release.countDown();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!filter.stats().loaded() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertFalse(filter.mightContain("anyone@example.com"));
+        assertEquals(0, filter.stats().falsePositives());
+    }
+
+    @Test
+    void rebuild_ShouldContainAllEmailsAndKeepFalsePositiveRateNearConfigured() {
+        // Arrange
+        emailsInDatabase(USERS);
+
+        // Act
+        filter.rebuild();
+
+        // Assert
+        for (int i = 0; i < USERS; i++) {
+            assertTrue(filter.mightContain("user" + i + "@example.com"));
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filter.mightContain("other" + i + "@example.com")) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+        assertTrue(filter.stats().expectedFalsePositiveRate() < 0.02);
+    }
+
+    @Test
+    void add_AfterRebuild_ShouldBeReportedAsPossiblyPresent() {
+        // Arrange
+        emailsInDatabase(0);
+        filter.rebuild();
+        assertFalse(filter.mightContain("new@example.com"));
+
+        // Act
+        filter.add("new@example.com");
+
+        // Assert
+        assertTrue(filter.mightContain("new@example.com"));
+    }
+
+    @Test
+    void add_DuringRebuild_ShouldBeKeptByTheNewFilter() {
+        // Arrange
+        doAnswer(invocation -> {
+            filter.add("concurrent@example.com");
+            return null;
+        }).when(readRepository).forEachUserEmail(any());
+
+        // Act
+        filter.rebuild();
+
+        // Assert
+        assertTrue(filter.mightContain("concurrent@example.com"));
+    }
+
+    @Test
+    void stats_ShouldReportObservedFalsePositiveRate() {
+        // Arrange
+        emailsInDatabase(0);
+        filter.rebuild();
+        filter.add("a@example.com");
+        filter.add("b@example.com");
+
+        // Act
+        List<String> maybe = filter.filterMaybePresent(List.of("a@example.com", "b@example.com",
+                "c@example.com", "d@example.com", "e@example.com"));
+        filter.recordFalsePositives(1);
+        EmailFilterStatsDto stats = filter.stats();
+
+        // Assert
+        assertEquals(List.of("a@example.com", "b@example.com"), maybe);
+        assertEquals(3, stats.definitelyAbsent());
+        assertEquals(2, stats.maybePresent());
+        // One of the four absent emails was answered "maybe"
+        assertEquals(0.25, stats.observedFalsePositiveRate());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void emailsInDatabase(int count) {
+        doAnswer(invocation -> {
+            Consumer<String> consumer = invocation.getArgument(0);
+            for (int i = 0; i < count; i++) {
+                consumer.accept("user" + i + "@example.com");
+            }
+            return null;
+        }).when(readRepository).forEachUserEmail(any());
+    }
+}
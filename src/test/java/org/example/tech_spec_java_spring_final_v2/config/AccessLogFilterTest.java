@@ -0,0 +1,102 @@
+package org.example.tech_spec_java_spring_final_v2.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccessLogFilterTest {
+
+    private Logger logger;
+    private ListAppender<ILoggingEvent> listAppender;
+
+    @BeforeEach
+    void setUp() {
+        logger = (Logger) LoggerFactory.getLogger("access");
+        logger.setLevel(Level.INFO);
+        listAppender = new ListAppender<>();
+        listAppender.start();
+        logger.addAppender(listAppender);
+    }
+
+    @AfterEach
+    void tearDown() {
+        logger.detachAppender(listAppender);
+    }
+
+    @Test
+    void doFilter_WhenSampledIn_ShouldWriteOneRecordWithKeyValues() throws Exception {
+        // Arrange
+        AccessLogFilter filter = new AccessLogFilter(1.0, Duration.ofSeconds(1));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/users/5");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/users/{id}");
+
+        // Act
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        // Assert
+        assertEquals(1, listAppender.list.size());
+        ILoggingEvent event = listAppender.list.get(0);
+        assertEquals(Level.INFO, event.getLevel());
+        assertTrue(event.getFormattedMessage().startsWith("GET /users/5 200 "));
+        assertTrue(event.getKeyValuePairs().stream()
+                .anyMatch(pair -> pair.key.equals("uri") && pair.value.equals("/users/{id}")));
+    }
+
+    @Test
+    void doFilter_WhenSampleRateIsZero_ShouldSkipSuccessfulRequests() throws Exception {
+        // Arrange
+        AccessLogFilter filter = new AccessLogFilter(0.0, Duration.ofSeconds(1));
+
+        // Act
+        filter.doFilter(new MockHttpServletRequest("GET", "/subscriptions/top"),
+                new MockHttpServletResponse(), new MockFilterChain());
+
+        // Assert
+        assertTrue(listAppender.list.isEmpty());
+    }
+
+    @Test
+    void doFilter_WhenSampleRateIsZero_ShouldStillLogClientErrors() throws Exception {
+        // Arrange
+        AccessLogFilter filter = new AccessLogFilter(0.0, Duration.ofSeconds(1));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        filter.doFilter(new MockHttpServletRequest("GET", "/users/404"), response,
+                (req, res) -> ((MockHttpServletResponse) res).setStatus(404));
+
+        // Assert
+        assertEquals(1, listAppender.list.size());
+        assertEquals(Level.INFO, listAppender.list.get(0).getLevel());
+        assertTrue(listAppender.list.get(0).getFormattedMessage().startsWith("GET /users/404 404 "));
+    }
+
+    @Test
+    void doFilter_WhenChainThrows_ShouldLogServerErrorAndRethrow() {
+        // Arrange
+        AccessLogFilter filter = new AccessLogFilter(0.0, Duration.ofSeconds(1));
+
+        // Act & Assert
+        assertThrows(ServletException.class, () -> filter.doFilter(new MockHttpServletRequest("POST", "/users"),
+                new MockHttpServletResponse(), (req, res) -> {
+                    throw new ServletException("boom");
+                }));
+        assertEquals(1, listAppender.list.size());
+        assertEquals(Level.WARN, listAppender.list.get(0).getLevel());
+        assertTrue(listAppender.list.get(0).getFormattedMessage().startsWith("POST /users 500 "));
+    }
+}
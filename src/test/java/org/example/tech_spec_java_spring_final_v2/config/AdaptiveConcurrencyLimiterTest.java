@@ -0,0 +1,113 @@
+package org.example.tech_spec_java_spring_final_v2.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long MILLIS = 1_000_000;
+    private static final Duration WINDOW = Duration.ofMinutes(1);
+
+    @Test
+    void tryAcquire_WhenLimitIsReached_ShouldRejectUntilReleased() {
+        // Arrange
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, 2.0, WINDOW);
+
+        // Act & Assert
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        assertEquals(2, limiter.getInFlight());
+
+        limiter.release(-1);
+        assertTrue(limiter.tryAcquire());
+    }
+
+    @Test
+    void release_WhenLimitIsUsedAndLatencyIsSteady_ShouldGrowLimitUpToMax() {
+        // Arrange
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 1, 10, 2.0, WINDOW);
+
+        // Act
+        for (int i = 0; i < 100; i++) {
+            fill(limiter);
+            release(limiter, 10 * MILLIS);
+        }
+
+        // Assert
+        assertEquals(10, limiter.getLimit());
+        assertFalse(limiter.isLatencyElevated());
+    }
+
+    @Test
+    void release_WhenLimitIsNotUsed_ShouldKeepLimit() {
+        // Arrange
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 1, 10, 2.0, WINDOW);
+
+        // Act
+        for (int i = 0; i < 100; i++) {
+            limiter.tryAcquire();
+            limiter.release(10 * MILLIS);
+        }
+
+        // Assert
+        assertEquals(4, limiter.getLimit());
+    }
+
+    @Test
+    void release_WhenLatencyRisesAboveTolerance_ShouldShrinkLimitDownToMin() {
+        // Arrange
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 2, 20, 2.0, WINDOW);
+        for (int i = 0; i < 50; i++) {
+            limiter.tryAcquire();
+            limiter.release(10 * MILLIS);
+        }
+
+        // Act
+        for (int i = 0; i < 100; i++) {
+            fill(limiter);
+            release(limiter, 200 * MILLIS);
+        }
+
+        // Assert
+        assertEquals(2, limiter.getLimit());
+        assertTrue(limiter.isLatencyElevated());
+    }
+
+    @Test
+    void bindTo_ShouldExposeLimitAndInFlight() {
+        // Arrange
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(3, 1, 10, 2.0, WINDOW)
+                .bindTo(meterRegistry, "read");
+
+        // Act
+        limiter.tryAcquire();
+
+        // Assert
+        assertEquals(3, meterRegistry.get("app.admission.limit").tag("class", "read").gauge().value());
+        assertEquals(1, meterRegistry.get("app.admission.in-flight").tag("class", "read").gauge().value());
+    }
+
+    @Test
+    void constructor_WhenLimitsAreInconsistent_ShouldThrow() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveConcurrencyLimiter(5, 1, 4, 2.0, WINDOW));
+    }
+
+    private static void fill(AdaptiveConcurrencyLimiter limiter) {
+        while (limiter.tryAcquire()) {
+            // take every permit
+        }
+    }
+
+    private static void release(AdaptiveConcurrencyLimiter limiter, long latencyNanos) {
+        while (limiter.getInFlight() > 0) {
+            limiter.release(latencyNanos);
+        }
+    }
+}
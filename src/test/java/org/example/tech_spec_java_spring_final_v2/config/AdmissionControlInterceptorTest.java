@@ -0,0 +1,109 @@
+package org.example.tech_spec_java_spring_final_v2.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.DispatcherType;
+import org.example.tech_spec_java_spring_final_v2.config.AdmissionControlInterceptor.EndpointClass;
+import org.example.tech_spec_java_spring_final_v2.exception.ServiceUnavailableException;
+import org.example.tech_spec_java_spring_final_v2.exception.TooManyRequestsException;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissionControlInterceptorTest {
+
+    private static final Duration WINDOW = Duration.ofMinutes(1);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AdaptiveConcurrencyLimiter reads = new AdaptiveConcurrencyLimiter(2, 1, 2, 2.0, WINDOW);
+    private final AdaptiveConcurrencyLimiter writes = new AdaptiveConcurrencyLimiter(2, 1, 2, 2.0, WINDOW);
+    private final AdaptiveConcurrencyLimiter analytics = new AdaptiveConcurrencyLimiter(1, 1, 1, 2.0, WINDOW);
+    private final AdmissionControlInterceptor interceptor = new AdmissionControlInterceptor(
+            Map.of(EndpointClass.READ, reads, EndpointClass.WRITE, writes, EndpointClass.ANALYTICS, analytics),
+            Duration.ofSeconds(2), meterRegistry);
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    @Test
+    void classify_ShouldSeparateAnalyticsReadsAndWrites() {
+        // Act & Assert
+        assertEquals(EndpointClass.ANALYTICS, AdmissionControlInterceptor.classify(request("GET", "/subscriptions/top")));
+        assertEquals(EndpointClass.ANALYTICS, AdmissionControlInterceptor.classify(request("GET", "/subscriptions/export")));
+        assertEquals(EndpointClass.READ, AdmissionControlInterceptor.classify(request("GET", "/users/{id}")));
+        assertEquals(EndpointClass.WRITE, AdmissionControlInterceptor.classify(request("PUT", "/users/{id}")));
+        assertEquals(EndpointClass.WRITE, AdmissionControlInterceptor.classify(request("POST", "/users/lookup")));
+    }
+
+    @Test
+    void preHandle_WhenBulkheadIsFull_ShouldRejectWith429AndLeaveOtherClassesAlone() {
+        // Arrange
+        interceptor.preHandle(request("GET", "/subscriptions/top"), response, null);
+
+        // Act & Assert
+        TooManyRequestsException ex = assertThrows(TooManyRequestsException.class,
+                () -> interceptor.preHandle(request("GET", "/subscriptions/top"), response, null));
+        assertEquals(Duration.ofSeconds(2), ex.getRetryAfter());
+        assertTrue(interceptor.preHandle(request("GET", "/users/{id}"), response, null));
+        assertEquals(1, meterRegistry.get("app.admission.rejected")
+                .tags("class", "analytics", "status", "429").counter().count());
+    }
+
+    @Test
+    void preHandle_WhenLatencyIsElevated_ShouldRejectWith503() {
+        // Arrange
+        for (int i = 0; i < 20; i++) {
+            reads.tryAcquire();
+            reads.release(1_000_000);
+        }
+        for (int i = 0; i < 20; i++) {
+            reads.tryAcquire();
+            reads.release(100_000_000);
+        }
+        interceptor.preHandle(request("GET", "/users/{id}"), response, null);
+
+        // Act & Assert
+        assertThrows(ServiceUnavailableException.class,
+                () -> interceptor.preHandle(request("GET", "/users/{id}"), response, null));
+    }
+
+    @Test
+    void afterCompletion_ShouldReleasePermitOnce() {
+        // Arrange
+        MockHttpServletRequest request = request("POST", "/users");
+        interceptor.preHandle(request, response, null);
+
+        // Act
+        interceptor.afterCompletion(request, response, null, null);
+        interceptor.afterCompletion(request, response, null, null);
+
+        // Assert
+        assertEquals(0, writes.getInFlight());
+    }
+
+    @Test
+    void streamingResponse_ShouldHoldPermitUntilAsyncDispatchCompletes() {
+        // Arrange
+        MockHttpServletRequest request = request("GET", "/subscriptions/export");
+        interceptor.preHandle(request, response, null);
+        interceptor.afterConcurrentHandlingStarted(request, response, null);
+        assertEquals(1, analytics.getInFlight());
+
+        // Act
+        request.setDispatcherType(DispatcherType.ASYNC);
+        assertTrue(interceptor.preHandle(request, response, null));
+        interceptor.afterCompletion(request, response, null, null);
+
+        // Assert
+        assertEquals(0, analytics.getInFlight());
+    }
+
+    private static MockHttpServletRequest request(String method, String pattern) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, pattern);
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, pattern);
+        return request;
+    }
+}
@@ -0,0 +1,93 @@
+package org.example.tech_spec_java_spring_final_v2.config;
+
+import org.example.tech_spec_java_spring_final_v2.repository.SubscriptionDailyCountRepository;
+import org.example.tech_spec_java_spring_final_v2.repository.SubscriptionRepository;
+import org.example.tech_spec_java_spring_final_v2.repository.UserRepository;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.flywaydb.core.api.MigrationState;
+import org.flywaydb.core.api.MigrationVersion;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Takes over a database created by the {@code init.sql} that was shipped before the migrations
+ * (a copy is in the test resources), with data in it, and lets Hibernate validate the entities
+ * against the migrated result, as on the first start of the application against production.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:baseline;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+        "spring.flyway.enabled=true",
+        "spring.flyway.locations=classpath:db/migration/common,classpath:db/migration/h2",
+        "spring.flyway.baseline-on-migrate=true",
+        "spring.flyway.baseline-version=1",
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+@ActiveProfiles("test")
+class BaselineSchemaMigrationTest {
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SubscriptionRepository subscriptionRepository;
+
+    @Autowired
+    private SubscriptionDailyCountRepository dailyCountRepository;
+
+    @TestConfiguration
+    static class BaselineSchema {
+
+        @Bean
+        @Primary
+        FlywayMigrationStrategy baselineThenMigrate() {
+            return (Flyway flyway) -> {
+                new ResourceDatabasePopulator(new ClassPathResource("db/init.sql"))
+                        .execute(flyway.getConfiguration().getDataSource());
+                JdbcTemplate jdbcTemplate = new JdbcTemplate(flyway.getConfiguration().getDataSource());
+                jdbcTemplate.update("INSERT INTO users (name, email) VALUES ('Ivan', 'ivan@example.com')");
+                jdbcTemplate.update("INSERT INTO subscriptions (user_id, service_name, start_date) " +
+                        "SELECT id, 'Netflix', DATE '2024-03-01' FROM users");
+                jdbcTemplate.update("INSERT INTO subscriptions (user_id, service_name, start_date) " +
+                        "SELECT id, 'Okko', NULL FROM users");
+                flyway.migrate();
+            };
+        }
+    }
+
+    @Test
+    void migrations_ShouldStartAfterTheBaselineAndAllBeApplied() {
+        // Act
+        MigrationInfo[] applied = flyway.info().applied();
+
+        // Assert
+        assertEquals(MigrationVersion.fromVersion("1"), applied[0].getVersion());
+        assertEquals(MigrationState.BASELINE, applied[0].getState());
+        assertTrue(Arrays.stream(applied).skip(1).allMatch(info -> info.getState() == MigrationState.SUCCESS));
+        assertEquals(0, flyway.info().pending().length);
+    }
+
+    @Test
+    void migratedData_ShouldHaveVersionsStartDatesAndDailyCounts() {
+        // Act & Assert
+        assertEquals(0L, userRepository.findAll().get(0).getVersion());
+        assertTrue(subscriptionRepository.findAll().stream().allMatch(subscription -> subscription.getStartDate() != null));
+        assertEquals(2, dailyCountRepository.count());
+    }
+}
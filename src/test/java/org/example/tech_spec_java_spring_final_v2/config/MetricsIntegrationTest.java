@@ -0,0 +1,65 @@
+package org.example.tech_spec_java_spring_final_v2.config;
+
+import org.example.tech_spec_java_spring_final_v2.repository.JdbcReadRepository;
+import org.example.tech_spec_java_spring_final_v2.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@ActiveProfiles("test")
+class MetricsIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void prometheusEndpoint_ShouldExposeRequestRepositoryHibernateAndCacheMetrics() throws Exception {
+        // Arrange
+        mockMvc.perform(post("/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Metrics User\",\"email\":\"metrics@example.com\"}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/users/{id}", Long.MAX_VALUE))
+                .andExpect(status().isNotFound());
+
+        // Act & Assert
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString(
+                        "http_server_requests_seconds_bucket{error=\"none\",exception=\"none\",method=\"POST\"")))
+                .andExpect(content().string(containsString("uri=\"/users/{id}\"")))
+                .andExpect(content().string(containsString(
+                        "spring_data_repository_invocations_seconds_bucket{exception=\"None\",method=\"save\"")))
+                .andExpect(content().string(containsString(
+                        "app_repository_invocations_seconds_count{class=\"" + JdbcReadRepository.class.getName()
+                                + "\",exception=\"none\",method=\"findUserVersion\"}")))
+                .andExpect(content().string(containsString(
+                        "hibernate_request_statements_count{method=\"POST\",uri=\"/users\"} 1")))
+                .andExpect(content().string(containsString("hibernate_request_flushes_bucket")))
+                .andExpect(content().string(containsString("hibernate_entities_loads_total")))
+                .andExpect(content().string(containsString("cache_gets_total{cache=\"users\"")));
+    }
+}
@@ -0,0 +1,71 @@
+package org.example.tech_spec_java_spring_final_v2.config;
+
+import org.example.tech_spec_java_spring_final_v2.entity.SubscriptionEntity;
+import org.example.tech_spec_java_spring_final_v2.entity.UserEntity;
+import org.example.tech_spec_java_spring_final_v2.repository.SubscriptionRepository;
+import org.example.tech_spec_java_spring_final_v2.repository.UserRepository;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.flywaydb.core.api.MigrationState;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Applies the migrations to an empty database and lets Hibernate validate the entities against the
+ * result, so a mapping that the migrations do not cover fails the build rather than a deployment.
+ * H2 runs the common migrations and the H2 variants of the PostgreSQL-specific ones.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:migrations;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+        "spring.flyway.enabled=true",
+        "spring.flyway.locations=classpath:db/migration/common,classpath:db/migration/h2",
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+@ActiveProfiles("test")
+class SchemaMigrationTest {
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SubscriptionRepository subscriptionRepository;
+
+    @Test
+    void migrations_ShouldAllBeAppliedAndMatchTheEntities() {
+        // Act
+        MigrationInfo[] applied = flyway.info().applied();
+
+        // Assert
+        assertTrue(applied.length > 0);
+        assertTrue(Arrays.stream(applied).allMatch(info -> info.getState() == MigrationState.SUCCESS));
+        assertEquals(0, flyway.info().pending().length);
+    }
+
+    @Test
+    void migratedSchema_ShouldGenerateIdsAndCascadeDeletes() {
+        // Arrange
+        UserEntity user = userRepository.save(UserEntity.builder().name("Ivan").email("ivan@example.com").build());
+        subscriptionRepository.save(SubscriptionEntity.builder()
+                .userId(user.getId())
+                .serviceName("Okko")
+                .startDate(LocalDate.now())
+                .build());
+
+        // Act
+        userRepository.deleteById(user.getId());
+
+        // Assert
+        assertNotNull(user.getId());
+        assertEquals(0, subscriptionRepository.count());
+    }
+}
@@ -0,0 +1,160 @@
+package org.example.tech_spec_java_spring_final_v2.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.tech_spec_java_spring_final_v2.dto.SubscriptionDto;
+import org.example.tech_spec_java_spring_final_v2.dto.SubscriptionPageDto;
+import org.example.tech_spec_java_spring_final_v2.dto.UserDto;
+import org.example.tech_spec_java_spring_final_v2.repository.SubscriptionDailyCountRepository;
+import org.example.tech_spec_java_spring_final_v2.repository.SubscriptionRepository;
+import org.example.tech_spec_java_spring_final_v2.repository.UserRepository;
+import org.example.tech_spec_java_spring_final_v2.service.SubscriptionService;
+import org.example.tech_spec_java_spring_final_v2.service.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ETags, content negotiation and compression as seen by an HTTP client of the servlet stack.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class ConditionalGetIntegrationTest {
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private SubscriptionService subscriptionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SubscriptionRepository subscriptionRepository;
+
+    @Autowired
+    private SubscriptionDailyCountRepository dailyCountRepository;
+
+    @AfterEach
+    void tearDown() {
+        subscriptionRepository.deleteAll();
+        userRepository.deleteAll();
+        dailyCountRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void getUser_ShouldBeNotModifiedUntilUserIsUpdated() throws Exception {
+        // Arrange
+        UserDto user = userService.createUser(new UserDto(null, "Ivan", "ivan@example.com"));
+        String path = "/users/" + user.id();
+        String eTag = get(path, null).headers().firstValue("ETag").orElseThrow();
+
+        // Act & Assert
+        assertEquals(304, get(path, eTag).statusCode());
+
+        userService.updateUser(user.id(), new UserDto(null, "Ivan", "ivan.new@example.com"));
+        HttpResponse<String> changed = get(path, eTag);
+        assertEquals(200, changed.statusCode());
+        assertNotEquals(eTag, changed.headers().firstValue("ETag").orElseThrow());
+    }
+
+    @Test
+    void getUserSubscriptions_ShouldBeNotModifiedUntilSubscriptionsChange() throws Exception {
+        // Arrange
+        UserDto user = userService.createUser(new UserDto(null, "Olga", "olga@example.com"));
+        subscriptionService.addSubscription(user.id(),
+                new SubscriptionDto(null, null, "Okko", LocalDate.of(2024, 3, 1)));
+        String path = "/users/" + user.id() + "/subscriptions";
+        String eTag = get(path, null).headers().firstValue("ETag").orElseThrow();
+
+        // Act & Assert
+        assertEquals(304, get(path, eTag).statusCode());
+
+        subscriptionService.addSubscription(user.id(),
+                new SubscriptionDto(null, null, "Wink", LocalDate.of(2024, 3, 2)));
+        HttpResponse<String> changed = get(path, eTag);
+        assertEquals(200, changed.statusCode());
+        assertTrue(changed.body().contains("Wink"));
+        String changedETag = changed.headers().firstValue("ETag").orElseThrow();
+        assertNotEquals(eTag, changedETag);
+        assertEquals(304, get(path, changedETag).statusCode());
+    }
+
+    @Test
+    void getUserSubscriptions_WhenPageIsLarge_ShouldBeCompressedAndStillRevalidated() throws Exception {
+        // Arrange
+        UserDto user = userService.createUser(new UserDto(null, "Olga", "olga@example.com"));
+        for (int i = 0; i < 100; i++) {
+            subscriptionService.addSubscription(user.id(),
+                    new SubscriptionDto(null, null, "Service " + i, LocalDate.of(2024, 1, 1).plusDays(i)));
+        }
+        String path = "/users/" + user.id() + "/subscriptions?limit=100";
+
+        // Act
+        HttpResponse<String> response = client.send(request(path)
+                .header("Accept-Encoding", "gzip")
+                .build(), HttpResponse.BodyHandlers.ofString());
+
+        // Assert
+        assertEquals(200, response.statusCode());
+        assertEquals("gzip", response.headers().firstValue("Content-Encoding").orElse(null));
+        String eTag = response.headers().firstValue("ETag").orElseThrow();
+        assertEquals("W/\"" + user.id() + "-100\"", eTag);
+        assertEquals(304, get(path, eTag).statusCode());
+    }
+
+    @Test
+    void getUserSubscriptions_WithCborAccept_ShouldReturnSamePageAsJson() throws Exception {
+        // Arrange
+        UserDto user = userService.createUser(new UserDto(null, "Olga", "olga@example.com"));
+        subscriptionService.addSubscription(user.id(),
+                new SubscriptionDto(null, null, "Okko", LocalDate.of(2024, 3, 1)));
+        String path = "/users/" + user.id() + "/subscriptions";
+
+        // Act
+        HttpResponse<byte[]> cbor = client.send(request(path)
+                .header("Accept", "application/cbor")
+                .build(), HttpResponse.BodyHandlers.ofByteArray());
+        HttpResponse<byte[]> json = client.send(request(path).build(), HttpResponse.BodyHandlers.ofByteArray());
+
+        // Assert
+        assertEquals("application/cbor", cbor.headers().firstValue("Content-Type").orElse(null));
+        assertTrue(json.headers().firstValue("Content-Type").orElseThrow().startsWith("application/json"));
+        SubscriptionPageDto fromCbor = Jackson2ObjectMapperBuilder.cbor().build()
+                .readValue(cbor.body(), SubscriptionPageDto.class);
+        assertEquals(objectMapper.readValue(json.body(), SubscriptionPageDto.class), fromCbor);
+        assertTrue(cbor.body().length < json.body().length);
+    }
+
+    private HttpResponse<String> get(String path, String ifNoneMatch) throws Exception {
+        HttpRequest.Builder request = request(path);
+        if (ifNoneMatch != null) {
+            request.header("If-None-Match", ifNoneMatch);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path));
+    }
+}
@@ -0,0 +1,320 @@
+package org.example.tech_spec_java_spring_final_v2.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.tech_spec_java_spring_final_v2.dto.SubscriptionDto;
+import org.example.tech_spec_java_spring_final_v2.dto.SubscriptionPageDto;
+import org.example.tech_spec_java_spring_final_v2.dto.UserBatchDto;
+import org.example.tech_spec_java_spring_final_v2.dto.UserDto;
+import org.example.tech_spec_java_spring_final_v2.repository.SubscriptionDailyCountRepository;
+import org.example.tech_spec_java_spring_final_v2.repository.SubscriptionRepository;
+import org.example.tech_spec_java_spring_final_v2.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The reactive profile's endpoints against H2 over R2DBC: same statuses and error bodies as the
+ * servlet controllers.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.main.web-application-type=reactive",
+        "spring.datasource.url=jdbc:h2:mem:reactivedb",
+        "spring.r2dbc.url=r2dbc:h2:mem:///reactivedb"})
+@ActiveProfiles({"test", "reactive"})
+@AutoConfigureWebTestClient
+class ReactiveControllersIntegrationTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SubscriptionRepository subscriptionRepository;
+
+    @Autowired
+    private SubscriptionDailyCountRepository dailyCountRepository;
+
+    @AfterEach
+    void tearDown() {
+        subscriptionRepository.deleteAll();
+        userRepository.deleteAll();
+        dailyCountRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void context_ShouldServeUsersFromReactiveControllersOnly() {
+        assertEquals(1, context.getBeansOfType(ReactiveUserController.class).size());
+        assertTrue(context.getBeansOfType(UserController.class).isEmpty());
+    }
+
+    @Test
+    void createUser_ThenGet_ShouldReturnUser() {
+        // Act
+        UserDto created = createUser("Ivan", "ivan@example.com");
+
+        // Assert
+        webTestClient.get().uri("/users/{id}", created.id())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(UserDto.class).isEqualTo(created);
+    }
+
+    @Test
+    void createUser_WithTakenEmail_ShouldReturnConflict() {
+        // Arrange
+        createUser("Ivan", "ivan@example.com");
+
+        // Act & Assert
+        webTestClient.post().uri("/users")
+                .bodyValue(new UserDto(null, "Other", "ivan@example.com"))
+                .exchange()
+                .expectStatus().isEqualTo(409)
+                .expectBody(String.class).isEqualTo("User with email ivan@example.com already exists");
+    }
+
+    @Test
+    void getUser_WhenMissing_ShouldReturnNotFound() {
+        webTestClient.get().uri("/users/{id}", 999_999)
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody(String.class).isEqualTo("User with id 999999 not found");
+    }
+
+    @Test
+    void getUsers_ShouldReturnFoundUsersAndMissingIds() {
+        // Arrange
+        UserDto ivan = createUser("Ivan", "ivan@example.com");
+
+        // Act & Assert
+        webTestClient.get().uri("/users?ids={ids}", ivan.id() + ",999999")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(UserBatchDto.class).isEqualTo(new UserBatchDto(List.of(ivan), List.of(999_999L)));
+    }
+
+    @Test
+    void lookupUsers_WithTooManyIds_ShouldReturnBadRequest() {
+        webTestClient.post().uri("/users/lookup")
+                .bodyValue(LongStream.rangeClosed(1, 1001).boxed().toList())
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void updateUser_ShouldMapMissingUserAndTakenEmail() {
+        // Arrange
+        UserDto ivan = createUser("Ivan", "ivan@example.com");
+        createUser("Olga", "olga@example.com");
+
+        // Act & Assert
+        webTestClient.put().uri("/users/{id}", ivan.id())
+                .bodyValue(new UserDto(null, "Ivan", "ivan.new@example.com"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(UserDto.class).isEqualTo(new UserDto(ivan.id(), "Ivan", "ivan.new@example.com"));
+        webTestClient.put().uri("/users/{id}", ivan.id())
+                .bodyValue(new UserDto(null, "Ivan", "olga@example.com"))
+                .exchange()
+                .expectStatus().isEqualTo(409);
+        webTestClient.put().uri("/users/{id}", 999_999)
+                .bodyValue(new UserDto(null, "Nobody", "nobody@example.com"))
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void addSubscription_ShouldBePagedAndCountedInTop() {
+        // Arrange
+        UserDto user = createUser("Olga", "olga@example.com");
+
+        // Act
+        SubscriptionDto first = addSubscription(user.id(), "Okko", LocalDate.of(2024, 3, 1));
+        addSubscription(user.id(), "Okko", LocalDate.of(2024, 3, 2));
+        addSubscription(user.id(), "Wink", LocalDate.of(2024, 3, 2));
+
+        // Assert
+        SubscriptionPageDto page = webTestClient.get().uri("/users/{id}/subscriptions?limit=1", user.id())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(SubscriptionPageDto.class).returnResult().getResponseBody();
+        assertEquals(List.of(first), page.items());
+        assertNotNull(page.nextPageToken());
+
+        SubscriptionPageDto rest = webTestClient.get()
+                .uri("/users/{id}/subscriptions?pageToken={token}", user.id(), page.nextPageToken())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(SubscriptionPageDto.class).returnResult().getResponseBody();
+        assertEquals(2, rest.items().size());
+        assertNull(rest.nextPageToken());
+
+        webTestClient.get().uri("/subscriptions/top?from=2024-03-01&to=2024-03-31&limit=1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().json("[{\"serviceName\":\"Okko\",\"count\":2}]");
+    }
+
+    @Test
+    void addSubscription_ForMissingUser_ShouldReturnNotFound() {
+        webTestClient.post().uri("/users/{id}/subscriptions", 999_999)
+                .bodyValue(new SubscriptionDto(null, null, "Netflix", null))
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody(String.class).isEqualTo("User with id 999999 not found");
+    }
+
+    @Test
+    void getUserSubscriptions_ShouldMapInvalidRequests() {
+        // Arrange
+        UserDto user = createUser("Olga", "olga@example.com");
+
+        // Act & Assert
+        webTestClient.get().uri("/users/{id}/subscriptions", user.id())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().json("{\"items\":[]}");
+        webTestClient.get().uri("/users/{id}/subscriptions", 999_999)
+                .exchange()
+                .expectStatus().isNotFound();
+        webTestClient.get().uri("/users/{id}/subscriptions?pageToken=broken", user.id())
+                .exchange()
+                .expectStatus().isBadRequest();
+        webTestClient.get().uri("/users/{id}/subscriptions?limit=0", user.id())
+                .exchange()
+                .expectStatus().isBadRequest();
+        webTestClient.get().uri("/subscriptions/top?from=2024-03-02&to=2024-03-01")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void getUserSubscriptions_ShouldBeNotModifiedUntilSubscriptionsChange() {
+        // Arrange
+        UserDto user = createUser("Olga", "olga@example.com");
+        addSubscription(user.id(), "Okko", LocalDate.of(2024, 3, 1));
+        String eTag = webTestClient.get().uri("/users/{id}/subscriptions", user.id())
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(String.class).getResponseHeaders().getETag();
+
+        // Act & Assert
+        assertEquals("W/\"" + user.id() + "-1\"", eTag);
+        webTestClient.get().uri("/users/{id}/subscriptions", user.id())
+                .header("If-None-Match", eTag)
+                .exchange()
+                .expectStatus().isNotModified();
+
+        addSubscription(user.id(), "Wink", LocalDate.of(2024, 3, 2));
+        webTestClient.get().uri("/users/{id}/subscriptions", user.id())
+                .header("If-None-Match", eTag)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("ETag", "W/\"" + user.id() + "-2\"");
+        webTestClient.get().uri("/users/{id}", user.id())
+                .header("If-None-Match", "W/\"" + user.id() + "-2\"")
+                .exchange()
+                .expectStatus().isNotModified();
+    }
+
+    @Test
+    void createAndGetUser_WithCbor_ShouldRoundTrip() throws Exception {
+        // Arrange
+        ObjectMapper cborMapper = Jackson2ObjectMapperBuilder.cbor().build();
+
+        // Act
+        UserDto created = webTestClient.post().uri("/users")
+                .contentType(MediaType.APPLICATION_CBOR)
+                .bodyValue(cborMapper.writeValueAsBytes(new UserDto(null, "Ivan", "ivan@example.com")))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(UserDto.class).returnResult().getResponseBody();
+        byte[] body = webTestClient.get().uri("/users/{id}", created.id())
+                .accept(MediaType.APPLICATION_CBOR)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_CBOR)
+                .expectBody().returnResult().getResponseBody();
+
+        // Assert
+        assertEquals(new UserDto(created.id(), "Ivan", "ivan@example.com"), cborMapper.readValue(body, UserDto.class));
+    }
+
+    @Test
+    void deleteUser_ShouldRemoveUserAndItsRollups() {
+        // Arrange
+        UserDto user = createUser("Olga", "olga@example.com");
+        addSubscription(user.id(), "Okko", LocalDate.of(2024, 3, 1));
+
+        // Act
+        webTestClient.delete().uri("/users/{id}", user.id())
+                .exchange()
+                .expectStatus().isOk();
+
+        // Assert
+        webTestClient.get().uri("/users/{id}", user.id())
+                .exchange()
+                .expectStatus().isNotFound();
+        webTestClient.get().uri("/subscriptions/top?from=2024-03-01&to=2024-03-31")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().json("[]");
+    }
+
+    @Test
+    void deleteSubscription_ShouldDeleteOnceAndThenAnswerNotFound() {
+        // Arrange
+        UserDto user = createUser("Olga", "olga@example.com");
+        UserDto other = createUser("Petr", "petr@example.com");
+        SubscriptionDto subscription = addSubscription(user.id(), "Okko", LocalDate.of(2024, 3, 1));
+
+        // Act & Assert
+        webTestClient.delete().uri("/users/{userId}/subscriptions/{id}", other.id(), subscription.id())
+                .exchange()
+                .expectStatus().isNotFound();
+        webTestClient.delete().uri("/users/{userId}/subscriptions/{id}", user.id(), subscription.id())
+                .exchange()
+                .expectStatus().isNoContent();
+        webTestClient.delete().uri("/users/{userId}/subscriptions/{id}", user.id(), subscription.id())
+                .exchange()
+                .expectStatus().isNotFound();
+        assertEquals(0, subscriptionRepository.count());
+        webTestClient.get().uri("/subscriptions/top?from=2024-03-01&to=2024-03-31")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().json("[]");
+    }
+
+    private UserDto createUser(String name, String email) {
+        return webTestClient.post().uri("/users")
+                .bodyValue(new UserDto(null, name, email))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(UserDto.class).returnResult().getResponseBody();
+    }
+
+    private SubscriptionDto addSubscription(Long userId, String serviceName, LocalDate startDate) {
+        return webTestClient.post().uri("/users/{id}/subscriptions", userId)
+                .bodyValue(new SubscriptionDto(null, null, serviceName, startDate))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(SubscriptionDto.class).returnResult().getResponseBody();
+    }
+}
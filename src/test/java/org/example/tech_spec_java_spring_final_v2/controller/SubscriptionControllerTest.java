@@ -2,6 +2,10 @@ package org.example.tech_spec_java_spring_final_v2.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.example.tech_spec_java_spring_final_v2.dto.SubscriptionDto;
+import org.example.tech_spec_java_spring_final_v2.dto.SubscriptionPageDto;
+import org.example.tech_spec_java_spring_final_v2.dto.SubscriptionWriteDto;
+import org.example.tech_spec_java_spring_final_v2.dto.TopSubscriptionDto;
+import org.example.tech_spec_java_spring_final_v2.exception.TooManyRequestsException;
 import org.example.tech_spec_java_spring_final_v2.service.SubscriptionService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,6 +18,7 @@ import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.List;
@@ -67,6 +72,55 @@ public class SubscriptionControllerTest {
                 .andExpect(jsonPath("$.serviceName").value(outputDto.serviceName()));
     }
 
+    @Test
+    public void testAddSubscriptionWriteBehind() throws Exception {
+        Long userId = 1L;
+        SubscriptionDto inputDto = new SubscriptionDto(null, userId, "Netflix", LocalDate.of(2024, 3, 1));
+        SubscriptionWriteDto write = new SubscriptionWriteDto("abc", SubscriptionWriteDto.Status.QUEUED,
+                inputDto, null);
+
+        when(subscriptionService.isWriteBehind()).thenReturn(true);
+        when(subscriptionService.submitSubscription(eq(userId), any(SubscriptionDto.class))).thenReturn(write);
+
+        mockMvc.perform(post("/users/{userId}/subscriptions", userId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(inputDto)))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/subscriptions/writes/abc"))
+                .andExpect(jsonPath("$.trackingId").value("abc"))
+                .andExpect(jsonPath("$.status").value("QUEUED"));
+        verify(subscriptionService, never()).addSubscription(any(), any());
+    }
+
+    @Test
+    public void testAddSubscriptionWriteBehindQueueFull() throws Exception {
+        when(subscriptionService.isWriteBehind()).thenReturn(true);
+        when(subscriptionService.submitSubscription(eq(1L), any(SubscriptionDto.class)))
+                .thenThrow(new TooManyRequestsException("Subscription write queue is full", Duration.ofSeconds(1)));
+
+        mockMvc.perform(post("/users/{userId}/subscriptions", 1L)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"serviceName\":\"Netflix\"}"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "1"));
+    }
+
+    @Test
+    public void testGetSubscriptionWrite() throws Exception {
+        SubscriptionDto written = new SubscriptionDto(5L, 1L, "Netflix", LocalDate.of(2024, 3, 1));
+        when(subscriptionService.getSubscriptionWrite("abc")).thenReturn(
+                new SubscriptionWriteDto("abc", SubscriptionWriteDto.Status.WRITTEN, written, null));
+        when(subscriptionService.getSubscriptionWrite("missing"))
+                .thenThrow(new RuntimeException("Subscription write missing not found"));
+
+        mockMvc.perform(get("/subscriptions/writes/{trackingId}", "abc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("WRITTEN"))
+                .andExpect(jsonPath("$.subscription.id").value(5));
+        mockMvc.perform(get("/subscriptions/writes/{trackingId}", "missing"))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     public void testGetUserSubscriptions() throws Exception {
         Long userId = 1L;
@@ -75,14 +129,58 @@ public class SubscriptionControllerTest {
                 new SubscriptionDto(2L, userId, "Spotify", LocalDate.now())
         );
 
-        when(subscriptionService.getUserSubscriptions(userId)).thenReturn(subscriptions);
+        when(subscriptionService.getUserSubscriptions(userId, null, null))
+                .thenReturn(new SubscriptionPageDto(subscriptions, "next"));
 
         mockMvc.perform(get("/users/{userId}/subscriptions", userId))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$[0].id").value(subscriptions.get(0).id()))
-                .andExpect(jsonPath("$[0].serviceName").value(subscriptions.get(0).serviceName()))
-                .andExpect(jsonPath("$[1].id").value(subscriptions.get(1).id()))
-                .andExpect(jsonPath("$[1].serviceName").value(subscriptions.get(1).serviceName()));
+                .andExpect(jsonPath("$.items[0].id").value(subscriptions.get(0).id()))
+                .andExpect(jsonPath("$.items[0].serviceName").value(subscriptions.get(0).serviceName()))
+                .andExpect(jsonPath("$.items[1].id").value(subscriptions.get(1).id()))
+                .andExpect(jsonPath("$.items[1].serviceName").value(subscriptions.get(1).serviceName()))
+                .andExpect(jsonPath("$.nextPageToken").value("next"));
+    }
+
+    @Test
+    public void testGetUserSubscriptionsWithPageToken() throws Exception {
+        Long userId = 1L;
+        List<SubscriptionDto> subscriptions = List.of(new SubscriptionDto(3L, userId, "Kinopoisk", LocalDate.now()));
+
+        when(subscriptionService.getUserSubscriptions(userId, "token", 2))
+                .thenReturn(new SubscriptionPageDto(subscriptions, null));
+
+        mockMvc.perform(get("/users/{userId}/subscriptions", userId)
+                        .param("pageToken", "token")
+                        .param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(3L))
+                .andExpect(jsonPath("$.nextPageToken").doesNotExist());
+    }
+
+    @Test
+    public void testGetUserSubscriptionsNotModified() throws Exception {
+        Long userId = 1L;
+        when(subscriptionService.getSubscriptionsVersion(userId)).thenReturn(7L);
+
+        mockMvc.perform(get("/users/{userId}/subscriptions", userId)
+                        .header("If-None-Match", "W/\"1-7\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        verify(subscriptionService, never()).getUserSubscriptions(any(), any(), any());
+    }
+
+    @Test
+    public void testGetUserSubscriptionsETag() throws Exception {
+        Long userId = 1L;
+        when(subscriptionService.getSubscriptionsVersion(userId)).thenReturn(7L);
+        when(subscriptionService.getUserSubscriptions(userId, null, null))
+                .thenReturn(new SubscriptionPageDto(List.of(), null));
+
+        mockMvc.perform(get("/users/{userId}/subscriptions", userId)
+                        .header("If-None-Match", "W/\"1-6\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "W/\"1-7\""));
     }
 
     @Test
@@ -98,18 +196,34 @@ public class SubscriptionControllerTest {
 
     @Test
     public void testGetTopSubscriptions() throws Exception {
-        List<SubscriptionDto> topSubscriptions = Arrays.asList(
-                new SubscriptionDto(null, null, "Netflix", null),
-                new SubscriptionDto(null, null, "Spotify", null),
-                new SubscriptionDto(null, null, "YouTube Premium", null)
+        List<TopSubscriptionDto> topSubscriptions = Arrays.asList(
+                new TopSubscriptionDto("Netflix", 3L),
+                new TopSubscriptionDto("Spotify", 3L),
+                new TopSubscriptionDto("YouTube Premium", 2L)
         );
 
-        when(subscriptionService.getTopSubscriptions()).thenReturn(topSubscriptions);
+        when(subscriptionService.getTopSubscriptions(null, null, null)).thenReturn(topSubscriptions);
 
         mockMvc.perform(get("/subscriptions/top"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].serviceName").value(topSubscriptions.get(0).serviceName()))
                 .andExpect(jsonPath("$[1].serviceName").value(topSubscriptions.get(1).serviceName()))
-                .andExpect(jsonPath("$[2].serviceName").value(topSubscriptions.get(2).serviceName()));
+                .andExpect(jsonPath("$[2].serviceName").value(topSubscriptions.get(2).serviceName()))
+                .andExpect(jsonPath("$[0].count").value(topSubscriptions.get(0).count()))
+                .andExpect(jsonPath("$[2].count").value(topSubscriptions.get(2).count()));
+    }
+
+    @Test
+    public void testGetTopSubscriptionsForRange() throws Exception {
+        when(subscriptionService.getTopSubscriptions(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31), 5))
+                .thenReturn(List.of(new TopSubscriptionDto("Netflix", 7L)));
+
+        mockMvc.perform(get("/subscriptions/top")
+                        .param("from", "2024-01-01")
+                        .param("to", "2024-01-31")
+                        .param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].serviceName").value("Netflix"))
+                .andExpect(jsonPath("$[0].count").value(7));
     }
 }
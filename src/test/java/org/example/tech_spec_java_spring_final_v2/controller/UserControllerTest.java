@@ -1,7 +1,10 @@
 package org.example.tech_spec_java_spring_final_v2.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import org.example.tech_spec_java_spring_final_v2.dto.UserBatchDto;
 import org.example.tech_spec_java_spring_final_v2.dto.UserDto;
+import org.example.tech_spec_java_spring_final_v2.exception.ConflictException;
 import org.example.tech_spec_java_spring_final_v2.service.UserService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,7 +17,11 @@ import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
@@ -86,6 +93,76 @@ class UserControllerTest {
         verify(userService, times(1)).getUser(userId);
     }
 
+    @Test
+    void getUser_ShouldReturnETagOfUserVersion() throws Exception {
+        // Arrange
+        when(userService.getUserVersion(userId)).thenReturn(3L);
+        when(userService.getUser(userId)).thenReturn(userDto);
+
+        // Act & Assert
+        mockMvc.perform(get("/users/{id}", userId))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "W/\"1-3\""));
+    }
+
+    @Test
+    void getUser_WithMatchingIfNoneMatch_ShouldReturnNotModifiedWithoutLoadingUser() throws Exception {
+        // Arrange
+        when(userService.getUserVersion(userId)).thenReturn(3L);
+
+        // Act & Assert
+        mockMvc.perform(get("/users/{id}", userId).header("If-None-Match", "W/\"1-3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "W/\"1-3\""))
+                .andExpect(content().string(""));
+
+        verify(userService, never()).getUser(any());
+    }
+
+    @Test
+    void getUser_WithStaleIfNoneMatch_ShouldReturnUser() throws Exception {
+        // Arrange
+        when(userService.getUserVersion(userId)).thenReturn(4L);
+        when(userService.getUser(userId)).thenReturn(userDto);
+
+        // Act & Assert
+        mockMvc.perform(get("/users/{id}", userId).header("If-None-Match", "W/\"1-3\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "W/\"1-4\""))
+                .andExpect(jsonPath("$.id", is(userId.intValue())));
+    }
+
+    @Test
+    void getUser_WithCborAccept_ShouldReturnCbor() throws Exception {
+        // Arrange
+        when(userService.getUser(userId)).thenReturn(userDto);
+
+        // Act
+        byte[] body = mockMvc.perform(get("/users/{id}", userId).accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andExpect(header().string("Vary", containsString("Accept")))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // Assert
+        assertEquals(userDto, new CBORMapper().readValue(body, UserDto.class));
+    }
+
+    @Test
+    void createUser_WithCborBody_ShouldReturnJsonByDefault() throws Exception {
+        // Arrange
+        UserDto inputDto = new UserDto(null, userName, userEmail);
+        when(userService.createUser(inputDto)).thenReturn(userDto);
+
+        // Act & Assert
+        mockMvc.perform(post("/users")
+                        .contentType(MediaType.APPLICATION_CBOR)
+                        .content(new CBORMapper().writeValueAsBytes(inputDto)))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.id", is(userId.intValue())));
+    }
+
     @Test
     void getUser_WithNonExistingId_ShouldReturnNotFound() throws Exception {
         // Arrange
@@ -135,6 +212,21 @@ class UserControllerTest {
         verify(userService, times(1)).updateUser(eq(userId), any(UserDto.class));
     }
 
+    @Test
+    void createUser_WithDuplicateEmail_ShouldReturnConflict() throws Exception {
+        // Arrange
+        UserDto inputDto = new UserDto(null, userName, userEmail);
+
+        when(userService.createUser(any(UserDto.class)))
+                .thenThrow(new ConflictException("User with email " + userEmail + " already exists", null));
+
+        // Act & Assert
+        mockMvc.perform(post("/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(inputDto)))
+                .andExpect(status().isConflict());
+    }
+
     @Test
     void deleteUser_ShouldReturnNoContent() throws Exception {
         // Arrange
@@ -146,4 +238,30 @@ class UserControllerTest {
 
         verify(userService, times(1)).deleteUser(userId);
     }
+
+    @Test
+    void getUsers_WithIdsParameter_ShouldReturnUsersAndMissingIds() throws Exception {
+        // Arrange
+        when(userService.getUsers(List.of(userId, 2L))).thenReturn(new UserBatchDto(List.of(userDto), List.of(2L)));
+
+        // Act & Assert
+        mockMvc.perform(get("/users").param("ids", "1,2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.users[0].id", is(userId.intValue())))
+                .andExpect(jsonPath("$.missingIds[0]", is(2)));
+    }
+
+    @Test
+    void lookupUsers_ShouldReadIdsFromBody() throws Exception {
+        // Arrange
+        when(userService.getUsers(List.of(userId, 2L))).thenReturn(new UserBatchDto(List.of(userDto), List.of(2L)));
+
+        // Act & Assert
+        mockMvc.perform(post("/users/lookup")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[1, 2]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.users[0].email", is(userEmail)))
+                .andExpect(jsonPath("$.missingIds[0]", is(2)));
+    }
 }
@@ -0,0 +1,138 @@
+package org.example.tech_spec_java_spring_final_v2.repository;
+
+import org.example.tech_spec_java_spring_final_v2.dto.SubscriptionDto;
+import org.example.tech_spec_java_spring_final_v2.entity.SubscriptionEntity;
+import org.example.tech_spec_java_spring_final_v2.entity.UserEntity;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the queries of {@link SubscriptionRepository} against a real PostgreSQL server, on the schema
+ * built by the PostgreSQL migrations: the hash-partitioned subscriptions table that H2 does not have.
+ * The migrations are applied to a fresh {@value #SCHEMA} schema and every test is rolled back.
+ * Run with {@code ./gradlew postgresTest}, by default against the database of {@code application.properties}
+ * ({@code -PpostgresTest.jdbcUrl}, {@code -PpostgresTest.username} and {@code -PpostgresTest.password}).
+ */
+@Tag("postgresql")
+@DataJpaTest(properties = {
+        "spring.flyway.schemas=" + SubscriptionRepositoryPostgresTest.SCHEMA,
+        "spring.flyway.clean-disabled=false",
+        "spring.datasource.hikari.schema=" + SubscriptionRepositoryPostgresTest.SCHEMA,
+        "spring.jpa.properties.hibernate.default_schema=" + SubscriptionRepositoryPostgresTest.SCHEMA
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class SubscriptionRepositoryPostgresTest {
+
+    static final String SCHEMA = "repository_test";
+
+    @Autowired
+    private SubscriptionRepository subscriptionRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        // Without them the local database of application.properties is used
+        String jdbcUrl = System.getProperty("postgresTest.jdbcUrl");
+        if (jdbcUrl != null) {
+            registry.add("spring.datasource.url", () -> jdbcUrl);
+        }
+        String username = System.getProperty("postgresTest.username");
+        if (username != null) {
+            registry.add("spring.datasource.username", () -> username);
+        }
+        String password = System.getProperty("postgresTest.password");
+        if (password != null) {
+            registry.add("spring.datasource.password", () -> password);
+        }
+    }
+
+    @TestConfiguration
+    static class FreshSchema {
+
+        @Bean
+        @Primary
+        FlywayMigrationStrategy cleanMigrate() {
+            return (Flyway flyway) -> {
+                flyway.clean();
+                flyway.migrate();
+            };
+        }
+    }
+
+    @Test
+    void deleteByIdAndUserId_ShouldDeleteOnlyTheUsersRow() {
+        // Arrange
+        UserEntity owner = user("ivan@example.com");
+        UserEntity other = user("petr@example.com");
+        SubscriptionEntity subscription = subscription(owner, "Netflix", LocalDate.of(2024, 3, 1));
+
+        // Act
+        Optional<SubscriptionRepository.DeletedSubscription> found =
+                subscriptionRepository.findDeletedByIdAndUserId(subscription.getId(), owner.getId());
+        int foreign = subscriptionRepository.deleteByIdAndUserId(subscription.getId(), other.getId());
+        int deleted = subscriptionRepository.deleteByIdAndUserId(subscription.getId(), owner.getId());
+        int again = subscriptionRepository.deleteByIdAndUserId(subscription.getId(), owner.getId());
+
+        // Assert
+        assertEquals("Netflix", found.orElseThrow().getServiceName());
+        assertEquals(LocalDate.of(2024, 3, 1), found.orElseThrow().getStartDate());
+        assertEquals(0, foreign);
+        assertEquals(1, deleted);
+        assertEquals(0, again);
+        assertFalse(subscriptionRepository.existsById(subscription.getId()));
+    }
+
+    @Test
+    void streamForExport_ShouldReturnRowsInPrimaryKeyOrder() {
+        // Arrange
+        UserEntity first = user("ivan@example.com");
+        UserEntity second = user("petr@example.com");
+        SubscriptionEntity secondsOlder = subscription(second, "Netflix", LocalDate.of(2024, 1, 1));
+        SubscriptionEntity firstsOlder = subscription(first, "Netflix", LocalDate.of(2024, 2, 1));
+        SubscriptionEntity firstsNewer = subscription(first, "Spotify", LocalDate.of(2024, 3, 1));
+
+        // Act
+        List<Long> ids;
+        try (Stream<SubscriptionDto> subscriptions = subscriptionRepository.streamForExport(null, null, null)) {
+            ids = subscriptions.map(SubscriptionDto::id).toList();
+        }
+
+        // Assert
+        assertEquals(List.of(firstsOlder.getId(), firstsNewer.getId(), secondsOlder.getId()), ids);
+    }
+
+    private UserEntity user(String email) {
+        return entityManager.persistFlushFind(UserEntity.builder().name("Ivan").email(email).build());
+    }
+
+    private SubscriptionEntity subscription(UserEntity user, String serviceName, LocalDate startDate) {
+        SubscriptionEntity subscription = entityManager.persistAndFlush(SubscriptionEntity.builder()
+                .userId(user.getId())
+                .serviceName(serviceName)
+                .startDate(startDate)
+                .build());
+        // The rows are read back by the queries, not from the persistence context
+        entityManager.clear();
+        return subscription;
+    }
+}
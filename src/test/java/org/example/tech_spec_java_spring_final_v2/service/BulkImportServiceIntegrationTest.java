@@ -0,0 +1,116 @@
+package org.example.tech_spec_java_spring_final_v2.service;
+
+import org.example.tech_spec_java_spring_final_v2.cache.UserEmailFilter;
+import org.example.tech_spec_java_spring_final_v2.dto.ImportRejectionDto;
+import org.example.tech_spec_java_spring_final_v2.dto.ImportReportDto;
+import org.example.tech_spec_java_spring_final_v2.entity.UserEntity;
+import org.example.tech_spec_java_spring_final_v2.repository.SubscriptionRepository;
+import org.example.tech_spec_java_spring_final_v2.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "app.import.chunk-size=2")
+@ActiveProfiles("test")
+class BulkImportServiceIntegrationTest {
+
+    @Autowired
+    private BulkImportService bulkImportService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SubscriptionRepository subscriptionRepository;
+
+    @Autowired
+    private UserEmailFilter emailFilter;
+
+    @AfterEach
+    void tearDown() {
+        subscriptionRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void importUsers_FromCsv_ShouldInsertRowsAndRejectDuplicates() {
+        // Arrange
+        userRepository.save(UserEntity.builder().name("Existing").email("existing@example.com").build());
+        String csv = """
+                name,email
+                "Doe, John",john@example.com
+                Jane,jane@example.com
+                Copy,john@example.com
+                Existing Again,existing@example.com
+                ,missing.name@example.com
+                """;
+
+        // Act
+        ImportReportDto report = bulkImportService.importUsers(stream(csv), DataFormat.CSV);
+
+        // Assert
+        assertEquals(2, report.accepted());
+        assertEquals(3, report.rejected());
+        assertEquals(3, report.chunks().size());
+        assertEquals(3, userRepository.count());
+        assertEquals("Doe, John", userRepository.findByEmail("john@example.com").orElseThrow().getName());
+        assertEquals(4, report.chunks().get(1).rejections().get(0).line());
+    }
+
+    @Test
+    void importUsers_WhenAnEmailIsMissingFromTheFilter_ShouldRejectOnlyThatRow() {
+        // Arrange
+        emailFilter.rebuild();
+        // Written outside of the service, so the filter rules the email out and the lookup is skipped
+        userRepository.save(UserEntity.builder().name("Outside").email("outside@example.com").build());
+        String csv = """
+                name,email
+                Jane,jane@example.com
+                Outside Again,outside@example.com
+                """;
+
+        // Act
+        ImportReportDto report = bulkImportService.importUsers(stream(csv), DataFormat.CSV);
+
+        // Assert
+        assertEquals(1, report.accepted());
+        assertEquals(1, report.rejected());
+        assertEquals(List.of(new ImportRejectionDto(3, "user with email outside@example.com already exists")),
+                report.chunks().get(0).rejections());
+        assertTrue(userRepository.findByEmail("jane@example.com").isPresent());
+    }
+
+    @Test
+    void importSubscriptions_FromNdjson_ShouldResolveUsersByEmail() {
+        // Arrange
+        userRepository.save(UserEntity.builder().name("Ivan").email("ivan@example.com").build());
+        String ndjson = """
+                {"userEmail":"ivan@example.com","serviceName":"Netflix","startDate":"2024-01-15"}
+                {"userEmail":"ivan@example.com","serviceName":"Spotify"}
+                {"userEmail":"nobody@example.com","serviceName":"Netflix"}
+                {"userEmail":"ivan@example.com","serviceName":"Kinopoisk","startDate":"yesterday"}
+                not json
+                """;
+
+        // Act
+        ImportReportDto report = bulkImportService.importSubscriptions(stream(ndjson), DataFormat.NDJSON);
+
+        // Assert
+        assertEquals(2, report.accepted());
+        assertEquals(3, report.rejected());
+        assertEquals(2, subscriptionRepository.count());
+    }
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,131 @@
+package org.example.tech_spec_java_spring_final_v2.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.tech_spec_java_spring_final_v2.cache.CacheInvalidationBus;
+import org.example.tech_spec_java_spring_final_v2.cache.InvalidationTransport;
+import org.example.tech_spec_java_spring_final_v2.cache.LocalInvalidationTransport;
+import org.example.tech_spec_java_spring_final_v2.cache.UserCache;
+import org.example.tech_spec_java_spring_final_v2.cache.UserVersionCache;
+import org.example.tech_spec_java_spring_final_v2.dto.SubscriptionDto;
+import org.example.tech_spec_java_spring_final_v2.dto.UserDto;
+import org.example.tech_spec_java_spring_final_v2.repository.ReplicaRouting;
+import org.example.tech_spec_java_spring_final_v2.repository.SubscriptionDailyCountRepository;
+import org.example.tech_spec_java_spring_final_v2.repository.SubscriptionRepository;
+import org.example.tech_spec_java_spring_final_v2.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The application context as one node and a bare {@link CacheInvalidationBus} with caches of its own
+ * as another, connected through a {@link LocalInvalidationTransport}.
+ */
+@SpringBootTest(properties = "app.cache.invalidation.batch-interval=10ms")
+@ActiveProfiles("test")
+@Import(CacheInvalidationIntegrationTest.TestConfig.class)
+class CacheInvalidationIntegrationTest {
+
+    @TestConfiguration
+    static class TestConfig {
+        @Bean
+        LocalInvalidationTransport invalidationTransport() {
+            return new LocalInvalidationTransport(7999);
+        }
+    }
+
+    @Autowired
+    private LocalInvalidationTransport transport;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private SubscriptionService subscriptionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SubscriptionRepository subscriptionRepository;
+
+    @Autowired
+    private SubscriptionDailyCountRepository dailyCountRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final UserCache otherUserCache = new UserCache(100, Duration.ofMinutes(1), Duration.ofMinutes(1));
+    private final UserVersionCache otherVersionCache = new UserVersionCache(100, Duration.ofMinutes(1));
+    private CacheInvalidationBus otherNode;
+
+    @BeforeEach
+    void setUp() {
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("transport", transport.peer());
+        otherNode = new CacheInvalidationBus(beanFactory.getBeanProvider(InvalidationTransport.class),
+                otherUserCache, otherVersionCache, new ReplicaRouting("", Duration.ofSeconds(5), 100),
+                new SimpleMeterRegistry(), Duration.ofHours(1));
+        otherNode.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        otherNode.stop();
+        subscriptionRepository.deleteAll();
+        userRepository.deleteAll();
+        dailyCountRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void writesOnThisNode_ShouldEvictEntriesOnOtherNode() throws InterruptedException {
+        // Arrange
+        UserDto user = userService.createUser(new UserDto(null, "Ivan", "ivan@example.com"));
+        otherUserCache.put(user);
+        otherVersionCache.get(user.id(), id -> Optional.of(0L));
+
+        // Act
+        subscriptionService.addSubscription(user.id(), new SubscriptionDto(null, null, "Okko", LocalDate.now()));
+        userService.updateUser(user.id(), new UserDto(null, "Ivan Ivanov", "ivan@example.com"));
+
+        // Assert
+        for (int attempt = 0; attempt < 100 && isCachedOnOtherNode(user.id()); attempt++) {
+            Thread.sleep(20);
+        }
+        assertFalse(isCachedOnOtherNode(user.id()));
+    }
+
+    @Test
+    void writesOnOtherNode_ShouldEvictEntriesOnThisNode() {
+        // Arrange
+        UserDto user = userService.createUser(new UserDto(null, "Olga", "olga@example.com"));
+        assertEquals("Olga", userService.getUser(user.id()).name());
+        // The other node's write
+        jdbcTemplate.update("UPDATE users SET name = 'Olga Petrova' WHERE id = ?", user.id());
+        assertEquals("Olga", userService.getUser(user.id()).name());
+
+        // Act
+        otherNode.publish(user.id());
+        otherNode.stop();
+
+        // Assert
+        assertEquals("Olga Petrova", userService.getUser(user.id()).name());
+    }
+
+    private boolean isCachedOnOtherNode(Long userId) {
+        return otherUserCache.get(userId, id -> Optional.empty()).isPresent();
+    }
+}
@@ -0,0 +1,138 @@
+package org.example.tech_spec_java_spring_final_v2.service;
+
+import org.example.tech_spec_java_spring_final_v2.dto.SubscriptionDto;
+import org.example.tech_spec_java_spring_final_v2.dto.TopSubscriptionDto;
+import org.example.tech_spec_java_spring_final_v2.dto.UserDto;
+import org.example.tech_spec_java_spring_final_v2.entity.UserEntity;
+import org.example.tech_spec_java_spring_final_v2.repository.SubscriptionDailyCountRepository;
+import org.example.tech_spec_java_spring_final_v2.repository.SubscriptionRepository;
+import org.example.tech_spec_java_spring_final_v2.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two H2 databases as primary and replica. Replication is simulated by {@link #replicate()}, which
+ * copies the primary as a whole; in between the replica lags behind.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:primary;DB_CLOSE_DELAY=-1",
+        "app.datasource.replica.url=jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1",
+        "app.datasource.replica.driver-class-name=org.h2.Driver",
+        "app.datasource.replica.username=sa",
+        "app.datasource.replica.password=password",
+        "app.datasource.replica.read-your-writes-window=500ms"
+})
+@ActiveProfiles("test")
+class ReplicaRoutingIntegrationTest {
+
+    private static final Duration WINDOW = Duration.ofMillis(500);
+
+    @TempDir
+    static Path snapshotDir;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private SubscriptionService subscriptionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SubscriptionRepository subscriptionRepository;
+
+    @Autowired
+    private SubscriptionDailyCountRepository dailyCountRepository;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primary;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replica;
+
+    @BeforeEach
+    void setUp() {
+        replicate();
+    }
+
+    @AfterEach
+    void tearDown() {
+        subscriptionRepository.deleteAll();
+        userRepository.deleteAll();
+        dailyCountRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void getUser_ShouldReadFromReplicaUnlessUserWasJustWritten() {
+        // Arrange
+        Long id = userRepository.save(UserEntity.builder().name("Ivan").email("ivan@example.com").build()).getId();
+        replicate();
+        // Changed on the primary behind the service's back, so not tracked as a recent write
+        new JdbcTemplate(primary).update("UPDATE users SET name = 'Ivan Petrov' WHERE id = ?", id);
+
+        // Act & Assert
+        assertEquals("Ivan", userService.getUser(id).name());
+
+        userService.updateUser(id, new UserDto(null, "Ivan Ivanov", "ivan@example.com"));
+        assertEquals("Ivan Ivanov", userService.getUser(id).name());
+    }
+
+    @Test
+    void getUserSubscriptions_AfterOwnWrite_ShouldReadFromPrimaryWithinWindow() throws InterruptedException {
+        // Arrange
+        UserDto user = userService.createUser(new UserDto(null, "Olga", "olga@example.com"));
+        replicate();
+        Thread.sleep(WINDOW.plusMillis(100).toMillis());
+
+        // Act
+        subscriptionService.addSubscription(user.id(),
+                new SubscriptionDto(null, null, "Okko", LocalDate.of(2024, 3, 1)));
+
+        // Assert
+        assertEquals(1, subscriptionService.getUserSubscriptions(user.id(), null, null).items().size());
+        Thread.sleep(WINDOW.plusMillis(100).toMillis());
+        assertEquals(0, subscriptionService.getUserSubscriptions(user.id(), null, null).items().size());
+        replicate();
+        assertEquals(1, subscriptionService.getUserSubscriptions(user.id(), null, null).items().size());
+    }
+
+    @Test
+    void getTopSubscriptionsForRange_ShouldReadFromReplica() {
+        // Arrange
+        UserDto user = userService.createUser(new UserDto(null, "Olga", "olga@example.com"));
+        LocalDate startDate = LocalDate.of(2024, 3, 1);
+        subscriptionService.addSubscription(user.id(), new SubscriptionDto(null, null, "Okko", startDate));
+
+        // Act & Assert
+        assertEquals(List.of(), subscriptionService.getTopSubscriptions(startDate, startDate, null));
+        replicate();
+        assertEquals(List.of(new TopSubscriptionDto("Okko", 1L)),
+                subscriptionService.getTopSubscriptions(startDate, startDate, null));
+    }
+
+    private void replicate() {
+        String snapshot = snapshotDir.resolve("primary.sql").toString();
+        new JdbcTemplate(primary).execute("SCRIPT TO '" + snapshot + "'");
+        JdbcTemplate replicaJdbc = new JdbcTemplate(replica);
+        replicaJdbc.execute("DROP ALL OBJECTS");
+        replicaJdbc.execute("RUNSCRIPT FROM '" + snapshot + "'");
+    }
+}
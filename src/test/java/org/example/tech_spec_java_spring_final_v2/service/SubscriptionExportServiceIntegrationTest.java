@@ -0,0 +1,91 @@
+package org.example.tech_spec_java_spring_final_v2.service;
+
+import org.example.tech_spec_java_spring_final_v2.dto.SubscriptionExportFilter;
+import org.example.tech_spec_java_spring_final_v2.entity.SubscriptionEntity;
+import org.example.tech_spec_java_spring_final_v2.entity.UserEntity;
+import org.example.tech_spec_java_spring_final_v2.repository.SubscriptionRepository;
+import org.example.tech_spec_java_spring_final_v2.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class SubscriptionExportServiceIntegrationTest {
+
+    @Autowired
+    private SubscriptionExportService subscriptionExportService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SubscriptionRepository subscriptionRepository;
+
+    private UserEntity user;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(UserEntity.builder().name("Ivan").email("ivan@example.com").build());
+        save("Netflix", LocalDate.of(2024, 1, 15));
+        save("Spotify, Family", LocalDate.of(2024, 2, 20));
+        save("Netflix", LocalDate.of(2024, 3, 10));
+    }
+
+    @AfterEach
+    void tearDown() {
+        subscriptionRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void exportSubscriptions_AsCsv_ShouldWriteHeaderAndEscapedRows() {
+        // Arrange
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // Act
+        long count = subscriptionExportService.exportSubscriptions(
+                new SubscriptionExportFilter(null, null, null), DataFormat.CSV, output);
+
+        // Assert
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, count);
+        assertEquals(4, lines.length);
+        assertEquals("id,userId,serviceName,startDate", lines[0]);
+        assertTrue(lines[2].endsWith(user.getId() + ",\"Spotify, Family\",2024-02-20"));
+    }
+
+    @Test
+    void exportSubscriptions_AsNdjsonWithFilter_ShouldWriteOnlyMatchingRows() {
+        // Arrange
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // Act
+        long count = subscriptionExportService.exportSubscriptions(
+                new SubscriptionExportFilter("Netflix", LocalDate.of(2024, 2, 1), null), DataFormat.NDJSON, output);
+
+        // Assert
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(1, count);
+        assertEquals(1, lines.length);
+        assertTrue(lines[0].contains("\"serviceName\":\"Netflix\""));
+        assertTrue(lines[0].contains("\"startDate\":\"2024-03-10\""));
+    }
+
+    private void save(String serviceName, LocalDate startDate) {
+        subscriptionRepository.save(SubscriptionEntity.builder()
+                .userId(user.getId())
+                .serviceName(serviceName)
+                .startDate(startDate)
+                .build());
+    }
+}
@@ -0,0 +1,181 @@
+package org.example.tech_spec_java_spring_final_v2.service;
+
+import org.example.tech_spec_java_spring_final_v2.dto.SubscriptionDto;
+import org.example.tech_spec_java_spring_final_v2.dto.TopSubscriptionDto;
+import org.example.tech_spec_java_spring_final_v2.entity.SubscriptionDailyCountEntity;
+import org.example.tech_spec_java_spring_final_v2.entity.SubscriptionEntity;
+import org.example.tech_spec_java_spring_final_v2.entity.UserEntity;
+import org.example.tech_spec_java_spring_final_v2.repository.SubscriptionDailyCountRepository;
+import org.example.tech_spec_java_spring_final_v2.repository.SubscriptionRepository;
+import org.example.tech_spec_java_spring_final_v2.service.impl.SubscriptionDailyCounts;
+import org.example.tech_spec_java_spring_final_v2.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class SubscriptionServiceIntegrationTest {
+
+    @Autowired
+    private SubscriptionService subscriptionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SubscriptionRepository subscriptionRepository;
+
+    @Autowired
+    private SubscriptionDailyCountRepository dailyCountRepository;
+
+    @Autowired
+    private SubscriptionDailyCounts dailyCounts;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        subscriptionRepository.deleteAll();
+        userRepository.deleteAll();
+        dailyCountRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void addSubscription_ForExistingUser_ShouldPersistSubscription() {
+        // Arrange
+        UserEntity user = userRepository.save(UserEntity.builder().name("Ivan").email("ivan@example.com").build());
+
+        // Act
+        SubscriptionDto result = subscriptionService.addSubscription(user.getId(),
+                new SubscriptionDto(null, null, "Netflix", LocalDate.of(2024, 1, 15)));
+
+        // Assert
+        assertNotNull(result.id());
+        assertEquals(user.getId(), result.userId());
+        assertEquals(1, subscriptionService.getUserSubscriptions(user.getId(), null, null).items().size());
+    }
+
+    @Test
+    void addSubscription_ForMissingUser_ShouldTranslateForeignKeyViolationToNotFound() {
+        // Act & Assert
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> subscriptionService.addSubscription(
+                999L, new SubscriptionDto(null, null, "Netflix", null)));
+        assertEquals("User with id 999 not found", exception.getMessage());
+        assertEquals(0, subscriptionRepository.count());
+    }
+
+    @Test
+    void deleteSubscription_OfTheUser_ShouldDeleteAndAdjustCounts() {
+        // Arrange
+        UserEntity user = userRepository.save(UserEntity.builder().name("Ivan").email("ivan@example.com").build());
+        LocalDate startDate = LocalDate.of(2024, 3, 1);
+        SubscriptionDto kept = subscriptionService.addSubscription(user.getId(),
+                new SubscriptionDto(null, null, "Netflix", startDate));
+        SubscriptionDto deleted = subscriptionService.addSubscription(user.getId(),
+                new SubscriptionDto(null, null, "Netflix", startDate));
+        long version = subscriptionService.getSubscriptionsVersion(user.getId());
+
+        // Act
+        subscriptionService.deleteSubscription(user.getId(), deleted.id());
+
+        // Assert
+        assertFalse(subscriptionRepository.existsById(deleted.id()));
+        assertTrue(subscriptionRepository.existsById(kept.id()));
+        assertEquals(List.of(new TopSubscriptionDto("Netflix", 1L)),
+                subscriptionService.getTopSubscriptions(startDate, startDate, null));
+        assertTrue(subscriptionService.getSubscriptionsVersion(user.getId()) > version);
+        RuntimeException again = assertThrows(RuntimeException.class,
+                () -> subscriptionService.deleteSubscription(user.getId(), deleted.id()));
+        assertEquals("Subscription with id " + deleted.id() + " not found for user with id " + user.getId(),
+                again.getMessage());
+    }
+
+    @Test
+    void deleteSubscription_OfAnotherUser_ShouldThrowNotFoundAndKeepIt() {
+        // Arrange
+        UserEntity owner = userRepository.save(UserEntity.builder().name("Ivan").email("ivan@example.com").build());
+        UserEntity other = userRepository.save(UserEntity.builder().name("Petr").email("petr@example.com").build());
+        SubscriptionDto subscription = subscriptionService.addSubscription(owner.getId(),
+                new SubscriptionDto(null, null, "Netflix", LocalDate.of(2024, 3, 1)));
+
+        // Act & Assert
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> subscriptionService.deleteSubscription(other.getId(), subscription.id()));
+        assertEquals("Subscription with id " + subscription.id() + " not found for user with id " + other.getId(),
+                exception.getMessage());
+        assertTrue(subscriptionRepository.existsById(subscription.id()));
+    }
+
+    @Test
+    void getTopSubscriptions_ForRange_ShouldCountOnlySubscriptionsStartingInRange() {
+        // Arrange
+        UserEntity user = userRepository.save(UserEntity.builder().name("Olga").email("olga@example.com").build());
+        add(user, "Okko", LocalDate.of(2024, 2, 29));
+        add(user, "Okko", LocalDate.of(2024, 3, 1));
+        add(user, "Okko", LocalDate.of(2024, 3, 7));
+        add(user, "Wink", LocalDate.of(2024, 3, 2));
+        add(user, "Wink", LocalDate.of(2024, 3, 2));
+        add(user, "Wink", LocalDate.of(2024, 3, 3));
+        add(user, "Wink", LocalDate.of(2024, 3, 8));
+        List<TopSubscriptionDto> expected = List.of(new TopSubscriptionDto("Wink", 3L), new TopSubscriptionDto("Okko", 2L));
+
+        // Act
+        List<TopSubscriptionDto> week = subscriptionService.getTopSubscriptions(
+                LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 7), 10);
+        dailyCounts.reconcile();
+        List<TopSubscriptionDto> reconciled = subscriptionService.getTopSubscriptions(
+                LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 7), 10);
+
+        // Assert
+        assertEquals(expected, week);
+        assertEquals(expected, reconciled);
+    }
+
+    @Test
+    void addDailyCount_WhenAnotherWriterInsertedTheRow_ShouldKeepTheWriteTransaction() {
+        // Arrange
+        UserEntity user = userRepository.save(UserEntity.builder().name("Olga").email("olga@example.com").build());
+        LocalDate startDate = LocalDate.of(2024, 3, 1);
+        add(user, "Okko", startDate);
+        // The first update misses the row, as if it was inserted right after
+        SubscriptionDailyCountRepository racing = mock(SubscriptionDailyCountRepository.class,
+                delegatesTo(dailyCountRepository));
+        doReturn(0).doAnswer(delegatesTo(dailyCountRepository)).when(racing).addToCount(any(), any(), anyLong());
+        SubscriptionDailyCounts counts = new SubscriptionDailyCounts(racing, jdbcTemplate, transactionManager, 3);
+
+        // Act
+        SubscriptionEntity saved = counts.inWriteTransaction(() -> {
+            SubscriptionEntity subscription = subscriptionRepository.save(SubscriptionEntity.builder()
+                    .userId(user.getId()).serviceName("Okko").startDate(startDate).build());
+            counts.increment(startDate, "Okko");
+            return subscription;
+        });
+
+        // Assert
+        assertTrue(subscriptionRepository.existsById(saved.getId()));
+        assertEquals(2L, dailyCountRepository.findById(new SubscriptionDailyCountEntity.Key(startDate, "Okko"))
+                .orElseThrow().getSubscriptionCount());
+    }
+
+    private void add(UserEntity user, String serviceName, LocalDate startDate) {
+        subscriptionService.addSubscription(user.getId(), new SubscriptionDto(null, null, serviceName, startDate));
+    }
+}
@@ -0,0 +1,98 @@
+package org.example.tech_spec_java_spring_final_v2.service;
+
+import org.example.tech_spec_java_spring_final_v2.dto.SubscriptionDto;
+import org.example.tech_spec_java_spring_final_v2.dto.SubscriptionWriteDto;
+import org.example.tech_spec_java_spring_final_v2.dto.TopSubscriptionDto;
+import org.example.tech_spec_java_spring_final_v2.entity.UserEntity;
+import org.example.tech_spec_java_spring_final_v2.repository.SubscriptionDailyCountRepository;
+import org.example.tech_spec_java_spring_final_v2.repository.SubscriptionRepository;
+import org.example.tech_spec_java_spring_final_v2.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "app.subscriptions.write-behind.enabled=true")
+@ActiveProfiles("test")
+class SubscriptionWriteBehindIntegrationTest {
+
+    @Autowired
+    private SubscriptionService subscriptionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SubscriptionRepository subscriptionRepository;
+
+    @Autowired
+    private SubscriptionDailyCountRepository dailyCountRepository;
+
+    @AfterEach
+    void tearDown() {
+        subscriptionRepository.deleteAll();
+        userRepository.deleteAll();
+        dailyCountRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void submitSubscription_ShouldBeWrittenInTheBackground() throws InterruptedException {
+        // Arrange
+        UserEntity user = userRepository.save(UserEntity.builder().name("Ivan").email("ivan@example.com").build());
+        LocalDate startDate = LocalDate.of(2024, 3, 1);
+        long version = subscriptionService.getSubscriptionsVersion(user.getId());
+
+        // Act
+        List<SubscriptionWriteDto> writes = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            writes.add(subscriptionService.submitSubscription(user.getId(),
+                    new SubscriptionDto(null, null, "Netflix", startDate)));
+        }
+
+        // Assert
+        assertTrue(subscriptionService.isWriteBehind());
+        for (SubscriptionWriteDto write : writes) {
+            SubscriptionWriteDto done = awaitDone(write.trackingId());
+            assertEquals(SubscriptionWriteDto.Status.WRITTEN, done.status());
+            assertNotNull(done.subscription().id());
+        }
+        assertEquals(20, subscriptionRepository.count());
+        assertEquals(List.of(new TopSubscriptionDto("Netflix", 20L)),
+                subscriptionService.getTopSubscriptions(startDate, startDate, null));
+        assertTrue(subscriptionService.getSubscriptionsVersion(user.getId()) > version);
+    }
+
+    @Test
+    void submitSubscription_ForMissingUser_ShouldBeRejectedBeforeQueueing() {
+        // Act & Assert
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> subscriptionService
+                .submitSubscription(999L, new SubscriptionDto(null, null, "Netflix", null)));
+        assertEquals("User with id 999 not found", exception.getMessage());
+    }
+
+    @Test
+    void getSubscriptionWrite_ForUnknownTrackingId_ShouldThrowNotFound() {
+        // Act & Assert
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> subscriptionService.getSubscriptionWrite("unknown"));
+        assertEquals("Subscription write unknown not found", exception.getMessage());
+    }
+
+    private SubscriptionWriteDto awaitDone(String trackingId) throws InterruptedException {
+        for (int attempt = 0; attempt < 100; attempt++) {
+            SubscriptionWriteDto write = subscriptionService.getSubscriptionWrite(trackingId);
+            if (write.status() != SubscriptionWriteDto.Status.QUEUED) {
+                return write;
+            }
+            Thread.sleep(100);
+        }
+        return fail("Subscription write " + trackingId + " was not completed");
+    }
+}
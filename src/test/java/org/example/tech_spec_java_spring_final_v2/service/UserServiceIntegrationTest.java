@@ -1,7 +1,9 @@
 package org.example.tech_spec_java_spring_final_v2.service;
 
+import org.example.tech_spec_java_spring_final_v2.dto.UserBatchDto;
 import org.example.tech_spec_java_spring_final_v2.dto.UserDto;
 import org.example.tech_spec_java_spring_final_v2.entity.UserEntity;
+import org.example.tech_spec_java_spring_final_v2.exception.ConflictException;
 import org.example.tech_spec_java_spring_final_v2.repository.UserRepository;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -10,6 +12,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 @SpringBootTest
@@ -135,4 +139,42 @@ class UserServiceIntegrationTest {
         // Act & Assert - should not throw exception
         assertDoesNotThrow(() -> userService.deleteUser(999L));
     }
-}
\ No newline at end of file
+
+    @Test
+    void createUser_WithDuplicateEmail_ShouldThrowConflict() {
+        // Arrange
+        userService.createUser(testUserDto);
+
+        // Act & Assert
+        assertThrows(ConflictException.class,
+                () -> userService.createUser(new UserDto(null, "Another User", userEmail)));
+        assertEquals(1, userRepository.count());
+    }
+
+    @Test
+    void updateUser_WithEmailOfAnotherUser_ShouldThrowConflict() {
+        // Arrange
+        UserDto first = userService.createUser(testUserDto);
+        UserDto second = userService.createUser(new UserDto(null, "Second User", "second@example.com"));
+
+        // Act & Assert
+        assertThrows(ConflictException.class,
+                () -> userService.updateUser(second.id(), new UserDto(second.id(), "Second User", first.email())));
+        assertEquals("second@example.com", userRepository.findById(second.id()).orElseThrow().getEmail());
+    }
+
+    @Test
+    void getUsers_ShouldResolveExistingIdsAndReportMissingOnes() {
+        // Arrange
+        UserDto first = userService.createUser(testUserDto);
+        UserDto second = userService.createUser(new UserDto(null, "Second User", "second@example.com"));
+        long unknownId = second.id() + 100;
+
+        // Act
+        UserBatchDto result = userService.getUsers(List.of(second.id(), unknownId, first.id()));
+
+        // Assert
+        assertEquals(List.of(second, first), result.users());
+        assertEquals(List.of(unknownId), result.missingIds());
+    }
+}
@@ -0,0 +1,90 @@
+package org.example.tech_spec_java_spring_final_v2.service.impl;
+
+import org.example.tech_spec_java_spring_final_v2.dto.TopSubscriptionDto;
+import org.example.tech_spec_java_spring_final_v2.repository.JdbcReadRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SubscriptionPopularityIndexTest {
+
+    @Mock
+    private JdbcReadRepository readRepository;
+
+    private SubscriptionPopularityIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new SubscriptionPopularityIndex(readRepository, 2);
+    }
+
+    @Test
+    void getTop_ShouldLoadCountsOnceAndReturnLimitedResult() {
+        // Arrange
+        when(readRepository.countSubscriptionsByServiceName()).thenReturn(List.of(
+                new TopSubscriptionDto("Netflix", 3L),
+                new TopSubscriptionDto("Spotify", 2L),
+                new TopSubscriptionDto("Kinopoisk", 1L)
+        ));
+
+        // Act
+        List<TopSubscriptionDto> first = index.getTop();
+        List<TopSubscriptionDto> second = index.getTop();
+
+        // Assert
+        assertEquals(List.of(
+                new TopSubscriptionDto("Netflix", 3L),
+                new TopSubscriptionDto("Spotify", 2L)
+        ), first);
+        assertEquals(first, second);
+        verify(readRepository, times(1)).countSubscriptionsByServiceName();
+    }
+
+    @Test
+    void incrementAndDecrement_ShouldBeReflectedWithoutQueryingDatabase() {
+        // Arrange
+        when(readRepository.countSubscriptionsByServiceName()).thenReturn(List.of(
+                new TopSubscriptionDto("Netflix", 2L),
+                new TopSubscriptionDto("Spotify", 1L)
+        ));
+        index.getTop();
+
+        // Act
+        index.increment("Kinopoisk");
+        index.increment("Kinopoisk");
+        index.increment("Kinopoisk");
+        index.decrement("Spotify");
+        List<TopSubscriptionDto> result = index.getTop();
+
+        // Assert
+        assertEquals(List.of(
+                new TopSubscriptionDto("Kinopoisk", 3L),
+                new TopSubscriptionDto("Netflix", 2L)
+        ), result);
+        verify(readRepository, times(1)).countSubscriptionsByServiceName();
+    }
+
+    @Test
+    void reconcile_ShouldReplaceCountsWithDatabaseState() {
+        // Arrange
+        when(readRepository.countSubscriptionsByServiceName())
+                .thenReturn(List.of(new TopSubscriptionDto("Netflix", 5L)))
+                .thenReturn(List.of(new TopSubscriptionDto("Spotify", 1L)));
+        index.getTop();
+        index.increment("Amediateka");
+
+        // Act
+        index.reconcile();
+
+        // Assert
+        assertEquals(List.of(new TopSubscriptionDto("Spotify", 1L)), index.getTop());
+    }
+}
@@ -0,0 +1,293 @@
+package org.example.tech_spec_java_spring_final_v2.service.impl;
+
+import org.example.tech_spec_java_spring_final_v2.cache.CacheInvalidationBus;
+import org.example.tech_spec_java_spring_final_v2.cache.UserCache;
+import org.example.tech_spec_java_spring_final_v2.cache.UserVersionCache;
+import org.example.tech_spec_java_spring_final_v2.dto.SubscriptionDto;
+import org.example.tech_spec_java_spring_final_v2.dto.SubscriptionPageDto;
+import org.example.tech_spec_java_spring_final_v2.dto.TopSubscriptionDto;
+import org.example.tech_spec_java_spring_final_v2.entity.SubscriptionEntity;
+import org.example.tech_spec_java_spring_final_v2.dto.UserDto;
+import org.example.tech_spec_java_spring_final_v2.repository.JdbcReadRepository;
+import org.example.tech_spec_java_spring_final_v2.repository.ReplicaRouting;
+import org.example.tech_spec_java_spring_final_v2.repository.SubscriptionRepository;
+import org.example.tech_spec_java_spring_final_v2.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SubscriptionServiceImplTest {
+
+    @Mock
+    private SubscriptionRepository subscriptionRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private JdbcReadRepository readRepository;
+
+    @Mock
+    private SubscriptionPopularityIndex popularityIndex;
+
+    @Mock
+    private SubscriptionDailyCounts dailyCounts;
+
+    @Spy
+    private UserCache userCache = new UserCache(100, Duration.ofMinutes(1), Duration.ofMinutes(1));
+
+    @Spy
+    private UserVersionCache versionCache = new UserVersionCache(100, Duration.ofMinutes(1));
+
+    @Spy
+    private ReplicaRouting replicaRouting = new ReplicaRouting("", Duration.ofSeconds(5), 100);
+
+    @Mock
+    private CacheInvalidationBus invalidationBus;
+
+    @InjectMocks
+    private SubscriptionServiceImpl subscriptionService;
+
+    private final Long userId = 1L;
+
+    @Test
+    void getUserSubscriptions_WhenMoreRowsThanLimit_ShouldReturnPageWithNextToken() {
+        // Arrange
+        when(readRepository.findFirstSubscriptionPage(userId, 3)).thenReturn(List.of(
+                new SubscriptionDto(10L, userId, "Netflix", LocalDate.of(2024, 1, 1)),
+                new SubscriptionDto(11L, userId, "Spotify", LocalDate.of(2024, 1, 2)),
+                new SubscriptionDto(12L, userId, "Kinopoisk", LocalDate.of(2024, 1, 3))
+        ));
+
+        // Act
+        SubscriptionPageDto page = subscriptionService.getUserSubscriptions(userId, null, 2);
+
+        // Assert
+        assertEquals(2, page.items().size());
+        assertEquals(11L, page.items().get(1).id());
+        assertEquals(new PageToken(LocalDate.of(2024, 1, 2), 11L), PageToken.decode(page.nextPageToken()));
+        verify(readRepository, never()).findUserById(any());
+    }
+
+    @Test
+    void getUserSubscriptions_WithPageToken_ShouldContinueAfterKeyset() {
+        // Arrange
+        String token = new PageToken(LocalDate.of(2024, 1, 2), 11L).encode();
+        when(readRepository.findSubscriptionPageAfter(userId, LocalDate.of(2024, 1, 2), 11L,
+                SubscriptionServiceImpl.DEFAULT_PAGE_SIZE + 1))
+                .thenReturn(List.of(new SubscriptionDto(12L, userId, "Kinopoisk", LocalDate.of(2024, 1, 3))));
+
+        // Act
+        SubscriptionPageDto page = subscriptionService.getUserSubscriptions(userId, token, null);
+
+        // Assert
+        assertEquals(1, page.items().size());
+        assertNull(page.nextPageToken());
+    }
+
+    @Test
+    void getUserSubscriptions_WhenUserDoesNotExist_ShouldThrowNotFound() {
+        // Arrange
+        when(readRepository.findFirstSubscriptionPage(any(), anyInt())).thenReturn(List.of());
+        when(readRepository.findUserById(userId)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> subscriptionService.getUserSubscriptions(userId, null, null));
+        assertEquals("User with id " + userId + " not found", exception.getMessage());
+    }
+
+    @Test
+    void addSubscription_WhenUserIsCachedAsMissing_ShouldNotInsert() {
+        // Arrange
+        when(readRepository.findUserById(userId)).thenReturn(Optional.empty());
+        assertThrows(RuntimeException.class, () -> subscriptionService.getUserSubscriptions(userId, null, null));
+        SubscriptionDto dto = new SubscriptionDto(null, userId, "Netflix", null);
+
+        // Act & Assert
+        assertThrows(RuntimeException.class, () -> subscriptionService.addSubscription(userId, dto));
+        verify(userRepository, never()).getReferenceById(any());
+        verify(subscriptionRepository, never()).save(any());
+    }
+
+    @Test
+    void addSubscription_ShouldInsertByUserIdWithoutLoadingUser() {
+        // Arrange
+        runWriteTransactions();
+        when(subscriptionRepository.save(any(SubscriptionEntity.class))).thenAnswer(invocation -> {
+            SubscriptionEntity saved = invocation.getArgument(0);
+            saved.setId(7L);
+            return saved;
+        });
+
+        // Act
+        SubscriptionDto result = subscriptionService.addSubscription(userId,
+                new SubscriptionDto(null, userId, "Netflix", LocalDate.of(2024, 1, 1)));
+
+        // Assert
+        assertEquals(new SubscriptionDto(7L, userId, "Netflix", LocalDate.of(2024, 1, 1)), result);
+        verify(readRepository, never()).findUserById(any());
+        verify(userRepository, never()).getReferenceById(any());
+        verify(popularityIndex).increment("Netflix");
+        verify(dailyCounts).increment(LocalDate.of(2024, 1, 1), "Netflix");
+        verify(userRepository).incrementVersions(List.of(userId));
+        verify(versionCache).invalidate(userId);
+        verify(invalidationBus).publish(userId);
+    }
+
+    @Test
+    void addSubscription_WhenForeignKeyIsViolated_ShouldThrowNotFound() {
+        // Arrange
+        runWriteTransactions();
+        when(subscriptionRepository.save(any(SubscriptionEntity.class))).thenThrow(new DataIntegrityViolationException(
+                "insert failed", new SQLException("violates foreign key constraint", "23503")));
+
+        // Act & Assert
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> subscriptionService.addSubscription(
+                userId, new SubscriptionDto(null, userId, "Netflix", null)));
+        assertEquals("User with id " + userId + " not found", exception.getMessage());
+        verify(userCache).invalidate(userId);
+        verifyNoInteractions(popularityIndex);
+    }
+
+    @Test
+    void deleteSubscription_WhenRowMatches_ShouldDecrementIndex() {
+        // Arrange
+        runWriteTransactions();
+        SubscriptionRepository.DeletedSubscription deleted = mock(SubscriptionRepository.DeletedSubscription.class);
+        when(deleted.getServiceName()).thenReturn("Spotify");
+        when(deleted.getStartDate()).thenReturn(LocalDate.of(2024, 1, 1));
+        when(subscriptionRepository.findDeletedByIdAndUserId(5L, userId)).thenReturn(Optional.of(deleted));
+        when(subscriptionRepository.deleteByIdAndUserId(5L, userId)).thenReturn(1);
+
+        // Act
+        subscriptionService.deleteSubscription(userId, 5L);
+
+        // Assert
+        verify(popularityIndex).decrement("Spotify");
+        verify(dailyCounts).decrement(LocalDate.of(2024, 1, 1), "Spotify");
+        verify(subscriptionRepository, never()).findById(any());
+        verify(userRepository).incrementVersions(List.of(userId));
+    }
+
+    @Test
+    void deleteSubscription_WhenNoRowMatches_ShouldThrowNotFound() {
+        // Arrange
+        when(subscriptionRepository.findDeletedByIdAndUserId(5L, userId)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> subscriptionService.deleteSubscription(userId, 5L));
+        assertTrue(exception.getMessage().contains("not found"));
+        verify(subscriptionRepository, never()).deleteByIdAndUserId(any(), any());
+        verifyNoInteractions(popularityIndex);
+        verify(userRepository, never()).incrementVersions(any());
+    }
+
+    @Test
+    void deleteSubscription_WhenDeletedConcurrently_ShouldThrowNotFoundWithoutDecrementing() {
+        // Arrange
+        runWriteTransactions();
+        SubscriptionRepository.DeletedSubscription deleted = mock(SubscriptionRepository.DeletedSubscription.class);
+        when(subscriptionRepository.findDeletedByIdAndUserId(5L, userId)).thenReturn(Optional.of(deleted));
+        when(subscriptionRepository.deleteByIdAndUserId(5L, userId)).thenReturn(0);
+
+        // Act & Assert
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> subscriptionService.deleteSubscription(userId, 5L));
+        assertTrue(exception.getMessage().contains("not found"));
+        verifyNoInteractions(popularityIndex);
+        verify(dailyCounts, never()).decrement(any(), any());
+        verify(userRepository, never()).incrementVersions(any());
+    }
+
+    @Test
+    void getSubscriptionsVersion_ShouldBeCachedUntilSubscriptionsChange() {
+        // Arrange
+        runWriteTransactions();
+        when(readRepository.findUserVersion(userId)).thenReturn(Optional.of(3L)).thenReturn(Optional.of(4L));
+        SubscriptionRepository.DeletedSubscription deleted = mock(SubscriptionRepository.DeletedSubscription.class);
+        when(deleted.getServiceName()).thenReturn("Spotify");
+        when(subscriptionRepository.findDeletedByIdAndUserId(5L, userId)).thenReturn(Optional.of(deleted));
+        when(subscriptionRepository.deleteByIdAndUserId(5L, userId)).thenReturn(1);
+
+        // Act & Assert
+        assertEquals(3L, subscriptionService.getSubscriptionsVersion(userId));
+        assertEquals(3L, subscriptionService.getSubscriptionsVersion(userId));
+        subscriptionService.deleteSubscription(userId, 5L);
+        assertEquals(4L, subscriptionService.getSubscriptionsVersion(userId));
+        verify(readRepository, times(2)).findUserVersion(userId);
+    }
+
+    @Test
+    void getSubscriptionsVersion_WhenUserIsMissing_ShouldThrowNotFound() {
+        // Arrange
+        when(readRepository.findUserVersion(userId)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> subscriptionService.getSubscriptionsVersion(userId));
+        assertEquals("User with id " + userId + " not found", exception.getMessage());
+    }
+
+    @Test
+    void getTopSubscriptions_WithoutRange_ShouldUseAllTimeIndex() {
+        // Arrange
+        List<TopSubscriptionDto> top = List.of(new TopSubscriptionDto("Netflix", 3L));
+        when(popularityIndex.getTop()).thenReturn(top);
+
+        // Act & Assert
+        assertEquals(top, subscriptionService.getTopSubscriptions(null, null, null));
+        verifyNoInteractions(dailyCounts);
+    }
+
+    @Test
+    void getTopSubscriptions_WithRange_ShouldUseDailyCounts() {
+        // Arrange
+        List<TopSubscriptionDto> top = List.of(new TopSubscriptionDto("Spotify", 2L));
+        when(dailyCounts.getTop(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 7), 5)).thenReturn(top);
+
+        // Act & Assert
+        assertEquals(top, subscriptionService.getTopSubscriptions(
+                LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 7), 5));
+        verifyNoInteractions(popularityIndex);
+    }
+
+    @Test
+    void getTopSubscriptions_WithInvalidArguments_ShouldThrowIllegalArgument() {
+        LocalDate day = LocalDate.of(2024, 1, 1);
+        assertThrows(IllegalArgumentException.class, () -> subscriptionService.getTopSubscriptions(null, day, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> subscriptionService.getTopSubscriptions(day, day.minusDays(1), null));
+        assertThrows(IllegalArgumentException.class, () -> subscriptionService.getTopSubscriptions(null, null, 0));
+        assertThrows(IllegalArgumentException.class, () -> subscriptionService.getTopSubscriptions(
+                null, null, SubscriptionServiceImpl.MAX_TOP_LIMIT + 1));
+    }
+
+    @Test
+    void getUserSubscriptions_WithMalformedToken_ShouldThrowIllegalArgument() {
+        assertThrows(IllegalArgumentException.class,
+                () -> subscriptionService.getUserSubscriptions(userId, "not-a-token", null));
+        verifyNoInteractions(readRepository);
+    }
+
+    private void runWriteTransactions() {
+        when(dailyCounts.inWriteTransaction(any())).thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(0).get());
+    }
+}
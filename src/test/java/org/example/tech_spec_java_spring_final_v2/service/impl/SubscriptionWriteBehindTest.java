@@ -0,0 +1,152 @@
+package org.example.tech_spec_java_spring_final_v2.service.impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.tech_spec_java_spring_final_v2.cache.CacheInvalidationBus;
+import org.example.tech_spec_java_spring_final_v2.cache.UserCache;
+import org.example.tech_spec_java_spring_final_v2.cache.UserVersionCache;
+import org.example.tech_spec_java_spring_final_v2.dto.SubscriptionDto;
+import org.example.tech_spec_java_spring_final_v2.dto.SubscriptionWriteDto;
+import org.example.tech_spec_java_spring_final_v2.exception.ServiceUnavailableException;
+import org.example.tech_spec_java_spring_final_v2.exception.TooManyRequestsException;
+import org.example.tech_spec_java_spring_final_v2.repository.BulkImportRepository;
+import org.example.tech_spec_java_spring_final_v2.repository.ReplicaRouting;
+import org.example.tech_spec_java_spring_final_v2.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SubscriptionWriteBehindTest {
+
+    private static final LocalDate START_DATE = LocalDate.of(2024, 3, 1);
+
+    @Mock
+    private BulkImportRepository repository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private SubscriptionPopularityIndex popularityIndex;
+
+    @Mock
+    private SubscriptionDailyCounts dailyCounts;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private CacheInvalidationBus invalidationBus;
+
+    @Spy
+    private UserCache userCache = new UserCache(100, Duration.ofMinutes(1), Duration.ofMinutes(1));
+
+    @Spy
+    private UserVersionCache versionCache = new UserVersionCache(100, Duration.ofMinutes(1));
+
+    @Test
+    void submit_WhenQueueIsFull_ShouldRejectWithRetryAfter() {
+        // Arrange
+        SubscriptionWriteBehind writeBehind = writeBehind(2);
+        writeBehind.submit(subscription(1L, "Netflix"));
+        writeBehind.submit(subscription(1L, "Spotify"));
+
+        // Act & Assert
+        TooManyRequestsException exception = assertThrows(TooManyRequestsException.class,
+                () -> writeBehind.submit(subscription(1L, "Okko")));
+        assertEquals(SubscriptionWriteBehind.RETRY_AFTER, exception.getRetryAfter());
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void stop_ShouldWriteQueuedSubscriptionsInOneBatch() {
+        // Arrange
+        SubscriptionWriteBehind writeBehind = writeBehind(10);
+        SubscriptionWriteDto first = writeBehind.submit(subscription(1L, "Netflix"));
+        SubscriptionWriteDto second = writeBehind.submit(subscription(1L, "Netflix"));
+        SubscriptionWriteDto third = writeBehind.submit(subscription(2L, "Spotify"));
+        assertEquals(SubscriptionWriteDto.Status.QUEUED, first.status());
+        when(repository.insertSubscriptionsReturningIds(anyList())).thenReturn(List.of(10L, 11L, 12L));
+
+        // Act
+        writeBehind.start();
+        writeBehind.stop();
+
+        // Assert
+        verify(repository).insertSubscriptionsReturningIds(anyList());
+        assertWritten(writeBehind, first, 10L);
+        assertWritten(writeBehind, second, 11L);
+        assertWritten(writeBehind, third, 12L);
+        verify(popularityIndex, times(2)).increment("Netflix");
+        verify(dailyCounts).add(START_DATE, "Netflix", 2L);
+        verify(dailyCounts).add(START_DATE, "Spotify", 1L);
+        verify(userRepository).incrementVersions(Set.of(1L, 2L));
+        verify(invalidationBus).publishAll(Set.of(1L, 2L));
+        ServiceUnavailableException exception = assertThrows(ServiceUnavailableException.class,
+                () -> writeBehind.submit(subscription(1L, "Okko")));
+        assertEquals(SubscriptionWriteBehind.RETRY_AFTER, exception.getRetryAfter());
+    }
+
+    @Test
+    void write_WhenBatchViolatesForeignKey_ShouldFailOnlyTheOffendingSubscription() {
+        // Arrange
+        SubscriptionWriteBehind writeBehind = writeBehind(10);
+        SubscriptionWriteDto valid = writeBehind.submit(subscription(1L, "Netflix"));
+        SubscriptionWriteDto orphan = writeBehind.submit(subscription(2L, "Spotify"));
+        when(repository.insertSubscriptionsReturningIds(anyList())).thenAnswer(invocation -> {
+            List<SubscriptionDto> subscriptions = invocation.getArgument(0);
+            if (subscriptions.stream().anyMatch(subscription -> subscription.userId() == 2L)) {
+                throw new DataIntegrityViolationException("insert failed",
+                        new SQLException("violates foreign key constraint", "23503"));
+            }
+            return List.of(10L);
+        });
+
+        // Act
+        writeBehind.write(List.of(pending(valid), pending(orphan)));
+
+        // Assert
+        verify(repository, times(3)).insertSubscriptionsReturningIds(anyList());
+        assertWritten(writeBehind, valid, 10L);
+        SubscriptionWriteDto failed = writeBehind.get(orphan.trackingId()).orElseThrow();
+        assertEquals(SubscriptionWriteDto.Status.FAILED, failed.status());
+        assertEquals("User with id 2 not found", failed.error());
+        verify(userCache).invalidate(2L);
+        verify(popularityIndex, never()).increment("Spotify");
+    }
+
+    private SubscriptionWriteBehind writeBehind(int queueCapacity) {
+        return new SubscriptionWriteBehind(repository, userRepository, popularityIndex, dailyCounts, userCache,
+                versionCache, new ReplicaRouting("", Duration.ofSeconds(5), 100), invalidationBus,
+                transactionManager, new SimpleMeterRegistry(), queueCapacity, 500, Duration.ofMinutes(1),
+                1000, Duration.ofSeconds(10));
+    }
+
+    private static SubscriptionDto subscription(Long userId, String serviceName) {
+        return new SubscriptionDto(null, userId, serviceName, START_DATE);
+    }
+
+    private static SubscriptionWriteBehind.Pending pending(SubscriptionWriteDto write) {
+        return new SubscriptionWriteBehind.Pending(write.trackingId(), write.subscription());
+    }
+
+    private static void assertWritten(SubscriptionWriteBehind writeBehind, SubscriptionWriteDto write, Long id) {
+        SubscriptionWriteDto written = writeBehind.get(write.trackingId()).orElseThrow();
+        assertEquals(SubscriptionWriteDto.Status.WRITTEN, written.status());
+        assertEquals(id, written.subscription().id());
+    }
+}
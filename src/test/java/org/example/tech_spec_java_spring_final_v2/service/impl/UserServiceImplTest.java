@@ -4,8 +4,18 @@ import ch.qos.logback.classic.Level;
 import ch.qos.logback.classic.Logger;
 import ch.qos.logback.classic.spi.ILoggingEvent;
 import ch.qos.logback.core.read.ListAppender;
+import org.example.tech_spec_java_spring_final_v2.cache.CacheInvalidationBus;
+import org.example.tech_spec_java_spring_final_v2.cache.UserCache;
+import org.example.tech_spec_java_spring_final_v2.cache.UserVersionCache;
+import org.example.tech_spec_java_spring_final_v2.cache.UserEmailFilter;
+import org.example.tech_spec_java_spring_final_v2.dto.SubscriptionDailyCountDto;
+import org.example.tech_spec_java_spring_final_v2.dto.UserBatchDto;
 import org.example.tech_spec_java_spring_final_v2.dto.UserDto;
 import org.example.tech_spec_java_spring_final_v2.entity.UserEntity;
+import org.example.tech_spec_java_spring_final_v2.exception.ConflictException;
+import org.example.tech_spec_java_spring_final_v2.repository.JdbcReadRepository;
+import org.example.tech_spec_java_spring_final_v2.repository.ReplicaRouting;
+import org.example.tech_spec_java_spring_final_v2.repository.SubscriptionRepository;
 import org.example.tech_spec_java_spring_final_v2.repository.UserRepository;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -13,11 +23,18 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
 
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -29,6 +46,33 @@ class UserServiceImplTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private SubscriptionRepository subscriptionRepository;
+
+    @Mock
+    private JdbcReadRepository readRepository;
+
+    @Spy
+    private UserCache userCache = new UserCache(100, Duration.ofMinutes(1), Duration.ofMinutes(1));
+
+    @Spy
+    private UserVersionCache versionCache = new UserVersionCache(100, Duration.ofMinutes(1));
+
+    @Spy
+    private ReplicaRouting replicaRouting = new ReplicaRouting("", Duration.ofSeconds(5), 100);
+
+    @Mock
+    private CacheInvalidationBus invalidationBus;
+
+    @Mock
+    private UserEmailFilter emailFilter;
+
+    @Mock
+    private SubscriptionPopularityIndex popularityIndex;
+
+    @Mock
+    private SubscriptionDailyCounts dailyCounts;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -74,7 +118,6 @@ class UserServiceImplTest {
                 .email(userEmail)
                 .build();
 
-        when(userRepository.findByEmail(userEmail)).thenReturn(Optional.empty());
         when(userRepository.save(any(UserEntity.class))).thenReturn(savedEntity);
 
         // Act
@@ -85,17 +128,17 @@ class UserServiceImplTest {
         assertEquals(userId, result.id());
         assertEquals(userName, result.name());
         assertEquals(userEmail, result.email());
-        verify(userRepository, times(1)).findByEmail(userEmail);
+        verify(userRepository, never()).findByEmail(any());
         verify(userRepository, times(1)).save(any(UserEntity.class));
 
         // Verify log messages
         List<ILoggingEvent> logsList = listAppender.list;
 
-        // Should have at least 3 log messages (info at start, debug during save, info at end)
+        // Should have at least 3 log messages (debug at start, debug during save, debug at end)
         assertTrue(logsList.size() >= 3);
 
-        // Verify info log at the beginning
-        assertEquals(Level.INFO, logsList.get(0).getLevel());
+        // Verify debug log at the beginning
+        assertEquals(Level.DEBUG, logsList.get(0).getLevel());
         assertEquals("Creating new user with name: {}, email: {}", logsList.get(0).getMessage());
         assertEquals(2, logsList.get(0).getArgumentArray().length);
         assertEquals(userName, logsList.get(0).getArgumentArray()[0]);
@@ -111,10 +154,10 @@ class UserServiceImplTest {
         }
         assertTrue(hasDebugLog, "Debug log message about saving user not found");
 
-        // Verify info log at the end
+        // Verify debug log at the end
         boolean hasSuccessLog = false;
         for (ILoggingEvent event : logsList) {
-            if (event.getLevel() == Level.INFO && event.getMessage().contains("User created successfully")) {
+            if (event.getLevel() == Level.DEBUG && event.getMessage().contains("User created successfully")) {
                 hasSuccessLog = true;
                 break;
             }
@@ -126,34 +169,29 @@ class UserServiceImplTest {
     void createUser_WithExistingEmail_ShouldThrowExceptionAndLogError() {
         // Arrange
         UserDto inputDto = new UserDto(null, "New User", userEmail);
-        UserEntity existingUser = UserEntity.builder()
-                .id(2L)
-                .name("Existing User")
-                .email(userEmail)
-                .build();
 
-        when(userRepository.findByEmail(userEmail)).thenReturn(Optional.of(existingUser));
+        when(userRepository.save(any(UserEntity.class))).thenThrow(uniqueViolation());
 
         // Clear previous logs
         listAppender.list.clear();
 
         // Act & Assert
-        RuntimeException exception = assertThrows(RuntimeException.class, () -> {
+        ConflictException exception = assertThrows(ConflictException.class, () -> {
             userService.createUser(inputDto);
         });
 
         assertEquals("User with email " + userEmail + " already exists", exception.getMessage());
-        verify(userRepository, times(1)).findByEmail(userEmail);
-        verify(userRepository, never()).save(any(UserEntity.class));
+        verify(userRepository, never()).findByEmail(any());
+        verify(userRepository, times(1)).save(any(UserEntity.class));
 
         // Verify log messages
         List<ILoggingEvent> logsList = listAppender.list;
 
-        // Should have at least 2 log messages (info at start, error when email exists)
+        // Should have at least 2 log messages (debug at start, error when email exists)
         assertTrue(logsList.size() >= 2);
 
-        // Verify info log at the beginning
-        assertEquals(Level.INFO, logsList.get(0).getLevel());
+        // Verify debug log at the beginning
+        assertEquals(Level.DEBUG, logsList.get(0).getLevel());
         assertEquals("Creating new user with name: {}, email: {}", logsList.get(0).getMessage());
 
         // Verify error log when email exists
@@ -170,7 +208,7 @@ class UserServiceImplTest {
     @Test
     void getUser_WhenUserExists_ShouldReturnUserDtoAndLogMessages() {
         // Arrange
-        when(userRepository.findById(userId)).thenReturn(Optional.of(userEntity));
+        when(readRepository.findUserById(userId)).thenReturn(Optional.of(userDto));
 
         // Clear previous logs
         listAppender.list.clear();
@@ -183,16 +221,16 @@ class UserServiceImplTest {
         assertEquals(userId, result.id());
         assertEquals(userName, result.name());
         assertEquals(userEmail, result.email());
-        verify(userRepository, times(1)).findById(userId);
+        verify(readRepository, times(1)).findUserById(userId);
 
         // Verify log messages
         List<ILoggingEvent> logsList = listAppender.list;
 
-        // Should have at least 3 log messages (info at start, debug when found, info at end)
+        // Should have at least 3 log messages (debug at start, debug when found, debug at end)
         assertTrue(logsList.size() >= 3);
 
-        // Verify info log at the beginning
-        assertEquals(Level.INFO, logsList.get(0).getLevel());
+        // Verify debug log at the beginning
+        assertEquals(Level.DEBUG, logsList.get(0).getLevel());
         assertTrue(logsList.get(0).getMessage().contains("Getting user with id"));
 
         // Verify debug log when user is found
@@ -205,10 +243,10 @@ class UserServiceImplTest {
         }
         assertTrue(hasDebugLog, "Debug log message about user found not found");
 
-        // Verify info log at the end
+        // Verify debug log at the end
         boolean hasSuccessLog = false;
         for (ILoggingEvent event : logsList) {
-            if (event.getLevel() == Level.INFO && event.getMessage().contains("Successfully retrieved user")) {
+            if (event.getLevel() == Level.DEBUG && event.getMessage().contains("Successfully retrieved user")) {
                 hasSuccessLog = true;
                 break;
             }
@@ -219,7 +257,7 @@ class UserServiceImplTest {
     @Test
     void getUser_WhenUserDoesNotExist_ShouldThrowExceptionAndLogError() {
         // Arrange
-        when(userRepository.findById(userId)).thenReturn(Optional.empty());
+        when(readRepository.findUserById(userId)).thenReturn(Optional.empty());
 
         // Clear previous logs
         listAppender.list.clear();
@@ -227,16 +265,16 @@ class UserServiceImplTest {
         // Act & Assert
         RuntimeException exception = assertThrows(RuntimeException.class, () -> userService.getUser(userId));
         assertEquals("User with id " + userId + " not found", exception.getMessage());
-        verify(userRepository, times(1)).findById(userId);
+        verify(readRepository, times(1)).findUserById(userId);
 
         // Verify log messages
         List<ILoggingEvent> logsList = listAppender.list;
 
-        // Should have at least 2 log messages (info at start, error when not found)
+        // Should have at least 2 log messages (debug at start, error when not found)
         assertTrue(logsList.size() >= 2);
 
-        // Verify info log at the beginning
-        assertEquals(Level.INFO, logsList.get(0).getLevel());
+        // Verify debug log at the beginning
+        assertEquals(Level.DEBUG, logsList.get(0).getLevel());
         assertTrue(logsList.get(0).getMessage().contains("Getting user with id"));
 
         // Verify error log when user is not found
@@ -256,15 +294,8 @@ class UserServiceImplTest {
         // Arrange
         String newEmail = "updated.email@example.com";
         UserDto updateDto = new UserDto(userId, "Updated Name", newEmail);
-        UserEntity updatedEntity = UserEntity.builder()
-                .id(userId)
-                .name("Updated Name")
-                .email(newEmail)
-                .build();
 
-        when(userRepository.findById(userId)).thenReturn(Optional.of(userEntity));
-        when(userRepository.findByEmail(newEmail)).thenReturn(Optional.empty());
-        when(userRepository.save(any(UserEntity.class))).thenReturn(updatedEntity);
+        when(userRepository.updateNameAndEmail(userId, "Updated Name", newEmail)).thenReturn(1);
 
         // Clear previous logs
         listAppender.list.clear();
@@ -277,30 +308,23 @@ class UserServiceImplTest {
         assertEquals(userId, result.id());
         assertEquals("Updated Name", result.name());
         assertEquals(newEmail, result.email());
-        verify(userRepository, times(1)).findById(userId);
-        verify(userRepository, times(1)).findByEmail(newEmail);
-        verify(userRepository, times(1)).save(any(UserEntity.class));
+        verify(readRepository, never()).findUserById(any());
+        verify(userRepository, never()).findByEmail(any());
+        verify(userRepository, times(1)).updateNameAndEmail(userId, "Updated Name", newEmail);
+        verify(userCache, times(1)).invalidate(userId);
+        verify(versionCache, times(1)).invalidate(userId);
+        verify(invalidationBus).publish(userId);
 
         // Verify log messages
         List<ILoggingEvent> logsList = listAppender.list;
 
-        // Should have at least 4 log messages (info at start, debug when found, debug during save, info at end)
-        assertTrue(logsList.size() >= 4);
+        // Should have at least 3 log messages (debug at start, debug during save, debug at end)
+        assertTrue(logsList.size() >= 3);
 
-        // Verify info log at the beginning
-        assertEquals(Level.INFO, logsList.get(0).getLevel());
+        // Verify debug log at the beginning
+        assertEquals(Level.DEBUG, logsList.get(0).getLevel());
         assertTrue(logsList.get(0).getMessage().contains("Updating user with id"));
 
-        // Verify debug log when user is found
-        boolean hasFoundDebugLog = false;
-        for (ILoggingEvent event : logsList) {
-            if (event.getLevel() == Level.DEBUG && event.getMessage().contains("Found user to update")) {
-                hasFoundDebugLog = true;
-                break;
-            }
-        }
-        assertTrue(hasFoundDebugLog, "Debug log message about found user not found");
-
         // Verify debug log during save
         boolean hasSaveDebugLog = false;
         for (ILoggingEvent event : logsList) {
@@ -311,10 +335,10 @@ class UserServiceImplTest {
         }
         assertTrue(hasSaveDebugLog, "Debug log message about saving user not found");
 
-        // Verify info log at the end
+        // Verify debug log at the end
         boolean hasSuccessLog = false;
         for (ILoggingEvent event : logsList) {
-            if (event.getLevel() == Level.INFO && event.getMessage().contains("User with id") && 
+            if (event.getLevel() == Level.DEBUG && event.getMessage().contains("User with id") && 
                 event.getMessage().contains("updated successfully")) {
                 hasSuccessLog = true;
                 break;
@@ -324,61 +348,36 @@ class UserServiceImplTest {
     }
 
     @Test
-    void updateUser_WithExistingEmail_ShouldThrowExceptionAndLogError() {
+    void updateUser_WithExistingEmail_ShouldThrowConflictAndLogError() {
         // Arrange
-        Long existingUserId = 2L;
         String existingEmail = "existing.email@example.com";
-
         UserDto updateDto = new UserDto(userId, "Updated Name", existingEmail);
 
-        UserEntity userToUpdate = UserEntity.builder()
-                .id(userId)
-                .name(userName)
-                .email(userEmail)
-                .build();
-
-        UserEntity existingUser = UserEntity.builder()
-                .id(existingUserId)
-                .name("Existing User")
-                .email(existingEmail)
-                .build();
-
-        when(userRepository.findById(userId)).thenReturn(Optional.of(userToUpdate));
-        when(userRepository.findByEmail(existingEmail)).thenReturn(Optional.of(existingUser));
+        when(userRepository.updateNameAndEmail(userId, "Updated Name", existingEmail)).thenThrow(uniqueViolation());
 
         // Clear previous logs
         listAppender.list.clear();
 
         // Act & Assert
-        RuntimeException exception = assertThrows(RuntimeException.class, () -> {
+        ConflictException exception = assertThrows(ConflictException.class, () -> {
             userService.updateUser(userId, updateDto);
         });
 
         assertEquals("Email " + existingEmail + " already in use by another user", exception.getMessage());
-        verify(userRepository, times(1)).findById(userId);
-        verify(userRepository, times(1)).findByEmail(existingEmail);
-        verify(userRepository, never()).save(any(UserEntity.class));
+        verify(readRepository, never()).findUserById(any());
+        verify(userRepository, never()).findByEmail(any());
+        verify(userCache, never()).invalidate(any());
 
         // Verify log messages
         List<ILoggingEvent> logsList = listAppender.list;
 
-        // Should have at least 3 log messages (info at start, debug when found, error when email exists)
-        assertTrue(logsList.size() >= 3);
+        // Should have at least 2 log messages (debug at start, error when email exists)
+        assertTrue(logsList.size() >= 2);
 
-        // Verify info log at the beginning
-        assertEquals(Level.INFO, logsList.get(0).getLevel());
+        // Verify debug log at the beginning
+        assertEquals(Level.DEBUG, logsList.get(0).getLevel());
         assertTrue(logsList.get(0).getMessage().contains("Updating user with id"));
 
-        // Verify debug log when user is found
-        boolean hasFoundDebugLog = false;
-        for (ILoggingEvent event : logsList) {
-            if (event.getLevel() == Level.DEBUG && event.getMessage().contains("Found user to update")) {
-                hasFoundDebugLog = true;
-                break;
-            }
-        }
-        assertTrue(hasFoundDebugLog, "Debug log message about found user not found");
-
         // Verify error log when email exists
         boolean hasErrorLog = false;
         for (ILoggingEvent event : logsList) {
@@ -394,7 +393,7 @@ class UserServiceImplTest {
     void updateUser_WhenUserDoesNotExist_ShouldThrowExceptionAndLogError() {
         // Arrange
         UserDto updateDto = new UserDto(userId, "Updated Name", "updated.email@example.com");
-        when(userRepository.findById(userId)).thenReturn(Optional.empty());
+        when(userRepository.updateNameAndEmail(userId, "Updated Name", "updated.email@example.com")).thenReturn(0);
 
         // Clear previous logs
         listAppender.list.clear();
@@ -403,17 +402,16 @@ class UserServiceImplTest {
         RuntimeException exception = assertThrows(RuntimeException.class, 
                 () -> userService.updateUser(userId, updateDto));
         assertEquals("User with id " + userId + " not found", exception.getMessage());
-        verify(userRepository, times(1)).findById(userId);
-        verify(userRepository, never()).save(any(UserEntity.class));
+        verify(readRepository, never()).findUserById(any());
 
         // Verify log messages
         List<ILoggingEvent> logsList = listAppender.list;
 
-        // Should have at least 2 log messages (info at start, error when not found)
+        // Should have at least 2 log messages (debug at start, error when not found)
         assertTrue(logsList.size() >= 2);
 
-        // Verify info log at the beginning
-        assertEquals(Level.INFO, logsList.get(0).getLevel());
+        // Verify debug log at the beginning
+        assertEquals(Level.DEBUG, logsList.get(0).getLevel());
         assertTrue(logsList.get(0).getMessage().contains("Updating user with id"));
 
         // Verify error log when user is not found
@@ -431,6 +429,7 @@ class UserServiceImplTest {
     @Test
     void deleteUser_ShouldCallRepositoryDeleteByIdAndLogMessages() {
         // Arrange
+        runWriteTransactions();
         doNothing().when(userRepository).deleteById(userId);
 
         // Clear previous logs
@@ -445,17 +444,17 @@ class UserServiceImplTest {
         // Verify log messages
         List<ILoggingEvent> logsList = listAppender.list;
 
-        // Should have at least 2 log messages (info at start, info at end)
+        // Should have at least 2 log messages (debug at start, debug at end)
         assertTrue(logsList.size() >= 2);
 
-        // Verify info log at the beginning
-        assertEquals(Level.INFO, logsList.get(0).getLevel());
+        // Verify debug log at the beginning
+        assertEquals(Level.DEBUG, logsList.get(0).getLevel());
         assertTrue(logsList.get(0).getMessage().contains("Deleting user with id"));
 
-        // Verify info log at the end
+        // Verify debug log at the end
         boolean hasSuccessLog = false;
         for (ILoggingEvent event : logsList) {
-            if (event.getLevel() == Level.INFO && event.getMessage().contains("User with id") && 
+            if (event.getLevel() == Level.DEBUG && event.getMessage().contains("User with id") && 
                 event.getMessage().contains("deleted successfully")) {
                 hasSuccessLog = true;
                 break;
@@ -467,6 +466,7 @@ class UserServiceImplTest {
     @Test
     void deleteUser_WhenExceptionOccurs_ShouldLogError() {
         // Arrange
+        runWriteTransactions();
         doThrow(new RuntimeException("Database error")).when(userRepository).deleteById(userId);
 
         // Clear previous logs
@@ -479,11 +479,11 @@ class UserServiceImplTest {
         // Verify log messages
         List<ILoggingEvent> logsList = listAppender.list;
 
-        // Should have at least 2 log messages (info at start, error when exception occurs)
+        // Should have at least 2 log messages (debug at start, error when exception occurs)
         assertTrue(logsList.size() >= 2);
 
-        // Verify info log at the beginning
-        assertEquals(Level.INFO, logsList.get(0).getLevel());
+        // Verify debug log at the beginning
+        assertEquals(Level.DEBUG, logsList.get(0).getLevel());
         assertTrue(logsList.get(0).getMessage().contains("Deleting user with id"));
 
         // Verify error log when exception occurs
@@ -496,4 +496,147 @@ class UserServiceImplTest {
         }
         assertTrue(hasErrorLog, "Error log message not found");
     }
+
+    @Test
+    void getUser_WhenCalledRepeatedly_ShouldLoadFromDatabaseOnce() {
+        // Arrange
+        when(readRepository.findUserById(userId)).thenReturn(Optional.of(userDto));
+        when(readRepository.findUserById(2L)).thenReturn(Optional.empty());
+
+        // Act
+        userService.getUser(userId);
+        UserDto result = userService.getUser(userId);
+        assertThrows(RuntimeException.class, () -> userService.getUser(2L));
+        assertThrows(RuntimeException.class, () -> userService.getUser(2L));
+
+        // Assert
+        assertEquals(userDto, result);
+        verify(readRepository, times(1)).findUserById(userId);
+        verify(readRepository, times(1)).findUserById(2L);
+        assertEquals(2, userCache.stats().hits());
+        assertEquals(2, userCache.stats().misses());
+    }
+
+    @Test
+    void deleteUser_ShouldInvalidateCachedUser() {
+        // Arrange
+        runWriteTransactions();
+        when(readRepository.findUserById(userId)).thenReturn(Optional.of(userDto)).thenReturn(Optional.empty());
+        userService.getUser(userId);
+
+        // Act
+        userService.deleteUser(userId);
+
+        // Assert
+        assertThrows(RuntimeException.class, () -> userService.getUser(userId));
+        verify(readRepository, times(2)).findUserById(userId);
+    }
+
+    @Test
+    void getUserVersion_ShouldBeCachedUntilUserIsUpdated() {
+        // Arrange
+        when(readRepository.findUserVersion(userId)).thenReturn(Optional.of(0L)).thenReturn(Optional.of(1L));
+        when(userRepository.updateNameAndEmail(userId, userName, userEmail)).thenReturn(1);
+
+        // Act & Assert
+        assertEquals(0L, userService.getUserVersion(userId));
+        assertEquals(0L, userService.getUserVersion(userId));
+        userService.updateUser(userId, userDto);
+        assertEquals(1L, userService.getUserVersion(userId));
+        verify(readRepository, times(2)).findUserVersion(userId);
+    }
+
+    @Test
+    void getUserVersion_WhenUserIsMissing_ShouldThrowNotFoundAndNotCacheIt() {
+        // Arrange
+        when(readRepository.findUserVersion(userId)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(RuntimeException.class, () -> userService.getUserVersion(userId));
+        assertThrows(RuntimeException.class, () -> userService.getUserVersion(userId));
+        verify(readRepository, times(2)).findUserVersion(userId);
+    }
+
+    @Test
+    void deleteUser_ShouldSubtractCascadedSubscriptionsFromCounts() {
+        // Arrange
+        runWriteTransactions();
+        List<SubscriptionDailyCountDto> subscriptions = List.of(
+                new SubscriptionDailyCountDto(LocalDate.of(2024, 1, 1), "Netflix", 2L),
+                new SubscriptionDailyCountDto(LocalDate.of(2024, 1, 2), "Spotify", 1L));
+        when(subscriptionRepository.countDailyByUserId(userId)).thenReturn(subscriptions);
+
+        // Act
+        userService.deleteUser(userId);
+
+        // Assert
+        verify(dailyCounts).decrementAll(subscriptions);
+        verify(popularityIndex).decrement("Netflix", 2L);
+        verify(popularityIndex).decrement("Spotify", 1L);
+    }
+
+    @Test
+    void getUsers_ShouldReturnUsersInRequestOrderAndReportMissingIds() {
+        // Arrange
+        UserDto other = new UserDto(3L, "Jane Doe", "jane.doe@example.com");
+        when(readRepository.findUsersByIds(any())).thenReturn(List.of(userDto, other));
+
+        // Act
+        UserBatchDto result = userService.getUsers(List.of(3L, 2L, userId, 3L));
+
+        // Assert
+        assertEquals(List.of(other, userDto), result.users());
+        assertEquals(List.of(2L), result.missingIds());
+        verify(readRepository, times(1)).findUsersByIds(any());
+        verify(readRepository, never()).findUserById(any());
+    }
+
+    @Test
+    void getUsers_ShouldQueryOnlyIdsMissingFromCache() {
+        // Arrange
+        when(readRepository.findUserById(userId)).thenReturn(Optional.of(userDto));
+        userService.getUser(userId);
+        when(readRepository.findUsersByIds(any())).thenReturn(List.of());
+
+        // Act
+        UserBatchDto result = userService.getUsers(List.of(userId, 2L));
+        UserBatchDto repeated = userService.getUsers(List.of(2L, userId));
+
+        // Assert
+        assertEquals(List.of(userDto), result.users());
+        assertEquals(List.of(2L), repeated.missingIds());
+        verify(readRepository, times(1)).findUsersByIds(List.of(2L));
+    }
+
+    @Test
+    void getUsers_WithManyIds_ShouldQueryInBoundedChunks() {
+        // Arrange
+        List<Long> ids = LongStream.rangeClosed(1, UserServiceImpl.MAX_BATCH_SIZE).boxed().toList();
+        when(readRepository.findUsersByIds(any())).thenReturn(List.of());
+
+        // Act
+        UserBatchDto result = userService.getUsers(ids);
+
+        // Assert
+        assertEquals(ids, result.missingIds());
+        verify(readRepository, times(UserServiceImpl.MAX_BATCH_SIZE / UserServiceImpl.LOOKUP_CHUNK_SIZE))
+                .findUsersByIds(argThat(chunk -> chunk.size() == UserServiceImpl.LOOKUP_CHUNK_SIZE));
+    }
+
+    @Test
+    void getUsers_WithTooManyIds_ShouldThrowIllegalArgument() {
+        List<Long> ids = LongStream.rangeClosed(1, UserServiceImpl.MAX_BATCH_SIZE + 1).boxed().toList();
+
+        assertThrows(IllegalArgumentException.class, () -> userService.getUsers(ids));
+        verifyNoInteractions(readRepository);
+    }
+
+    private static DataIntegrityViolationException uniqueViolation() {
+        return new DataIntegrityViolationException("duplicate key",
+                new SQLException("duplicate key value violates unique constraint", "23505"));
+    }
+
+    private void runWriteTransactions() {
+        when(dailyCounts.inWriteTransaction(any())).thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(0).get());
+    }
 }